@@ -0,0 +1,70 @@
+package dev.autonu.framework.common.context;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection checkout through {@link ClientAwareDataSource} compared to a plain {@link HikariDataSource},
+ * both backed by {@link StubJdbc}. {@literal sameClient} checks out connections for a single client,
+ * otherwise the client changes on every checkout.
+ *
+ * @author autonu2X
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientAwareDataSourceBenchmark {
+
+    private final ClientUserAssociation[] associations = {new ClientUserAssociation(1, 1L, null), new ClientUserAssociation(2, 2L, null)};
+    private HikariDataSource plainDataSource;
+    private ClientAwareDataSource clientAwareDataSource;
+    private int checkouts;
+
+    @Param({"true", "false"})
+    public boolean sameClient;
+
+    @Setup
+    public void setUp(){
+        plainDataSource = new HikariDataSource();
+        plainDataSource.setDataSource(StubJdbc.dataSource());
+        plainDataSource.setMaximumPoolSize(2);
+        clientAwareDataSource = new ClientAwareDataSource("app.current_client_id");
+        clientAwareDataSource.setDataSource(StubJdbc.dataSource());
+        clientAwareDataSource.setMaximumPoolSize(2);
+    }
+
+    @TearDown
+    public void tearDown(){
+        plainDataSource.close();
+        clientAwareDataSource.close();
+        ClientContext.clear();
+    }
+
+    @Benchmark
+    public void plain() throws SQLException{
+        ClientContext.set(nextAssociation());
+        try (Connection connection = plainDataSource.getConnection()) {
+            connection.getAutoCommit();
+        }
+    }
+
+    @Benchmark
+    public void clientAware() throws SQLException{
+        ClientContext.set(nextAssociation());
+        try (Connection connection = clientAwareDataSource.getConnection()) {
+            connection.getAutoCommit();
+        }
+    }
+
+    private ClientUserAssociation nextAssociation(){
+        return sameClient ? associations[0] : associations[checkouts++ & 1];
+    }
+}
@@ -0,0 +1,50 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.BaseClientAwareModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of audit and client stamping done by {@link ClientAwareModelListener}
+ *
+ * @author autonu2X
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientAwareModelListenerBenchmark {
+
+    private final ClientAwareModelListener listener = new ClientAwareModelListener(new DateTimeFormatProperties(DateTimeFormatProperties.DEFAULT_ZONE, null));
+    private final BenchmarkModel model = new BenchmarkModel();
+
+    public static class BenchmarkModel extends BaseClientAwareModel<Long> {
+    }
+
+    @Setup
+    public void setUp(){
+        ClientContext.set(new ClientUserAssociation(1, 1L, null));
+    }
+
+    @TearDown
+    public void tearDown(){
+        ClientContext.clear();
+    }
+
+    @Benchmark
+    public BenchmarkModel prePersist(){
+        listener.prePersist(model);
+        return model;
+    }
+
+    @Benchmark
+    public BenchmarkModel preUpdate(){
+        listener.preUpdate(model);
+        return model;
+    }
+}
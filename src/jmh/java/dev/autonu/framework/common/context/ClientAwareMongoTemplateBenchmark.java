@@ -0,0 +1,91 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query and insert rewriting of {@link ClientAwareMongoTemplate} compared to a plain {@link MongoTemplate},
+ * both backed by {@link StubMongo}
+ *
+ * @author autonu2X
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientAwareMongoTemplateBenchmark {
+
+    private static final String DATABASE = "benchmark";
+    private MongoTemplate plainTemplate;
+    private ClientAwareMongoTemplate clientAwareTemplate;
+
+    public static class BenchmarkDocument extends BaseClientAwareMongoModel {
+
+        private String name = "benchmark";
+
+        public String getName(){
+            return name;
+        }
+
+        public void setName(String name){
+            this.name = name;
+        }
+    }
+
+    @Setup
+    public void setUp(){
+        plainTemplate = new MongoTemplate(StubMongo.mongoClient(), DATABASE);
+        clientAwareTemplate = new ClientAwareMongoTemplate(StubMongo.mongoClient(), DATABASE, new DateTimeFormatProperties(DateTimeFormatProperties.DEFAULT_ZONE, null));
+        ClientContext.set(new ClientUserAssociation(1, 1L, "benchmark"));
+    }
+
+    @TearDown
+    public void tearDown(){
+        ClientContext.clear();
+    }
+
+    @Benchmark
+    public List<BenchmarkDocument> findPlain(){
+        return plainTemplate.find(query(), BenchmarkDocument.class);
+    }
+
+    @Benchmark
+    public List<BenchmarkDocument> findClientAware(){
+        return clientAwareTemplate.find(query(), BenchmarkDocument.class);
+    }
+
+    @Benchmark
+    public long countPlain(){
+        return plainTemplate.count(query(), BenchmarkDocument.class);
+    }
+
+    @Benchmark
+    public long countClientAware(){
+        return clientAwareTemplate.count(query(), BenchmarkDocument.class);
+    }
+
+    @Benchmark
+    public BenchmarkDocument insertPlain(){
+        return plainTemplate.insert(new BenchmarkDocument());
+    }
+
+    @Benchmark
+    public BenchmarkDocument insertClientAware(){
+        return clientAwareTemplate.insert(new BenchmarkDocument());
+    }
+
+    private static Query query(){
+        return Query.query(Criteria.where("name")
+                .is("benchmark"));
+    }
+}
@@ -0,0 +1,50 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of binding and reading the current client
+ *
+ * @author autonu2X
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientContextBenchmark {
+
+    private final ClientUserAssociation association = new ClientUserAssociation(1, 1L, "benchmark");
+
+    @Setup
+    public void setUp(){
+        ClientContext.set(association);
+    }
+
+    @TearDown
+    public void tearDown(){
+        ClientContext.clear();
+    }
+
+    @Benchmark
+    public ClientUserAssociation get(){
+        return ClientContext.get();
+    }
+
+    @Benchmark
+    public void set(){
+        ClientContext.set(association);
+    }
+
+    @Benchmark
+    public ClientUserAssociation setGetClear(){
+        ClientContext.set(association);
+        ClientUserAssociation current = ClientContext.get();
+        ClientContext.clear();
+        return current;
+    }
+}
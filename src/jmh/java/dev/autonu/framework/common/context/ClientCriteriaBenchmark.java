@@ -0,0 +1,53 @@
+package dev.autonu.framework.common.context;
+
+import org.bson.Document;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of adding the {@literal client_id} predicate to a query, building it per query compared to the cached criteria
+ *
+ * @author autonu2X
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientCriteriaBenchmark {
+
+    private static final String FIELD_CLIENT_ID = "client_id";
+    private final ClientCriteriaCache criteriaCache = new ClientCriteriaCache(FIELD_CLIENT_ID, ClientAwareMongoTemplate.DEFAULT_MAX_CACHED_CLIENT_CRITERIA);
+    private final Integer clientId = 1;
+
+    @Benchmark
+    public Query builtCriteria(){
+        return new Query().addCriteria(Criteria.where(FIELD_CLIENT_ID)
+                .is(clientId));
+    }
+
+    @Benchmark
+    public Query cachedCriteria(){
+        return new Query().addCriteria(criteriaCache.get(clientId));
+    }
+
+    @Benchmark
+    public Document builtDocumentFilter(){
+        Document filter = new Document("status", "active");
+        filter.putAll(Query.query(Criteria.where(FIELD_CLIENT_ID)
+                        .is(clientId))
+                .getQueryObject());
+        return filter;
+    }
+
+    @Benchmark
+    public Document directDocumentFilter(){
+        Document filter = new Document("status", "active");
+        filter.put(FIELD_CLIENT_ID, clientId);
+        return filter;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.autonu.framework.common.context;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process JDBC stand-in used by benchmarks. Every statement succeeds without doing any work,
+ * so only the cost of the pool and the client binding is measured.
+ *
+ * @author autonu2X
+ */
+final class StubJdbc {
+
+    private static final Map<Class<?>, Object> STUBS = new ConcurrentHashMap<>();
+    private static final InvocationHandler HANDLER = StubJdbc::invoke;
+
+    private StubJdbc(){
+    }
+
+    static DataSource dataSource(){
+        return stub(DataSource.class);
+    }
+
+    private static Object invoke(Object proxy, Method method, Object[] args){
+        String name = method.getName();
+        Class<?> returnType = method.getReturnType();
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Stub" + proxy.getClass()
+                        .getInterfaces()[0].getSimpleName();
+            };
+        }
+        if (proxy instanceof DataSource && returnType == Connection.class) {
+            return newStub(Connection.class);
+        }
+        if (name.equals("unwrap")) {
+            return proxy;
+        }
+        if (returnType == boolean.class) {
+            return name.equals("isValid") || name.equals("getAutoCommit") || name.equals("isWrapperFor");
+        }
+        if (returnType == int.class) {
+            return name.equals("getTransactionIsolation") ? Connection.TRANSACTION_READ_COMMITTED : 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType.isInterface() && returnType.getPackageName()
+                .startsWith("java")) {
+            return stub(returnType);
+        }
+        return null;
+    }
+
+    private static <T> T stub(Class<T> type){
+        return type.cast(STUBS.computeIfAbsent(type, StubJdbc::newStub));
+    }
+
+    private static <T> T newStub(Class<T> type){
+        return type.cast(Proxy.newProxyInstance(StubJdbc.class.getClassLoader(), new Class<?>[]{type}, HANDLER));
+    }
+}
@@ -0,0 +1,96 @@
+package dev.autonu.framework.common.context;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoNamespace;
+import com.mongodb.ReadConcern;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.result.InsertManyResult;
+import com.mongodb.client.result.InsertOneResult;
+import org.bson.BsonObjectId;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process MongoDB stand-in used by benchmarks. Queries return no documents and writes are
+ * acknowledged without doing any work, so only the cost of the template is measured.
+ *
+ * @author autonu2X
+ */
+final class StubMongo {
+
+    private static final Map<Class<?>, Object> STUBS = new ConcurrentHashMap<>();
+    private static final InvocationHandler HANDLER = StubMongo::invoke;
+    private static final InsertOneResult INSERT_ONE_RESULT = InsertOneResult.acknowledged(new BsonObjectId());
+    private static final InsertManyResult INSERT_MANY_RESULT = InsertManyResult.acknowledged(Map.of());
+
+    private StubMongo(){
+    }
+
+    static MongoClient mongoClient(){
+        return stub(MongoClient.class);
+    }
+
+    private static Object invoke(Object proxy, Method method, Object[] args){
+        String name = method.getName();
+        Class<?> returnType = method.getReturnType();
+        if (method.getDeclaringClass() == Object.class) {
+            return switch (name) {
+                case "equals" -> proxy == args[0];
+                case "hashCode" -> System.identityHashCode(proxy);
+                default -> "Stub" + proxy.getClass()
+                        .getInterfaces()[0].getSimpleName();
+            };
+        }
+        if (returnType == void.class) {
+            return null;
+        }
+        if (returnType.isInstance(proxy)) {
+            return proxy;
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == CodecRegistry.class) {
+            return MongoClientSettings.getDefaultCodecRegistry();
+        }
+        if (returnType == WriteConcern.class) {
+            return WriteConcern.ACKNOWLEDGED;
+        }
+        if (returnType == ReadPreference.class) {
+            return ReadPreference.primary();
+        }
+        if (returnType == ReadConcern.class) {
+            return ReadConcern.DEFAULT;
+        }
+        if (returnType == MongoNamespace.class) {
+            return new MongoNamespace("benchmark", "benchmark");
+        }
+        if (returnType == InsertOneResult.class) {
+            return INSERT_ONE_RESULT;
+        }
+        if (returnType == InsertManyResult.class) {
+            return INSERT_MANY_RESULT;
+        }
+        if (returnType.isInterface()) {
+            return stub(returnType);
+        }
+        return null;
+    }
+
+    private static <T> T stub(Class<T> type){
+        return type.cast(STUBS.computeIfAbsent(type, key -> Proxy.newProxyInstance(StubMongo.class.getClassLoader(), new Class<?>[]{key}, HANDLER)));
+    }
+}
@@ -0,0 +1,34 @@
+package dev.autonu.framework.common.actuate;
+
+import dev.autonu.framework.common.context.ClientAwareDataSource;
+import dev.autonu.framework.common.context.ClientAwareDataSourceAutotuner;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * Exposes current pool size and latest decisions of {@link ClientAwareDataSourceAutotuner}
+ *
+ * @author autonu2X
+ */
+@Endpoint(id = "datasourceautotune")
+public class ClientAwareDataSourceAutotuneEndpoint {
+
+    private final ClientAwareDataSourceAutotuner autotuner;
+
+    public ClientAwareDataSourceAutotuneEndpoint(ClientAwareDataSourceAutotuner autotuner){
+        this.autotuner = autotuner;
+    }
+
+    public record AutotuneDescriptor(int minPoolSize, int maxPoolSize, int maximumPoolSize, int minimumIdle, List<ClientAwareDataSourceAutotuner.Decision> decisions) {
+    }
+
+    @ReadOperation
+    public AutotuneDescriptor autotune(){
+        ClientAwareDataSource dataSource = autotuner.getDataSource();
+        return new AutotuneDescriptor(autotuner.getAutotune()
+                .minPoolSize(), autotuner.getAutotune()
+                .maxPoolSize(), dataSource.getMaximumPoolSize(), dataSource.getMinimumIdle(), autotuner.getDecisions());
+    }
+}
@@ -0,0 +1,32 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Registers the {@link AuditStamper} shared by the entity listener and the client-aware templates.
+ * A single {@link Clock} bean replaces the system clock, the zone is always {@literal common.starter.time.zone}.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration
+@EnableConfigurationProperties(DateTimeFormatProperties.class)
+public class AuditStamperConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public AuditStamper auditStamper(DateTimeFormatProperties dateTimeFormatProperties, ObjectProvider<Clock> clock){
+        ZoneId zoneId = ZoneId.of(dateTimeFormatProperties.zone());
+        Clock auditClock = clock.getIfUnique(() -> Clock.system(zoneId))
+                .withZone(zoneId);
+        return new AuditStamper(auditClock, dateTimeFormatProperties.auditPrecision());
+    }
+}
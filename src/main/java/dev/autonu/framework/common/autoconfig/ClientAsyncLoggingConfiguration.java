@@ -0,0 +1,52 @@
+package dev.autonu.framework.common.autoconfig;
+
+import ch.qos.logback.classic.LoggerContext;
+import dev.autonu.framework.common.logging.ClientAsyncAppender;
+import dev.autonu.framework.common.logging.ClientAsyncLoggingListener;
+import dev.autonu.framework.common.properties.ClientAsyncLoggingProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Metrics of the appenders installed by {@link ClientAsyncLoggingListener}
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration
+@ConditionalOnClass({LoggerContext.class, MeterRegistry.class})
+@ConditionalOnProperty(prefix = "common.starter.logging.async", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClientAsyncLoggingProperties.class)
+public class ClientAsyncLoggingConfiguration {
+
+    protected static final String QUEUE_METRIC = "common.starter.logging.async.queue";
+    protected static final String DROPPED_METRIC = "common.starter.logging.async.dropped";
+
+    @Bean
+    public MeterBinder clientAsyncLoggingMetrics(){
+        return registry -> {
+            ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+            if (!(loggerFactory instanceof LoggerContext loggerContext)) {
+                return;
+            }
+            for (ClientAsyncAppender appender : ClientAsyncLoggingListener.installed(loggerContext)) {
+                Gauge.builder(QUEUE_METRIC, appender, ClientAsyncAppender::getQueueDepth)
+                        .tag("appender", appender.getName())
+                        .description("Number of log events waiting to be written")
+                        .register(registry);
+                FunctionCounter.builder(DROPPED_METRIC, appender, ClientAsyncAppender::getDropped)
+                        .tag("appender", appender.getName())
+                        .description("Number of log events dropped because the queue was full")
+                        .register(registry);
+            }
+        };
+    }
+}
@@ -0,0 +1,35 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.cache.ClientAwareCacheManager;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientCacheProperties;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link ClientAwareCacheManager} as {@literal cacheManager} in place of the one of Spring Boot,
+ * caching still has to be enabled with {@literal @EnableCaching}
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(before = CacheAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "common.starter.cache", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ClientCacheProperties.class, ClientMetricsProperties.class})
+public class ClientAwareCacheConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(CacheManager.class)
+    public ClientAwareCacheManager cacheManager(ClientCacheProperties cacheProperties, ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        ClientOperationMetrics metrics = registry != null ? new ClientOperationMetrics(registry, ClientOperationMetrics.CACHE_PREFIX, ClientOperationMetrics.CACHE_TARGET_TAG, metricsProperties.maxClientTags()) : null;
+        return new ClientAwareCacheManager(cacheProperties, metrics);
+    }
+}
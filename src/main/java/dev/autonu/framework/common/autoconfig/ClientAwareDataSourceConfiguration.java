@@ -1,25 +1,39 @@
 package dev.autonu.framework.common.autoconfig;
 
-import com.zaxxer.hikari.HikariDataSource;
+import dev.autonu.framework.common.actuate.ClientAwareDataSourceAutotuneEndpoint;
 import dev.autonu.framework.common.context.ClientAwareDataSource;
+import dev.autonu.framework.common.context.ClientAwareDataSourceAutotuner;
+import dev.autonu.framework.common.context.ClientAwareReplicaDataSource;
+import dev.autonu.framework.common.context.PartitionedClientAwareDataSource;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
 import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 
 import javax.sql.DataSource;
+import java.util.function.ToDoubleFunction;
 
 /**
  * @author autonu2X
  */
 @AutoConfiguration
-@EnableConfigurationProperties(ClientAwareDataSourceProperties.class)
+@EnableConfigurationProperties({ClientAwareDataSourceProperties.class, ClientMetricsProperties.class})
 public class ClientAwareDataSourceConfiguration {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareDataSourceConfiguration.class);
+    protected static final String SKIPPED_BINDINGS_METRIC = "common.starter.datasource.session.bindings.skipped";
+    protected static final String AVAILABLE_REPLICAS_METRIC = "common.starter.datasource.replicas.available";
     private final ClientAwareDataSourceProperties dataSourceProperties;
 
     public ClientAwareDataSourceConfiguration(ClientAwareDataSourceProperties dataSourceProperties){
@@ -28,14 +42,91 @@ public class ClientAwareDataSourceConfiguration {
 
     @Bean
     @ConditionalOnProperty(prefix = "common.starter.datasource", name = {"url", "username", "password"})
-    public DataSource dataSource(){
+    public DataSource dataSource(ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Creating Client-Aware DataSource with properties: {}", dataSourceProperties);
         }
-        HikariDataSource dataSource = new ClientAwareDataSource(dataSourceProperties.sessionVariable());
+        DataSource primary = primaryDataSource(meterRegistry, metricsProperties);
+        if (!dataSourceProperties.replicas()
+                .enabled() || dataSourceProperties.replicas()
+                .urls()
+                .isEmpty()) {
+            return primary;
+        }
+        ClientAwareReplicaDataSource dataSource = ClientAwareReplicaDataSource.create(primary, dataSourceProperties);
+        meterRegistry.ifAvailable(registry -> {
+            dataSource.setMetrics(dataSourceMetrics(registry, metricsProperties));
+            Gauge.builder(AVAILABLE_REPLICAS_METRIC, dataSource, ClientAwareReplicaDataSource::getAvailableReplicas)
+                    .description("Number of read replicas not ejected for replication lag")
+                    .register(registry);
+        });
+        dataSource.start();
+        return dataSource;
+    }
+
+    @Bean(initMethod = "start")
+    @ConditionalOnBean(DataSource.class)
+    @ConditionalOnProperty(prefix = "common.starter.datasource.autotune", name = "enabled", havingValue = "true")
+    public ClientAwareDataSourceAutotuner clientAwareDataSourceAutotuner(DataSource dataSource){
+        if (dataSource instanceof ClientAwareReplicaDataSource replicaDataSource) {
+            dataSource = replicaDataSource.getPrimaryDataSource();
+        }
+        ClientAwareDataSource clientAwareDataSource;
+        if (dataSource instanceof PartitionedClientAwareDataSource partitionedDataSource) {
+            clientAwareDataSource = partitionedDataSource.getSharedDataSource();
+        } else if (dataSource instanceof ClientAwareDataSource) {
+            clientAwareDataSource = (ClientAwareDataSource) dataSource;
+        } else {
+            throw new IllegalStateException("Pool autotuning requires " + ClientAwareDataSource.class + " .Provided " + dataSource.getClass());
+        }
+        return new ClientAwareDataSourceAutotuner(clientAwareDataSource, dataSourceProperties.autotune());
+    }
+
+    @Bean
+    @ConditionalOnBean(ClientAwareDataSourceAutotuner.class)
+    @ConditionalOnAvailableEndpoint
+    public ClientAwareDataSourceAutotuneEndpoint clientAwareDataSourceAutotuneEndpoint(ClientAwareDataSourceAutotuner autotuner){
+        return new ClientAwareDataSourceAutotuneEndpoint(autotuner);
+    }
+
+    private DataSource primaryDataSource(ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
+        if (dataSourceProperties.partition()
+                .enabled()) {
+            PartitionedClientAwareDataSource dataSource = new PartitionedClientAwareDataSource(dataSourceProperties);
+            meterRegistry.ifAvailable(registry -> {
+                dataSource.setMetrics(dataSourceMetrics(registry, metricsProperties));
+                registerSkippedBindingsMetric(registry, dataSource, PartitionedClientAwareDataSource::getSkippedBindings);
+            });
+            return dataSource;
+        }
+        ClientAwareDataSource dataSource = new ClientAwareDataSource(dataSourceProperties.sessionVariable());
         dataSource.setJdbcUrl(dataSourceProperties.url());
         dataSource.setUsername(dataSourceProperties.username());
         dataSource.setPassword(dataSourceProperties.password());
+        if (dataSourceProperties.admission()
+                .enabled()) {
+            int permits = dataSourceProperties.admission()
+                    .permits();
+            if (permits > 0) {
+                dataSource.setAdmissionPermits(permits);
+            } else {
+                dataSource.setAdmissionPermitsToPoolSize();
+            }
+        }
+        meterRegistry.ifAvailable(registry -> {
+            dataSource.setMetrics(dataSourceMetrics(registry, metricsProperties));
+            registerSkippedBindingsMetric(registry, dataSource, ClientAwareDataSource::getSkippedBindings);
+        });
         return dataSource;
     }
+
+    private static ClientOperationMetrics dataSourceMetrics(MeterRegistry registry, ClientMetricsProperties metricsProperties){
+        return new ClientOperationMetrics(registry, ClientOperationMetrics.DATASOURCE_PREFIX, ClientOperationMetrics.DATASOURCE_TARGET_TAG, metricsProperties.maxClientTags());
+    }
+
+    private static <T> void registerSkippedBindingsMetric(MeterRegistry registry, T dataSource, ToDoubleFunction<T> skippedBindings){
+        FunctionCounter.builder(SKIPPED_BINDINGS_METRIC, dataSource, skippedBindings)
+                .description("Number of connection checkouts which skipped setting the client session variable")
+                .register(registry);
+    }
 }
@@ -0,0 +1,55 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.cache.ClientPartitionedRegionFactory;
+import dev.autonu.framework.common.properties.ClientAwareJpaProperties;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Map;
+
+/**
+ * Enables JDBC batching and write ordering in Hibernate, so {@literal saveAll} of
+ * {@link dev.autonu.framework.common.model.BaseSequenceClientAwareModel} entities is sent in batches.
+ * Entities with identity ids are still inserted one by one.
+ * <br></br>
+ * With {@literal common.starter.jpa.cache.enabled} the second-level cache is switched to
+ * {@link ClientPartitionedRegionFactory}.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(before = HibernateJpaAutoConfiguration.class)
+@ConditionalOnClass({HibernatePropertiesCustomizer.class, AvailableSettings.class})
+@EnableConfigurationProperties(ClientAwareJpaProperties.class)
+public class ClientAwareJpaConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer clientAwareJpaBatchingCustomizer(ClientAwareJpaProperties jpaProperties){
+        return hibernateProperties -> customize(hibernateProperties, jpaProperties);
+    }
+
+    static void customize(Map<String, Object> hibernateProperties, ClientAwareJpaProperties jpaProperties){
+        if (jpaProperties.batchSize() > 0) {
+            hibernateProperties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(jpaProperties.batchSize()));
+        }
+        if (jpaProperties.orderWrites()) {
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            hibernateProperties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+        }
+        if (jpaProperties.idOptimizer() != null) {
+            hibernateProperties.putIfAbsent(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, jpaProperties.idOptimizer());
+        }
+        ClientAwareJpaProperties.Cache cache = jpaProperties.cache();
+        if (cache.enabled()) {
+            hibernateProperties.putIfAbsent(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            hibernateProperties.putIfAbsent(AvailableSettings.USE_QUERY_CACHE, String.valueOf(cache.queryCache()));
+            hibernateProperties.putIfAbsent(AvailableSettings.CACHE_REGION_FACTORY, ClientPartitionedRegionFactory.class.getName());
+            hibernateProperties.putIfAbsent(ClientPartitionedRegionFactory.MAX_ENTRIES_PER_CLIENT, String.valueOf(cache.maxEntriesPerClient()));
+            hibernateProperties.putIfAbsent(ClientPartitionedRegionFactory.MAX_CLIENTS, String.valueOf(cache.maxClients()));
+        }
+    }
+}
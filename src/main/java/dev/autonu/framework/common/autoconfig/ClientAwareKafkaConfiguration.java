@@ -0,0 +1,116 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.context.ClientFairExecutor;
+import dev.autonu.framework.common.kafka.ClientContextProducerInterceptor;
+import dev.autonu.framework.common.kafka.ClientOrderedMessageListener;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientKafkaProperties;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ContainerCustomizer;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Adds {@link ClientContextProducerInterceptor} to the interceptors of the Spring Boot producer factory, and
+ * processes records of Spring Boot listener containers with {@link ClientOrderedMessageListener} in parallel mode.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(after = {TaskExecutionAutoConfiguration.class, ClientFairExecutorConfiguration.class})
+@ConditionalOnClass(KafkaTemplate.class)
+@EnableConfigurationProperties({ClientKafkaProperties.class, ClientMetricsProperties.class})
+public class ClientAwareKafkaConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareKafkaConfiguration.class);
+    protected static final String IN_FLIGHT_METRIC = "common.starter.kafka.in-flight";
+
+    @Bean
+    @ConditionalOnProperty(prefix = "common.starter.kafka", name = "enabled", havingValue = "true")
+    public DefaultKafkaProducerFactoryCustomizer clientContextProducerFactoryCustomizer(){
+        return producerFactory -> producerFactory.updateConfigs(Map.of(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG, interceptors(producerFactory.getConfigurationProperties()
+                .get(ProducerConfig.INTERCEPTOR_CLASSES_CONFIG))));
+    }
+
+    /**
+     * Records are processed on {@literal clientFairExecutor} if registered, on the application task executor otherwise.
+     * Failed records are passed to the {@link ConsumerRecordRecoverer} bean if there is a unique one.
+     * Batch listeners are left unchanged.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "common.starter.kafka.parallel", name = "enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ContainerCustomizer.class)
+    public ContainerCustomizer<Object, Object, ConcurrentMessageListenerContainer<Object, Object>> clientOrderedContainerCustomizer(ClientKafkaProperties kafkaProperties, ObjectProvider<ClientFairExecutor> fairExecutor,
+                                                                                                                                @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) ObjectProvider<Executor> taskExecutor,
+                                                                                                                                ObjectProvider<ConsumerRecordRecoverer> recordRecoverer, ObjectProvider<MeterRegistry> meterRegistry,
+                                                                                                                                ClientMetricsProperties metricsProperties){
+        Executor executor = fairExecutor.getIfAvailable();
+        if (executor == null) {
+            executor = taskExecutor.getIfAvailable(() -> new SimpleAsyncTaskExecutor("client-ordered-"));
+        }
+        Executor recordExecutor = executor;
+        return container -> {
+            if (!(container.getContainerProperties()
+                    .getMessageListener() instanceof MessageListener<?, ?> listener)) {
+                LOGGER.warn("Listener {} is not a record listener and is not processed in parallel", container.getListenerId());
+                return;
+            }
+            @SuppressWarnings("unchecked")
+            ClientOrderedMessageListener<Object, Object> orderedListener = new ClientOrderedMessageListener<>(container.getListenerId(), (MessageListener<Object, Object>) listener, recordExecutor, kafkaProperties.parallel());
+            recordRecoverer.ifUnique(orderedListener::setErrorHandler);
+            meterRegistry.ifAvailable(registry -> {
+                orderedListener.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.KAFKA_PREFIX, ClientOperationMetrics.KAFKA_TARGET_TAG, metricsProperties.maxClientTags()));
+                Gauge.builder(IN_FLIGHT_METRIC, orderedListener, ClientOrderedMessageListener::getInFlight)
+                        .description("Number of records received but not processed yet")
+                        .tag(ClientOperationMetrics.KAFKA_TARGET_TAG, orderedListener.getName())
+                        .register(registry);
+            });
+            ClientOrderedMessageListener.configure(container.getContainerProperties(), kafkaProperties.parallel());
+            container.setupMessageListener(orderedListener);
+        };
+    }
+
+    /**
+     * Keep configured interceptors, given as comma separated names, classes or a list of both
+     */
+    protected static List<Object> interceptors(@Nullable Object configured){
+        List<Object> interceptors = new ArrayList<>();
+        if (configured instanceof String names) {
+            interceptors.addAll(StringUtils.commaDelimitedListToSet(names.replace(" ", "")));
+        } else if (configured instanceof Collection<?> collection) {
+            interceptors.addAll(collection);
+        } else if (configured != null) {
+            interceptors.add(configured);
+        }
+        interceptors.remove("");
+        if (!interceptors.contains(ClientContextProducerInterceptor.class) && !interceptors.contains(ClientContextProducerInterceptor.class.getName())) {
+            interceptors.add(ClientContextProducerInterceptor.class);
+        }
+        return interceptors;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.autonu.framework.common.autoconfig;
+
+import com.mongodb.client.MongoClient;
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.context.ClientAwareMongoTemplate;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import dev.autonu.framework.common.properties.ClientMongoProperties;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Registers {@link ClientAwareMongoTemplate} in place of the {@literal mongoTemplate} of Spring Boot,
+ * limiting {@literal findAll} to {@literal common.starter.mongo.max-find-all-results} documents and recording
+ * its operations to {@link ClientOperationMetrics} if a {@link MeterRegistry} is present.
+ * Only if {@literal common.starter.mongo.enabled}, as every operation then needs a client bound.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(after = MongoAutoConfiguration.class, before = MongoDataAutoConfiguration.class)
+@ConditionalOnClass({MongoClient.class, ClientAwareMongoTemplate.class})
+@ConditionalOnBean(MongoClient.class)
+@ConditionalOnProperty(prefix = "common.starter.mongo", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({DateTimeFormatProperties.class, ClientMongoProperties.class, ClientMetricsProperties.class})
+public class ClientAwareMongoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(MongoOperations.class)
+    public ClientAwareMongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter converter, DateTimeFormatProperties dateTimeFormatProperties, ObjectProvider<AuditStamper> auditStamper, ClientMongoProperties mongoProperties, ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
+        ClientAwareMongoTemplate template = new ClientAwareMongoTemplate(mongoDatabaseFactory, converter, auditStamper.getIfAvailable(() -> new AuditStamper(dateTimeFormatProperties)));
+        template.setMaxFindAllResults(mongoProperties.maxFindAllResults());
+        meterRegistry.ifAvailable(registry -> template.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.MONGO_PREFIX, ClientOperationMetrics.MONGO_TARGET_TAG, metricsProperties.maxClientTags())));
+        return template;
+    }
+}
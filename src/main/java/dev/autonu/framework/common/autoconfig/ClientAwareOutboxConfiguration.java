@@ -0,0 +1,117 @@
+package dev.autonu.framework.common.autoconfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.outbox.ClientAwareOutbox;
+import dev.autonu.framework.common.outbox.ClientAwareOutboxListener;
+import dev.autonu.framework.common.outbox.ClientAwareOutboxRelay;
+import dev.autonu.framework.common.properties.ClientOutboxProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers the {@link ClientAwareOutbox}, the {@link ClientAwareOutboxListener} created by Hibernate through the
+ * Spring bean container, and the {@link ClientAwareOutboxRelay}. The relay sends with a copy of the Spring Boot
+ * producer factory, without its transactions, using string serializers, idempotence, {@link ClientOutboxProperties.Relay#compressionType()}
+ * and {@link ClientOutboxProperties.Relay#linger()}.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(after = {JdbcTemplateAutoConfiguration.class, TransactionAutoConfiguration.class, KafkaAutoConfiguration.class, JacksonAutoConfiguration.class, AuditStamperConfiguration.class})
+@ConditionalOnClass({JdbcTemplate.class, KafkaTemplate.class})
+@ConditionalOnBean(JdbcTemplate.class)
+@ConditionalOnProperty(prefix = "common.starter.outbox", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClientOutboxProperties.class)
+public class ClientAwareOutboxConfiguration {
+
+    protected static final String PUBLISHED_METRIC = "common.starter.outbox.published";
+    protected static final String FAILED_BATCHES_METRIC = "common.starter.outbox.batches.failed";
+    protected static final String LAG_METRIC = "common.starter.outbox.lag";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientAwareOutbox clientAwareOutbox(JdbcTemplate jdbcTemplate, ObjectProvider<ObjectMapper> objectMapper, AuditStamper auditStamper, ClientOutboxProperties outboxProperties){
+        return new ClientAwareOutbox(jdbcTemplate, objectMapper.getIfAvailable(ObjectMapper::new), auditStamper, outboxProperties);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientAwareOutboxListener clientAwareOutboxListener(ClientAwareOutbox clientAwareOutbox){
+        return new ClientAwareOutboxListener(clientAwareOutbox);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(ProducerFactory.class)
+    @ConditionalOnProperty(prefix = "common.starter.outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ClientAwareOutboxRelay clientAwareOutboxRelay(JdbcTemplate jdbcTemplate, ObjectProvider<PlatformTransactionManager> transactionManager, ProducerFactory<?, ?> producerFactory,
+                                                         ClientOutboxProperties outboxProperties, ObjectProvider<MeterRegistry> meterRegistry){
+        PlatformTransactionManager relayTransactionManager = transactionManager.getIfUnique(() -> new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        ClientAwareOutboxRelay relay = new ClientAwareOutboxRelay(jdbcTemplate, new TransactionTemplate(relayTransactionManager), new KafkaTemplate<>(relayProducerFactory(producerFactory, outboxProperties.relay())), outboxProperties);
+        meterRegistry.ifAvailable(registry -> {
+            FunctionCounter.builder(PUBLISHED_METRIC, relay, ClientAwareOutboxRelay::getPublished)
+                    .description("Number of outbox events published")
+                    .register(registry);
+            FunctionCounter.builder(FAILED_BATCHES_METRIC, relay, ClientAwareOutboxRelay::getFailedBatches)
+                    .description("Number of outbox batches rolled back because publishing failed")
+                    .register(registry);
+            Gauge.builder(LAG_METRIC, relay, ClientAwareOutboxRelay::getLagSeconds)
+                    .description("Age of the oldest event of the last published outbox batch")
+                    .baseUnit("seconds")
+                    .register(registry);
+        });
+        return relay;
+    }
+
+    /**
+     * The copy keeps the transaction id prefix of a transactional factory, the relay sends without a Kafka transaction
+     * so it gets a non-transactional factory with the same configuration, post processors and listeners instead.
+     */
+    @SuppressWarnings("unchecked")
+    static ProducerFactory<String, String> relayProducerFactory(ProducerFactory<?, ?> producerFactory, ClientOutboxProperties.Relay relayProperties){
+        ProducerFactory<String, String> relayProducerFactory = (ProducerFactory<String, String>) producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, relayProperties.compressionType(),
+                ProducerConfig.LINGER_MS_CONFIG, (int) relayProperties.linger()
+                        .toMillis()));
+        if (!relayProducerFactory.transactionCapable()) {
+            return relayProducerFactory;
+        }
+        Map<String, Object> configs = new HashMap<>(relayProducerFactory.getConfigurationProperties());
+        configs.remove(ProducerConfig.TRANSACTIONAL_ID_CONFIG);
+        DefaultKafkaProducerFactory<String, String> nonTransactionalProducerFactory = new DefaultKafkaProducerFactory<>(configs);
+        relayProducerFactory.getPostProcessors()
+                .forEach(nonTransactionalProducerFactory::addPostProcessor);
+        relayProducerFactory.getListeners()
+                .forEach(nonTransactionalProducerFactory::addListener);
+        return nonTransactionalProducerFactory;
+    }
+}
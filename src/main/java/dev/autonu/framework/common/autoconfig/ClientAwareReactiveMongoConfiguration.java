@@ -0,0 +1,41 @@
+package dev.autonu.framework.common.autoconfig;
+
+import com.mongodb.reactivestreams.client.MongoClient;
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.context.ClientAwareReactiveMongoTemplate;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import reactor.core.publisher.Flux;
+
+/**
+ * Registers {@link ClientAwareReactiveMongoTemplate} in place of the {@literal reactiveMongoTemplate} of Spring Boot,
+ * so reactive repositories are restricted to the client of the Reactor Context as well.
+ * Only if {@literal common.starter.mongo.enabled}, as every operation then needs a client in the Reactor Context.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(after = MongoReactiveAutoConfiguration.class, before = MongoReactiveDataAutoConfiguration.class)
+@ConditionalOnClass({MongoClient.class, ClientAwareReactiveMongoTemplate.class, Flux.class})
+@ConditionalOnBean(MongoClient.class)
+@ConditionalOnProperty(prefix = "common.starter.mongo", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(DateTimeFormatProperties.class)
+public class ClientAwareReactiveMongoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(ReactiveMongoOperations.class)
+    public ClientAwareReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory reactiveMongoDatabaseFactory, MongoConverter converter, DateTimeFormatProperties dateTimeFormatProperties, ObjectProvider<AuditStamper> auditStamper){
+        return new ClientAwareReactiveMongoTemplate(reactiveMongoDatabaseFactory, converter, auditStamper.getIfAvailable(() -> new AuditStamper(dateTimeFormatProperties)));
+    }
+}
@@ -0,0 +1,45 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientConcurrencyLimitProperties;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import dev.autonu.framework.common.web.ClientConcurrencyLimitFilter;
+import dev.autonu.framework.common.web.ClientConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Limits concurrent inbound HTTP requests per client, see {@link ClientConcurrencyLimiter}
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "common.starter.web.concurrency-limit", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ClientConcurrencyLimitProperties.class, ClientMetricsProperties.class})
+public class ClientConcurrencyLimitConfiguration {
+
+    protected static final String LIMITER_NAME = "http";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientConcurrencyLimiter clientConcurrencyLimiter(ClientConcurrencyLimitProperties limitProperties, ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
+        ClientConcurrencyLimiter limiter = new ClientConcurrencyLimiter(LIMITER_NAME, limitProperties);
+        meterRegistry.ifAvailable(registry -> limiter.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.WEB_PREFIX, ClientOperationMetrics.WEB_TARGET_TAG, metricsProperties.maxClientTags())));
+        return limiter;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientConcurrencyLimitFilter> clientConcurrencyLimitFilter(ClientConcurrencyLimiter clientConcurrencyLimiter){
+        FilterRegistrationBean<ClientConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ClientConcurrencyLimitFilter(clientConcurrencyLimiter));
+        registration.setOrder(ClientConcurrencyLimitFilter.ORDER);
+        return registration;
+    }
+}
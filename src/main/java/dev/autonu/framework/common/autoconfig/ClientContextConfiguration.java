@@ -0,0 +1,23 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.context.ClientContextTaskDecorator;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Carries the client over to the auto-configured task executors used by {@literal @Async} methods
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(before = TaskExecutionAutoConfiguration.class)
+public class ClientContextConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(TaskDecorator.class)
+    public ClientContextTaskDecorator clientContextTaskDecorator(){
+        return new ClientContextTaskDecorator();
+    }
+}
@@ -0,0 +1,44 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.context.ClientFairExecutor;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientFairExecutorProperties;
+import dev.autonu.framework.common.properties.ClientMetricsProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registers {@link ClientFairExecutor} as {@literal clientFairExecutor}, use it with {@literal @Async("clientFairExecutor")}.
+ * Runs after {@link TaskExecutionAutoConfiguration}, so the default application task executor is still created.
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration(after = TaskExecutionAutoConfiguration.class)
+@ConditionalOnProperty(prefix = "common.starter.executor", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties({ClientFairExecutorProperties.class, ClientMetricsProperties.class})
+public class ClientFairExecutorConfiguration {
+
+    protected static final String EXECUTOR_NAME = "clientFairExecutor";
+    protected static final String QUEUED_TASKS_METRIC = "common.starter.executor.queued";
+
+    @Bean(name = EXECUTOR_NAME, initMethod = "start", destroyMethod = "close")
+    @ConditionalOnMissingBean(name = EXECUTOR_NAME)
+    public ClientFairExecutor clientFairExecutor(ClientFairExecutorProperties executorProperties, ObjectProvider<MeterRegistry> meterRegistry, ClientMetricsProperties metricsProperties){
+        ClientFairExecutor executor = new ClientFairExecutor(EXECUTOR_NAME, executorProperties);
+        meterRegistry.ifAvailable(registry -> {
+            executor.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.EXECUTOR_PREFIX, ClientOperationMetrics.EXECUTOR_TARGET_TAG, metricsProperties.maxClientTags()));
+            Gauge.builder(QUEUED_TASKS_METRIC, executor, ClientFairExecutor::getQueuedTasks)
+                    .description("Number of tasks queued for all clients")
+                    .tag(ClientOperationMetrics.EXECUTOR_TARGET_TAG, EXECUTOR_NAME)
+                    .register(registry);
+        });
+        return executor;
+    }
+}
@@ -0,0 +1,64 @@
+package dev.autonu.framework.common.autoconfig;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import dev.autonu.framework.common.web.BearerTokenClientResolver;
+import dev.autonu.framework.common.web.ClientResolutionFilter;
+import dev.autonu.framework.common.web.ClientResolver;
+import dev.autonu.framework.common.web.HeaderClientResolver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+
+import java.time.Clock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Binds the client of inbound HTTP requests to {@link dev.autonu.framework.common.context.ClientContext},
+ * see {@link ClientResolutionFilter}
+ *
+ * @author autonu2X
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "common.starter.web.client-resolution", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ClientResolutionProperties.class)
+public class ClientResolutionConfiguration {
+
+    protected static final String TOKEN_CACHE_METRIC = "common.starter.web.client-resolution.cache";
+
+    @Bean
+    @ConditionalOnMissingBean
+    public ClientResolver clientResolver(ClientResolutionProperties resolutionProperties, ObjectProvider<ObjectMapper> objectMapper, ObjectProvider<Clock> clock, ObjectProvider<MeterRegistry> meterRegistry){
+        if (resolutionProperties.source() == ClientResolutionProperties.Source.HEADER) {
+            return new HeaderClientResolver(resolutionProperties.header());
+        }
+        BearerTokenClientResolver resolver = new BearerTokenClientResolver(resolutionProperties.token(), objectMapper.getIfAvailable(ObjectMapper::new), clock.getIfUnique(Clock::systemUTC));
+        meterRegistry.ifAvailable(registry -> {
+            registerTokenCacheMetric(registry, resolver, "hit", BearerTokenClientResolver::getCacheHits);
+            registerTokenCacheMetric(registry, resolver, "miss", BearerTokenClientResolver::getCacheMisses);
+        });
+        return resolver;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ClientResolutionFilter> clientResolutionFilter(ClientResolver clientResolver, ClientResolutionProperties resolutionProperties){
+        FilterRegistrationBean<ClientResolutionFilter> registration = new FilterRegistrationBean<>(new ClientResolutionFilter(clientResolver, resolutionProperties));
+        registration.setOrder(ClientResolutionFilter.ORDER);
+        return registration;
+    }
+
+    private static void registerTokenCacheMetric(MeterRegistry registry, BearerTokenClientResolver resolver, String result, ToDoubleFunction<BearerTokenClientResolver> count){
+        FunctionCounter.builder(TOKEN_CACHE_METRIC, resolver, count)
+                .tag("result", result)
+                .description("Number of bearer tokens looked up in the cache of verified tokens")
+                .register(registry);
+    }
+}
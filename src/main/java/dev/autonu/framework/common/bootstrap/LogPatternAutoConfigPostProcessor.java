@@ -1,12 +1,16 @@
 package dev.autonu.framework.common.bootstrap;
 
+import dev.autonu.framework.common.logging.ClientAsyncLoggingListener;
+import dev.autonu.framework.common.properties.ClientAsyncLoggingProperties;
 import org.apache.commons.logging.Log;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.env.EnvironmentPostProcessor;
 import org.springframework.boot.logging.DeferredLogFactory;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 
 import java.io.File;
@@ -26,6 +30,8 @@ public class LogPatternAutoConfigPostProcessor implements EnvironmentPostProcess
     protected static final String LOGGING_FILE_PATH_PROPERTY = "common.starter.logging.file.path";
     protected static final String LOGGING_PATTERN = "[current_client_id: %X{clientId}][%d{${LOG_DATEFORMAT_PATTERN:yyyy-MM-dd'T'HH:mm:ss.SSSXXX}}][${spring.application.name}][%c][%M]: %m%n${LOG_EXCEPTION_CONVERSION_WORD:%wEx}";
     protected static final String LOGGING_FILE_NAME = "${spring.application.name}-${spring.profiles.active}.log";
+    protected static final String LOGGING_ASYNC_PREFIX = "common.starter.logging.async";
+    protected static final String LOGBACK_CONTEXT_CLASS = "ch.qos.logback.classic.LoggerContext";
     private final Log LOGGER;
 
     /**
@@ -45,6 +51,8 @@ public class LogPatternAutoConfigPostProcessor implements EnvironmentPostProcess
      * with {@value LOGGING_PATTERN} pattern.
      * It also sets {@value SPRING_LOGGING_FILE_NAME_PROPERTY}
      * based on {@value LOGGING_FILE_PATH_PROPERTY} from properties.
+     * If {@value LOGGING_ASYNC_PREFIX}.enabled is set, appenders are made asynchronous
+     * by {@link ClientAsyncLoggingListener} once logging is initialized.
      *
      * @param environment will never be {@literal null}
      * @param application will never be {@literal null}
@@ -72,5 +80,24 @@ public class LogPatternAutoConfigPostProcessor implements EnvironmentPostProcess
         }
         MutablePropertySources propertySources = environment.getPropertySources();
         EnvironmentPropertyHelper.addPropertiesToEnvironment(properties, propertySources, PROPERTY_SOURCE_NAME);
+        Binder.get(environment)
+                .bind(LOGGING_ASYNC_PREFIX, ClientAsyncLoggingProperties.class)
+                .ifBound(asyncProperties -> addAsyncLoggingListener(asyncProperties, application));
+    }
+
+    private void addAsyncLoggingListener(ClientAsyncLoggingProperties asyncProperties, SpringApplication application){
+        if (!asyncProperties.enabled()) {
+            return;
+        }
+        if (!ClassUtils.isPresent(LOGBACK_CONTEXT_CLASS, application.getClassLoader())) {
+            if (LOGGER != null) {
+                LOGGER.warn(String.format("'%s' is only supported with logback. Logs will be written synchronously", LOGGING_ASYNC_PREFIX));
+            }
+            return;
+        }
+        if (LOGGER != null) {
+            LOGGER.info(String.format("Logs will be written asynchronously with a queue of %d events, full policy: %s", asyncProperties.queueSize(), asyncProperties.fullPolicy()));
+        }
+        application.addListeners(new ClientAsyncLoggingListener(asyncProperties));
     }
 }
@@ -0,0 +1,68 @@
+package dev.autonu.framework.common.bootstrap;
+
+import org.apache.commons.logging.Log;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.boot.logging.DeferredLogFactory;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opt-in virtual thread mode. When {@value VIRTUAL_THREADS_PROPERTY} is {@literal true} and the application runs on
+ * Java {@value MIN_JAVA_VERSION} or later, {@value SPRING_VIRTUAL_THREADS_PROPERTY} is enabled, so the servlet
+ * container and {@literal @Async} executors run on virtual threads. Ignored with a warning on older Java versions.
+ * An explicit {@value SPRING_VIRTUAL_THREADS_PROPERTY} always wins.
+ *
+ * @author autonu2X
+ */
+public class VirtualThreadAutoConfigPostProcessor implements EnvironmentPostProcessor {
+
+    protected static final String VIRTUAL_THREADS_PROPERTY = "common.starter.threads.virtual.enabled";
+    protected static final String SPRING_VIRTUAL_THREADS_PROPERTY = "spring.threads.virtual.enabled";
+    protected static final String PROPERTY_SOURCE_NAME = "virtualThreadAutoConfigurationProperties";
+    protected static final int MIN_JAVA_VERSION = 21;
+    private final Log LOGGER;
+
+    /**
+     * @apiNote Use this one for testing
+     */
+    protected VirtualThreadAutoConfigPostProcessor() {
+        this.LOGGER = null;
+    }
+
+    public VirtualThreadAutoConfigPostProcessor(DeferredLogFactory deferredLogFactory) {
+        this.LOGGER = deferredLogFactory.getLog(VirtualThreadAutoConfigPostProcessor.class);
+    }
+
+    /**
+     * Add {@value SPRING_VIRTUAL_THREADS_PROPERTY} based on {@value VIRTUAL_THREADS_PROPERTY} property
+     *
+     * @param environment will never be {@literal null}
+     * @param application will never be {@literal null}
+     */
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.getProperty(VIRTUAL_THREADS_PROPERTY, Boolean.class, false) || environment.containsProperty(SPRING_VIRTUAL_THREADS_PROPERTY)) {
+            return;
+        }
+        if (javaVersion() < MIN_JAVA_VERSION) {
+            if (LOGGER != null) {
+                LOGGER.warn(String.format("Virtual threads require Java %d or later, running on Java %d. Ignoring %s", MIN_JAVA_VERSION, javaVersion(), VIRTUAL_THREADS_PROPERTY));
+            }
+            return;
+        }
+        if (LOGGER != null) {
+            LOGGER.info("Enabling virtual threads for servlet container and task executors");
+        }
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put(SPRING_VIRTUAL_THREADS_PROPERTY, "true");
+        EnvironmentPropertyHelper.addPropertiesToEnvironment(properties, environment.getPropertySources(), PROPERTY_SOURCE_NAME);
+    }
+
+    protected int javaVersion() {
+        return Runtime.version()
+                .feature();
+    }
+}
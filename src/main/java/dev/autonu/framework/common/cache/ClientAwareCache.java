@@ -0,0 +1,253 @@
+package dev.autonu.framework.common.cache;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Spring {@link org.springframework.cache.Cache} keeping a separate partition per client of {@link ClientContext},
+ * so cache keys do not need to contain the client id and one client can only evict its own entries.
+ * Each partition holds at most the quota of its client and drops the least recently used entry when full.
+ * At most {@literal maxClients} partitions are kept, the partition used least recently is dropped beyond along with
+ * the statistics of its client, unless the client has metrics of its own.
+ * <br></br>
+ * {@link #get(Object, Callable)} does not lock the key, concurrent misses of the same key may load the value
+ * more than once and the first value stored wins.
+ *
+ * @author autonu2X
+ * @see ClientAwareCacheManager
+ */
+public class ClientAwareCache extends AbstractValueAdaptingCache {
+
+    private static final Integer NO_CLIENT_ID = -1;
+    protected static final String GETS_METRIC = "gets";
+    protected static final String EVICTIONS_METRIC = "evictions";
+    private final String name;
+    private final IntUnaryOperator quota;
+    private final ClientPartitions partitions;
+    private final Map<Integer, ClientStatistics> statistics = new ConcurrentHashMap<>();
+    @Nullable
+    private final ClientOperationMetrics metrics;
+
+    /**
+     * @param quota maximum entries of a client id, {@literal 0} or less for no limit
+     */
+    public ClientAwareCache(String name, IntUnaryOperator quota, boolean allowNullValues, @Nullable ClientOperationMetrics metrics){
+        this(name, quota, 0, allowNullValues, metrics);
+    }
+
+    /**
+     * @param quota      maximum entries of a client id, {@literal 0} or less for no limit
+     * @param maxClients maximum clients kept, {@literal 0} or less for no limit
+     */
+    public ClientAwareCache(String name, IntUnaryOperator quota, int maxClients, boolean allowNullValues, @Nullable ClientOperationMetrics metrics){
+        super(allowNullValues);
+        this.name = name;
+        this.quota = quota;
+        this.partitions = new ClientPartitions(maxClients, this::partitionDropped);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName(){
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache(){
+        return partitions.asMap();
+    }
+
+    @Override
+    @Nullable
+    protected Object lookup(Object key){
+        Integer clientId = clientId();
+        Object value = partition(clientId).get(key);
+        ClientStatistics clientStatistics = statistics(clientId);
+        if (value != null) {
+            clientStatistics.hits.increment();
+        } else {
+            clientStatistics.misses.increment();
+        }
+        return value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader){
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        ValueWrapper existing = putIfAbsent(key, value);
+        return existing != null ? (T) existing.get() : value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value){
+        partition(clientId()).put(key, toStoreValue(value));
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(Object key, @Nullable Object value){
+        return toValueWrapper(partition(clientId()).putIfAbsent(key, toStoreValue(value)));
+    }
+
+    @Override
+    public void evict(Object key){
+        ClientPartition partition = partitions.get(clientId());
+        if (partition != null) {
+            partition.remove(key);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key){
+        ClientPartition partition = partitions.get(clientId());
+        return partition != null && partition.remove(key) != null;
+    }
+
+    /**
+     * Clear the entries of the current client only, or of all clients if no client is bound.
+     * Use {@link #clearAllClients()} to clear the whole cache regardless of the current client.
+     */
+    @Override
+    public void clear(){
+        ClientUserAssociation association = ClientContext.get();
+        if (association == null || association.clientId() == null) {
+            clearAllClients();
+            return;
+        }
+        evictClient(association.clientId());
+    }
+
+    public void clearAllClients(){
+        for (ClientPartition partition : partitions.values()) {
+            partition.clear();
+        }
+    }
+
+    /**
+     * Drop all entries of {@literal clientId}
+     */
+    public void evictClient(Integer clientId){
+        ClientPartition partition = partitions.get(clientId);
+        if (partition != null) {
+            partition.clear();
+        }
+    }
+
+    /**
+     * @return number of entries cached for {@literal clientId}
+     */
+    public int size(Integer clientId){
+        ClientPartition partition = partitions.get(clientId);
+        return partition != null ? partition.size() : 0;
+    }
+
+    /**
+     * @return ratio of lookups of {@literal clientId} that found an entry, {@literal NaN} before the first lookup
+     */
+    public double hitRate(Integer clientId){
+        ClientStatistics clientStatistics = statistics.get(clientId);
+        if (clientStatistics == null) {
+            return Double.NaN;
+        }
+        double hits = clientStatistics.hits.sum();
+        double lookups = hits + clientStatistics.misses.sum();
+        return lookups > 0 ? hits / lookups : Double.NaN;
+    }
+
+    /**
+     * Lookups create the partition as well, so statistics of every client are bound to a partition kept
+     * within {@literal maxClients}
+     */
+    private ClientPartition partition(Integer clientId){
+        return partitions.getOrCreate(clientId, this::createPartition);
+    }
+
+    private ClientPartition createPartition(Integer clientId){
+        ClientPartition partition = new ClientPartition(quota.applyAsInt(clientId));
+        statistics(clientId).partition = partition;
+        return partition;
+    }
+
+    private void partitionDropped(Integer clientId, ClientPartition partition){
+        ClientStatistics clientStatistics = statistics.get(clientId);
+        if (clientStatistics == null) {
+            return;
+        }
+        clientStatistics.release(partition);
+        if (!clientStatistics.ownMetrics && statistics.remove(clientId, clientStatistics) && metrics != null) {
+            metrics.release(clientStatistics);
+        }
+    }
+
+    private ClientStatistics statistics(Integer clientId){
+        ClientStatistics clientStatistics = statistics.get(clientId);
+        if (clientStatistics == null) {
+            clientStatistics = statistics.computeIfAbsent(clientId, this::createStatistics);
+        }
+        return clientStatistics;
+    }
+
+    private ClientStatistics createStatistics(Integer clientId){
+        ClientStatistics clientStatistics = new ClientStatistics();
+        if (metrics != null) {
+            Integer metricsClientId = NO_CLIENT_ID.equals(clientId) ? null : clientId;
+            clientStatistics.ownMetrics = metrics.counter(GETS_METRIC, name, metricsClientId, clientStatistics, s -> s.hits.sum(), "result", "hit");
+            metrics.counter(GETS_METRIC, name, metricsClientId, clientStatistics, s -> s.misses.sum(), "result", "miss");
+            metrics.counter(EVICTIONS_METRIC, name, metricsClientId, clientStatistics, ClientStatistics::evictions);
+        }
+        return clientStatistics;
+    }
+
+    private static Integer clientId(){
+        ClientUserAssociation association = ClientContext.get();
+        if (association != null && association.clientId() != null) {
+            return association.clientId();
+        }
+        return NO_CLIENT_ID;
+    }
+
+    /**
+     * Outlives the partition of a client with metrics of its own, so its counters keep increasing
+     */
+    private static final class ClientStatistics {
+
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        @Nullable
+        private volatile ClientPartition partition;
+        private volatile boolean ownMetrics;
+        private long releasedEvictions;
+
+        private synchronized double evictions(){
+            ClientPartition partition = this.partition;
+            return releasedEvictions + (partition != null ? partition.evictions() : 0);
+        }
+
+        private synchronized void release(ClientPartition partition){
+            releasedEvictions += partition.evictions();
+            if (this.partition == partition) {
+                this.partition = null;
+            }
+        }
+    }
+}
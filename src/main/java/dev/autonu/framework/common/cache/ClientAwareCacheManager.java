@@ -0,0 +1,61 @@
+package dev.autonu.framework.common.cache;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientCacheProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link CacheManager} creating a {@link ClientAwareCache} per cache name on first use.
+ * Every client gets {@link ClientCacheProperties#maxEntriesPerClient()} entries per cache
+ * unless {@link ClientCacheProperties#quotas()} holds a quota for it, and each cache keeps at most
+ * {@link ClientCacheProperties#maxClients()} clients.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareCacheManager implements CacheManager {
+
+    private final ClientCacheProperties properties;
+    private final Map<String, ClientAwareCache> caches = new ConcurrentHashMap<>();
+    @Nullable
+    private final ClientOperationMetrics metrics;
+
+    public ClientAwareCacheManager(ClientCacheProperties properties, @Nullable ClientOperationMetrics metrics){
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Cache getCache(String name){
+        ClientAwareCache cache = caches.get(name);
+        if (cache == null) {
+            cache = caches.computeIfAbsent(name, key -> new ClientAwareCache(key, this::quota, properties.maxClients(), properties.allowNullValues(), metrics));
+        }
+        return cache;
+    }
+
+    @Override
+    public Collection<String> getCacheNames(){
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Drop all entries of {@literal clientId} in all caches
+     */
+    public void evictClient(Integer clientId){
+        for (ClientAwareCache cache : caches.values()) {
+            cache.evictClient(clientId);
+        }
+    }
+
+    private int quota(Integer clientId){
+        return properties.quotas()
+                .getOrDefault(clientId, properties.maxEntriesPerClient());
+    }
+}
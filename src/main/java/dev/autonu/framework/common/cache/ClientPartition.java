@@ -0,0 +1,87 @@
+package dev.autonu.framework.common.cache;
+
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entries of one client in access order, dropping the least recently used entry once {@literal maxEntries}
+ * is exceeded. Accesses are short and never call out, so a single monitor guards the partition.
+ * Reads and writes record the time of the access, see {@link ClientPartitions}.
+ *
+ * @author autonu2X
+ */
+final class ClientPartition {
+
+    private final Map<Object, Object> entries;
+    private long evictions;
+    private long lastAccess = System.nanoTime();
+
+    /**
+     * @param maxEntries {@literal 0} or less for an unbounded partition
+     */
+    ClientPartition(int maxEntries){
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Object> eldest){
+                if (maxEntries > 0 && size() > maxEntries) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Nullable
+    synchronized Object get(Object key){
+        lastAccess = System.nanoTime();
+        return entries.get(key);
+    }
+
+    synchronized void put(Object key, Object value){
+        lastAccess = System.nanoTime();
+        entries.put(key, value);
+    }
+
+    /**
+     * @return value already present, {@literal null} if {@literal value} was added
+     */
+    @Nullable
+    synchronized Object putIfAbsent(Object key, Object value){
+        lastAccess = System.nanoTime();
+        return entries.putIfAbsent(key, value);
+    }
+
+    synchronized boolean contains(Object key){
+        return entries.containsKey(key);
+    }
+
+    @Nullable
+    synchronized Object remove(Object key){
+        return entries.remove(key);
+    }
+
+    synchronized void clear(){
+        entries.clear();
+    }
+
+    synchronized int size(){
+        return entries.size();
+    }
+
+    /**
+     * @return number of entries dropped because the partition was full
+     */
+    synchronized long evictions(){
+        return evictions;
+    }
+
+    /**
+     * @return {@link System#nanoTime()} of the last read or write
+     */
+    synchronized long lastAccess(){
+        return lastAccess;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.autonu.framework.common.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-process Hibernate second-level and query cache partitioned by client, see {@link ClientPartitionedStorage}.
+ * Entity, collection and query result regions are partitioned, the update timestamps region is shared by all clients.
+ * <br></br>
+ * Enabled with {@literal common.starter.jpa.cache.enabled}, entities still have to be marked with
+ * {@link jakarta.persistence.Cacheable} or {@link org.hibernate.annotations.Cache}.
+ *
+ * @author autonu2X
+ */
+public class ClientPartitionedRegionFactory extends RegionFactoryTemplate {
+
+    /**
+     * Hibernate setting holding the maximum entries per client and region
+     */
+    public static final String MAX_ENTRIES_PER_CLIENT = "common.starter.jpa.cache.max-entries-per-client";
+    /**
+     * Hibernate setting holding the maximum clients cached per region
+     */
+    public static final String MAX_CLIENTS = "common.starter.jpa.cache.max-clients";
+    private static final Integer SHARED_PARTITION = 0;
+    private final List<ClientPartitionedStorage> storages = new CopyOnWriteArrayList<>();
+    private int maxEntriesPerClient;
+    private int maxClients;
+
+    /**
+     * Drop all cached entries of {@literal clientId} in all regions of {@literal entityManagerFactory}
+     *
+     * @return {@literal false} if the second-level cache of {@literal entityManagerFactory} is not client partitioned
+     */
+    public static boolean evictClient(EntityManagerFactory entityManagerFactory, Integer clientId){
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache()
+                .getRegionFactory();
+        if (regionFactory instanceof ClientPartitionedRegionFactory clientPartitionedRegionFactory) {
+            clientPartitionedRegionFactory.evictClient(clientId);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drop all cached entries of {@literal clientId} in all regions
+     */
+    public void evictClient(Integer clientId){
+        for (ClientPartitionedStorage storage : storages) {
+            storage.evictClient(clientId);
+        }
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues){
+        maxEntriesPerClient = intSetting(configValues, MAX_ENTRIES_PER_CLIENT);
+        maxClients = intSetting(configValues, MAX_CLIENTS);
+    }
+
+    @Override
+    protected void releaseFromUse(){
+        for (ClientPartitionedStorage storage : storages) {
+            storage.release();
+        }
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig, DomainDataRegionBuildingContext buildingContext){
+        return register(new ClientPartitionedStorage(regionConfig.getRegionName(), maxEntriesPerClient, maxClients));
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory){
+        return register(new ClientPartitionedStorage(regionName, maxEntriesPerClient, maxClients));
+    }
+
+    /**
+     * Update timestamps only tell when a table was last written, they are shared so a write of one client
+     * invalidates cached query results of every client
+     */
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName, SessionFactoryImplementor sessionFactory){
+        return new ClientPartitionedStorage(regionName, 0, 0) {
+            @Override
+            protected Integer clientId(){
+                return SHARED_PARTITION;
+            }
+        };
+    }
+
+    private ClientPartitionedStorage register(ClientPartitionedStorage storage){
+        storages.add(storage);
+        return storage;
+    }
+
+    /**
+     * @return {@literal 0}, meaning no limit, if {@literal name} is not set
+     */
+    private static int intSetting(Map<String, Object> configValues, String name){
+        Object value = configValues.get(name);
+        return value != null && StringUtils.hasText(value.toString()) ? Integer.parseInt(value.toString()
+                .trim()) : 0;
+    }
+}
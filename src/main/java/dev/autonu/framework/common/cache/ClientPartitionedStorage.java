@@ -0,0 +1,129 @@
+package dev.autonu.framework.common.cache;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.hibernate.cache.spi.support.AbstractReadWriteAccess;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+/**
+ * Storage of one Hibernate cache region keeping a separate partition per client of {@link ClientContext}.
+ * Reads and writes only see the partition of the current client, so an entry cached for one client is never
+ * returned to another. Each partition holds at most {@literal maxEntriesPerClient} entries and drops
+ * the least recently used entry when full, at most {@literal maxClients} partitions are kept and the partition
+ * used least recently is dropped beyond, so a region holds at most {@literal maxClients * maxEntriesPerClient} entries.
+ * <br></br>
+ * Removing or evicting a key removes it from all partitions, an update of a row shared by all clients
+ * therefore invalidates every cached copy. Putting a value removes the key from all other partitions.
+ * The soft lock {@literal READ_WRITE} concurrency puts on update holds no entity state, it is stored once in a
+ * lock partition shared by all clients and the key is removed from all partitions. A client without an entry of its
+ * own reads the lock, so other clients miss the key until the lock times out instead of reading a stale copy, or
+ * caching one loaded before the update.
+ *
+ * @author autonu2X
+ */
+class ClientPartitionedStorage implements DomainDataStorageAccess {
+
+    private static final Integer NO_CLIENT_ID = -1;
+    private final String regionName;
+    private final int maxEntriesPerClient;
+    private final ClientPartitions partitions;
+    private final ClientPartition locks;
+
+    /**
+     * @param maxEntriesPerClient {@literal 0} or less for unbounded partitions, also bounds the shared lock partition
+     * @param maxClients          {@literal 0} or less for no limit
+     */
+    ClientPartitionedStorage(String regionName, int maxEntriesPerClient, int maxClients){
+        this.regionName = regionName;
+        this.maxEntriesPerClient = maxEntriesPerClient;
+        this.partitions = new ClientPartitions(maxClients);
+        this.locks = new ClientPartition(maxEntriesPerClient);
+    }
+
+    /**
+     * Values written after the soft lock of a key are only found in partitions, as putting a lock removes the key
+     * from all of them
+     */
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session){
+        ClientPartition partition = partitions.get(clientId());
+        Object value = partition != null ? partition.get(key) : null;
+        return value != null ? value : locks.get(key);
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session){
+        if (value instanceof AbstractReadWriteAccess.SoftLockImpl) {
+            locks.put(key, value);
+            for (ClientPartition partition : partitions.values()) {
+                partition.remove(key);
+            }
+            return;
+        }
+        ClientPartition clientPartition = partitions.getOrCreate(clientId(), id -> new ClientPartition(maxEntriesPerClient));
+        for (ClientPartition partition : partitions.values()) {
+            if (partition != clientPartition) {
+                partition.remove(key);
+            }
+        }
+        clientPartition.put(key, value);
+    }
+
+    @Override
+    public boolean contains(Object key){
+        ClientPartition partition = partitions.get(clientId());
+        return (partition != null && partition.contains(key)) || locks.contains(key);
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session){
+        evictData(key);
+    }
+
+    @Override
+    public void evictData(){
+        partitions.clear();
+        locks.clear();
+    }
+
+    @Override
+    public void evictData(Object key){
+        locks.remove(key);
+        for (ClientPartition partition : partitions.values()) {
+            partition.remove(key);
+        }
+    }
+
+    @Override
+    public void release(){
+        evictData();
+    }
+
+    /**
+     * Drop all entries of {@literal clientId}
+     */
+    void evictClient(Integer clientId){
+        partitions.remove(clientId);
+    }
+
+    /**
+     * @return number of entries cached for {@literal clientId}
+     */
+    int size(Integer clientId){
+        ClientPartition partition = partitions.get(clientId);
+        return partition != null ? partition.size() : 0;
+    }
+
+    String getRegionName(){
+        return regionName;
+    }
+
+    protected Integer clientId(){
+        ClientUserAssociation association = ClientContext.get();
+        if (association != null && association.clientId() != null) {
+            return association.clientId();
+        }
+        return NO_CLIENT_ID;
+    }
+}
@@ -0,0 +1,87 @@
+package dev.autonu.framework.common.cache;
+
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Partitions of a cache by client id, dropping the partition used least recently once more than {@literal maxClients}
+ * clients are cached. Finding that partition scans all partitions, which only happens when a client is added.
+ *
+ * @author autonu2X
+ */
+final class ClientPartitions {
+
+    private final Map<Integer, ClientPartition> partitions = new ConcurrentHashMap<>();
+    private final int maxClients;
+    private final BiConsumer<Integer, ClientPartition> dropListener;
+
+    /**
+     * @param maxClients {@literal 0} or less for no limit
+     */
+    ClientPartitions(int maxClients){
+        this(maxClients, (clientId, partition) -> {
+        });
+    }
+
+    /**
+     * @param dropListener called with each partition dropped because {@literal maxClients} was exceeded
+     */
+    ClientPartitions(int maxClients, BiConsumer<Integer, ClientPartition> dropListener){
+        this.maxClients = maxClients;
+        this.dropListener = dropListener;
+    }
+
+    @Nullable
+    ClientPartition get(Integer clientId){
+        return partitions.get(clientId);
+    }
+
+    ClientPartition getOrCreate(Integer clientId, Function<Integer, ClientPartition> factory){
+        ClientPartition partition = partitions.get(clientId);
+        if (partition == null) {
+            partition = partitions.computeIfAbsent(clientId, factory);
+            if (maxClients > 0 && partitions.size() > maxClients) {
+                evictLeastRecentlyUsed(clientId);
+            }
+        }
+        return partition;
+    }
+
+    @Nullable
+    ClientPartition remove(Integer clientId){
+        return partitions.remove(clientId);
+    }
+
+    Collection<ClientPartition> values(){
+        return partitions.values();
+    }
+
+    Map<Integer, ClientPartition> asMap(){
+        return partitions;
+    }
+
+    void clear(){
+        partitions.clear();
+    }
+
+    private void evictLeastRecentlyUsed(Integer addedClientId){
+        Map.Entry<Integer, ClientPartition> leastRecentlyUsed = null;
+        long leastRecentAccess = Long.MAX_VALUE;
+        for (Map.Entry<Integer, ClientPartition> entry : partitions.entrySet()) {
+            long lastAccess = entry.getValue()
+                    .lastAccess();
+            if (!addedClientId.equals(entry.getKey()) && lastAccess < leastRecentAccess) {
+                leastRecentlyUsed = entry;
+                leastRecentAccess = lastAccess;
+            }
+        }
+        if (leastRecentlyUsed != null && partitions.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+            dropListener.accept(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue());
+        }
+    }
+}
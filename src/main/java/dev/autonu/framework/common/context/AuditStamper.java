@@ -0,0 +1,111 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.AbstractClientAwareModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sets client id and audit fields of models saved by {@link ClientAwareModelListener}, {@link ClientAwareMongoTemplate}
+ * and {@link ClientAwareReactiveMongoTemplate}. The zone is resolved once, callers stamping a batch read the clock once
+ * with {@link #now()} and pass the timestamp to every model of the batch.
+ * <br></br>
+ * With a {@literal precision} greater than zero the last timestamp is reused until it is older than {@literal precision},
+ * a coarse clock for bulk loads where exact timestamps per operation are not needed.
+ *
+ * @author autonu2X
+ */
+public class AuditStamper {
+
+    private static final int MAX_CACHED_USERNAMES = 4_096;
+    private final Clock clock;
+    private final long precisionNanos;
+    private final Map<Integer, String> clientUsernames = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile Reading lastReading;
+
+    public AuditStamper(DateTimeFormatProperties dateTimeFormatProperties){
+        this(Clock.system(ZoneId.of(dateTimeFormatProperties.zone())), dateTimeFormatProperties.auditPrecision());
+    }
+
+    /**
+     * @param clock     clock and zone of audit timestamps
+     * @param precision time a timestamp is reused for, {@link Duration#ZERO} reads {@literal clock} on every call of {@link #now()}
+     */
+    public AuditStamper(Clock clock, Duration precision){
+        Assert.notNull(clock, "Clock must not be null");
+        Assert.isTrue(!precision.isNegative(), "Precision must not be negative");
+        this.clock = clock;
+        this.precisionNanos = precision.toNanos();
+    }
+
+    private record Reading(long nanoTime, ZonedDateTime value) {
+    }
+
+    /**
+     * @return current time in the configured zone
+     */
+    public ZonedDateTime now(){
+        if (precisionNanos == 0) {
+            return ZonedDateTime.now(clock);
+        }
+        long nanoTime = System.nanoTime();
+        Reading reading = lastReading;
+        if (reading == null || nanoTime - reading.nanoTime >= precisionNanos) {
+            reading = new Reading(nanoTime, ZonedDateTime.now(clock));
+            lastReading = reading;
+        }
+        return reading.value;
+    }
+
+    /**
+     * Set client id, created and updated fields of a new model
+     *
+     * @param now timestamp of the operation, see {@link #now()}
+     */
+    public void stampCreated(AbstractClientAwareModel<?> model, ClientUserAssociation association, ZonedDateTime now){
+        String username = username(association);
+        model.setClientId(association.clientId());
+        model.setCreatedBy(username);
+        model.setUpdatedBy(username);
+        model.setCreatedAt(now);
+        model.setUpdatedAt(now);
+    }
+
+    /**
+     * Set updated fields of an existing model
+     *
+     * @param now timestamp of the operation, see {@link #now()}
+     */
+    public void stampUpdated(AbstractClientAwareModel<?> model, ClientUserAssociation association, ZonedDateTime now){
+        model.setUpdatedBy(username(association));
+        model.setUpdatedAt(now);
+    }
+
+    /**
+     * @return username of {@literal association}, the client id if it has none
+     */
+    public String username(ClientUserAssociation association){
+        if (StringUtils.hasText(association.username())) {
+            return association.username();
+        }
+        Integer clientId = association.clientId();
+        String username = clientUsernames.get(clientId);
+        if (username != null) {
+            return username;
+        }
+        if (clientId == null || clientUsernames.size() >= MAX_CACHED_USERNAMES) {
+            return String.valueOf(clientId);
+        }
+        return clientUsernames.computeIfAbsent(clientId, String::valueOf);
+    }
+}
@@ -0,0 +1,196 @@
+package dev.autonu.framework.common.context;
+
+import com.mongodb.bulk.BulkWriteResult;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * Collects writes of the current client and sends them as one unordered bulk write once {@literal batchSize}
+ * operations are pending, or once the oldest pending operation is older than {@literal flushInterval}.
+ * The time threshold is checked whenever an operation is added, call {@link #flush()} or {@link #close()}
+ * to send the remaining operations.
+ * <br></br>
+ * Inserted models are stamped with client id and audit fields like {@link ClientAwareMongoTemplate#insert(Object)},
+ * updates, upserts and removes are restricted to the current client. Updates and upserts also set the updated fields,
+ * upserts set client id and created fields on insert. Queries and updates are copied, the given ones are left unchanged. The client is resolved from {@link ClientContext}
+ * when an operation is added, so one batch can hold operations of different clients.
+ * <br></br>
+ * Not bound to a transaction. A failed batch is reported to the batch listener and the {@link BulkOperationException}
+ * is rethrown, operations of the batch that did not fail are still written.
+ *
+ * @author autonu2X
+ * @see ClientAwareMongoTemplate#bulkWriter(Class)
+ */
+public class ClientAwareBulkWriter<T> implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareBulkWriter.class);
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final Duration DEFAULT_FLUSH_INTERVAL = Duration.ofSeconds(1);
+    private final ClientAwareMongoTemplate template;
+    private final Class<T> entityClass;
+    private final String collectionName;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    @Nullable
+    private Consumer<BatchResult> batchListener;
+    @Nullable
+    private BulkOperations bulkOperations;
+    private int pendingOperations;
+    private long firstPendingOperation;
+
+    public ClientAwareBulkWriter(ClientAwareMongoTemplate template, Class<T> entityClass, String collectionName, int batchSize, Duration flushInterval){
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        Assert.notNull(flushInterval, "Flush interval must not be null");
+        this.template = template;
+        this.entityClass = entityClass;
+        this.collectionName = collectionName;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+    }
+
+    /**
+     * Result of one bulk write
+     *
+     * @param operations number of operations sent
+     * @param failed     number of operations rejected by the server
+     * @param duration   time taken by the bulk write
+     */
+    public record BatchResult(int operations, int inserted, int matched, int modified, int deleted, int upserted, int failed, Duration duration) {
+    }
+
+    /**
+     * @param batchListener called after every bulk write, including failed ones
+     */
+    public synchronized void setBatchListener(@Nullable Consumer<BatchResult> batchListener){
+        this.batchListener = batchListener;
+    }
+
+    /**
+     * @param objectToSave should be of type {@link dev.autonu.framework.common.model.BaseClientAwareMongoModel}
+     */
+    public synchronized ClientAwareBulkWriter<T> insert(T objectToSave){
+        Assert.notNull(objectToSave, "Object to save must not be null");
+        ClientUserAssociation association = template.validateModelAndClientId(objectToSave);
+        template.updateObjectToSaveWithClientId(objectToSave, association);
+        bulkOperations().insert(objectToSave);
+        return added();
+    }
+
+    /**
+     * @param update should be of type {@link org.springframework.data.mongodb.core.query.Update}
+     */
+    public synchronized ClientAwareBulkWriter<T> updateOne(Query query, UpdateDefinition update){
+        bulkOperations().updateOne(clientQuery(query), template.stampUpdate(update, false));
+        return added();
+    }
+
+    /**
+     * @param update should be of type {@link org.springframework.data.mongodb.core.query.Update}
+     */
+    public synchronized ClientAwareBulkWriter<T> updateMulti(Query query, UpdateDefinition update){
+        bulkOperations().updateMulti(clientQuery(query), template.stampUpdate(update, false));
+        return added();
+    }
+
+    /**
+     * @param update should be of type {@link org.springframework.data.mongodb.core.query.Update}
+     */
+    public synchronized ClientAwareBulkWriter<T> upsert(Query query, UpdateDefinition update){
+        bulkOperations().upsert(clientQuery(query), template.stampUpdate(update, true));
+        return added();
+    }
+
+    public synchronized ClientAwareBulkWriter<T> remove(Query query){
+        bulkOperations().remove(clientQuery(query));
+        return added();
+    }
+
+    /**
+     * Send all pending operations
+     *
+     * @return {@literal null} if no operation was pending
+     */
+    @Nullable
+    public synchronized BatchResult flush(){
+        BulkOperations bulkOperations = this.bulkOperations;
+        if (bulkOperations == null) {
+            return null;
+        }
+        int operations = pendingOperations;
+        this.bulkOperations = null;
+        pendingOperations = 0;
+        long start = System.nanoTime();
+        BatchResult batchResult;
+        try {
+            batchResult = batchResult(operations, bulkOperations.execute(), 0, start);
+        } catch (BulkOperationException e) {
+            batchResult = batchResult(operations, e.getResult(), e.getErrors()
+                    .size(), start);
+            LOGGER.warn("Bulk write to {} failed for {} of {} operations", collectionName, batchResult.failed(), operations);
+            notifyListener(batchResult);
+            throw e;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Bulk write to {} completed: {}", collectionName, batchResult);
+        }
+        notifyListener(batchResult);
+        return batchResult;
+    }
+
+    public synchronized int getPendingOperations(){
+        return pendingOperations;
+    }
+
+    @Override
+    public void close(){
+        flush();
+    }
+
+    private BulkOperations bulkOperations(){
+        if (bulkOperations == null) {
+            bulkOperations = template.unrestrictedBulkOps(BulkOperations.BulkMode.UNORDERED, entityClass, collectionName);
+            firstPendingOperation = System.nanoTime();
+        }
+        return bulkOperations;
+    }
+
+    private Query clientQuery(Query query){
+        Assert.notNull(query, "Query must not be null");
+        return Query.of(query)
+                .addCriteria(template.validateClientIdAndGetCriteria());
+    }
+
+    private ClientAwareBulkWriter<T> added(){
+        pendingOperations++;
+        if (pendingOperations >= batchSize || System.nanoTime() - firstPendingOperation >= flushIntervalNanos) {
+            flush();
+        }
+        return this;
+    }
+
+    private void notifyListener(BatchResult batchResult){
+        if (batchListener != null) {
+            batchListener.accept(batchResult);
+        }
+    }
+
+    private static BatchResult batchResult(int operations, BulkWriteResult result, int failed, long start){
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        if (!result.wasAcknowledged()) {
+            return new BatchResult(operations, 0, 0, 0, 0, 0, failed, duration);
+        }
+        return new BatchResult(operations, result.getInsertedCount(), result.getMatchedCount(), result.getModifiedCount(), result.getDeletedCount(), result.getUpserts()
+                .size(), failed, duration);
+    }
+}
@@ -0,0 +1,202 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.ClientAwareEntity;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes entities of the current client to PostgreSQL with {@literal COPY ... FROM STDIN (FORMAT BINARY)}.
+ * Rows are encoded one at a time into a fixed size buffer sent to the server whenever it is full,
+ * so a {@link Stream} of any length can be loaded without holding it in memory.
+ * <br></br>
+ * The connection is taken from the {@link DataSource}, a {@link ClientAwareDataSource} sets the session variable
+ * of the current client as for any other statement, and joins the current Spring transaction if there is one.
+ * {@literal client_id}, audit columns and {@literal version} are stamped by {@link AuditStamper} with one timestamp
+ * per call and always written, only the entity specific {@link CopyColumn}s have to be given. Ids are not written,
+ * the id column needs a default, for example {@literal generated by default as identity} or {@literal nextval}.
+ * <br></br>
+ * PostgreSQL rejects {@literal COPY FROM} into tables with row level security enforced for the current role,
+ * {@literal client_id} is therefore always taken from {@link ClientContext} and never from the entity.
+ * <br></br>
+ * Needs the PostgreSQL JDBC driver, which is an optional dependency of the starter.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareCopyLoader<T extends ClientAwareEntity<?>> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareCopyLoader.class);
+    public static final int DEFAULT_BUFFER_SIZE = 65_536;
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int INITIAL_VERSION = 0;
+    private final DataSource dataSource;
+    private final AuditStamper auditStamper;
+    private final String table;
+    private final List<CopyColumn<? super T>> columns;
+    private final String copyStatement;
+    private final int bufferSize;
+
+    public ClientAwareCopyLoader(DataSource dataSource, AuditStamper auditStamper, String table, List<CopyColumn<? super T>> columns){
+        this(dataSource, auditStamper, table, columns, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ClientAwareCopyLoader(DataSource dataSource, AuditStamper auditStamper, String table, List<CopyColumn<? super T>> columns, int bufferSize){
+        Assert.isTrue(IDENTIFIER.matcher(table)
+                .matches(), "Invalid table name: " + table);
+        Assert.isTrue(bufferSize > 0, "Buffer size must be greater than 0");
+        for (CopyColumn<? super T> column : columns) {
+            Assert.isTrue(IDENTIFIER.matcher(column.name())
+                    .matches() && column.name()
+                    .indexOf('.') < 0, "Invalid column name: " + column.name());
+        }
+        this.dataSource = dataSource;
+        this.auditStamper = auditStamper;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.bufferSize = bufferSize;
+        this.copyStatement = "COPY " + table + " (" + Stream.concat(Stream.of("client_id", "created_by", "updated_by", "created_at", "updated_at", "version"), this.columns.stream()
+                        .map(CopyColumn::name))
+                .collect(Collectors.joining(", ")) + ") FROM STDIN (FORMAT BINARY)";
+    }
+
+    /**
+     * Entity specific column of the {@literal COPY}
+     *
+     * @param name  column name
+     * @param type  PostgreSQL type the value is encoded as
+     * @param value reads the column value from an entity, may return {@literal null}
+     */
+    public record CopyColumn<T>(String name, CopyType type, Function<T, ?> value) {
+    }
+
+    /**
+     * @return number of rows written
+     */
+    public long copy(Iterable<? extends T> entities){
+        return copy(entities.iterator());
+    }
+
+    /**
+     * @return number of rows written, {@literal entities} is consumed but not closed
+     */
+    public long copy(Stream<? extends T> entities){
+        return copy(entities.iterator());
+    }
+
+    /**
+     * The copy is only ended once all rows are written, if anything fails before it is cancelled,
+     * so no partial copy is committed
+     */
+    private long copy(Iterator<? extends T> entities){
+        ClientUserAssociation association = validateClientId();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        boolean ended = false;
+        try {
+            long start = System.nanoTime();
+            copyIn = connection.unwrap(PGConnection.class)
+                    .getCopyAPI()
+                    .copyIn(copyStatement);
+            PGCopyOutputStream out = new PGCopyOutputStream(copyIn, bufferSize);
+            write(out, entities, association);
+            long rows = out.endCopy();
+            ended = true;
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Copied {} rows into {} for client_id: {} in {}ms", rows, table, association.clientId(), (System.nanoTime() - start) / 1_000_000);
+            }
+            return rows;
+        } catch (SQLException | IOException e) {
+            throw new DataAccessResourceFailureException("Copy into " + table + " failed", e);
+        } finally {
+            if (!ended) {
+                cancel(copyIn);
+            }
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * Write header, one tuple per entity and trailer of the binary copy format to {@literal out}
+     */
+    void write(OutputStream out, Iterator<? extends T> entities, ClientUserAssociation association) throws IOException{
+        DataOutputStream data = new DataOutputStream(out);
+        data.write(SIGNATURE);
+        data.writeInt(0);
+        data.writeInt(0);
+        ZonedDateTime now = auditStamper.now();
+        short fields = (short) (6 + columns.size());
+        while (entities.hasNext()) {
+            T entity = entities.next();
+            auditStamper.stampCreated(entity, association, now);
+            data.writeShort(fields);
+            CopyType.INTEGER.write(data, entity.getClientId());
+            CopyType.TEXT.write(data, entity.getCreatedBy());
+            CopyType.TEXT.write(data, entity.getUpdatedBy());
+            CopyType.TIMESTAMPTZ.write(data, entity.getCreatedAt());
+            CopyType.TIMESTAMPTZ.write(data, entity.getUpdatedAt());
+            CopyType.INTEGER.write(data, INITIAL_VERSION);
+            for (CopyColumn<? super T> column : columns) {
+                writeColumn(data, column, entity);
+            }
+        }
+        data.writeShort(-1);
+        data.flush();
+    }
+
+    String getCopyStatement(){
+        return copyStatement;
+    }
+
+    private static <T> void writeColumn(DataOutputStream data, CopyColumn<T> column, T entity) throws IOException{
+        Object value = column.value()
+                .apply(entity);
+        if (value == null) {
+            data.writeInt(-1);
+        } else {
+            column.type()
+                    .write(data, value);
+        }
+    }
+
+    private static void cancel(CopyIn copyIn){
+        if (copyIn == null || !copyIn.isActive()) {
+            return;
+        }
+        try {
+            copyIn.cancelCopy();
+        } catch (SQLException e) {
+            LOGGER.warn("Cancelling copy failed", e);
+        }
+    }
+
+    private static ClientUserAssociation validateClientId(){
+        ClientUserAssociation association = ClientContext.get();
+        if (association == null || association.clientId() == null) {
+            throw new InvalidClientUserAssociationException("Copy performed is not allowed. Invalid client_id: null");
+        }
+        return association;
+    }
+}
@@ -1,21 +1,48 @@
 package dev.autonu.framework.common.context;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
 import dev.autonu.framework.common.model.ClientUserAssociation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
 
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
+ * Sets {@literal sessionVariable} to current client id on every connection checkout.
+ * The client id last bound to each physical connection is remembered, so the round trip is skipped
+ * when the connection is checked out again by the same client.
+ *
  * @author autonu2X
  */
 public class ClientAwareDataSource extends HikariDataSource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareDataSource.class);
+    private static final String SET_SESSION_VARIABLE_QUERY = "SELECT set_config(?, ?, false)";
+    private static final Integer NO_CLIENT_ID = -1;
+    private static final String OPERATION_GET_CONNECTION = "getConnection";
+    private static final String DEFAULT_POOL_NAME = "default";
     private final String sessionVariable;
+    private final Map<Connection, SessionVariableBinding> bindings = new ConcurrentHashMap<>();
+    private final LongAdder skippedBindings = new LongAdder();
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionTimeNanos = new LongAdder();
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+    @Nullable
+    private volatile AdmissionSemaphore admission;
+    private volatile boolean admissionFollowsPoolSize;
 
     public ClientAwareDataSource(String sessionVariable){
         this.sessionVariable = sessionVariable;
@@ -23,36 +50,265 @@ public class ClientAwareDataSource extends HikariDataSource {
 
     @Override
     public Connection getConnection() throws SQLException{
-        Connection connection = super.getConnection();
-        return getConnection(connection);
+        Integer clientId = clientId();
+        ClientOperationMetrics metrics = this.metrics;
+        long start = System.nanoTime();
+        Connection connection;
+        try {
+            connection = acquireConnection();
+        } catch (SQLException e) {
+            if (metrics != null) {
+                metrics.recordError(OPERATION_GET_CONNECTION, poolName(), clientId);
+            }
+            throw e;
+        }
+        long acquisitionTime = System.nanoTime() - start;
+        acquisitionTimeNanos.add(acquisitionTime);
+        acquisitions.increment();
+        if (metrics != null) {
+            metrics.record(OPERATION_GET_CONNECTION, poolName(), clientId, acquisitionTime, -1);
+        }
+        return getConnection(connection, clientId);
     }
 
     @Override
     public Connection getConnection(String username, String password) throws SQLException{
         Connection connection = super.getConnection(username, password);
-        return getConnection(connection);
+        return getConnection(connection, clientId());
+    }
+
+    /**
+     * Let at most {@literal permits} threads acquire a connection from the pool at the same time, others wait in
+     * FIFO order. Waiting in front of the pool keeps the number of threads contending inside the pool bounded
+     * when many virtual threads request connections. Waiting for admission and for the pool together take
+     * at most the connection timeout. The permits stay fixed when the maximum pool size changes.
+     *
+     * @param permits {@literal 0} or less disables admission control
+     * @see #setAdmissionPermitsToPoolSize()
+     */
+    public void setAdmissionPermits(int permits){
+        this.admissionFollowsPoolSize = false;
+        this.admission = permits > 0 ? new AdmissionSemaphore(permits) : null;
+    }
+
+    /**
+     * Admission control like {@link #setAdmissionPermits(int)} with as many permits as the maximum pool size. The permits
+     * follow changes of the maximum pool size, such as those of {@link ClientAwareDataSourceAutotuner}, on the next checkout.
+     */
+    public void setAdmissionPermitsToPoolSize(){
+        this.admissionFollowsPoolSize = true;
+        this.admission = new AdmissionSemaphore(Math.max(1, getMaximumPoolSize()));
+    }
+
+    /**
+     * Record connection acquisition time per client
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return number of checkouts for which setting the session variable was skipped
+     */
+    public long getSkippedBindings(){
+        return skippedBindings.sum();
+    }
+
+    /**
+     * @return number of connections acquired from the pool
+     */
+    public long getAcquisitions(){
+        return acquisitions.sum();
+    }
+
+    /**
+     * @return total time spent waiting for connections from the pool
+     */
+    public long getAcquisitionTimeNanos(){
+        return acquisitionTimeNanos.sum();
+    }
+
+    @Override
+    public void close(){
+        super.close();
+        bindings.clear();
     }
 
     /**
      * Before doing query set {@literal current_setting} as {@literal app.current_client_id} in {@literal PostgresSQL}
      *
      * @param connection will never be {@literal null}
+     * @param clientId   {@literal null} if no client is bound, the session variable is then set to {@literal -1}
      */
-    private Connection getConnection(Connection connection) throws SQLException{
-        try (Statement sql = connection.createStatement()) {
-            ClientUserAssociation clientUserAssociation = ClientContext.get();
-            Integer clientId;
-            if (clientUserAssociation != null) {
-                clientId = clientUserAssociation.clientId();
-            } else {
-                clientId = -1;
+    private Connection getConnection(Connection connection, @Nullable Integer clientId) throws SQLException{
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Query is being performed by client: {}", clientId);
+        }
+        Connection physicalConnection = connection.unwrap(Connection.class);
+        SessionVariableBinding binding = bindings.get(physicalConnection);
+        try {
+            if (binding == null) {
+                removeClosedBindings();
+                binding = new SessionVariableBinding(physicalConnection);
+                bindings.put(physicalConnection, binding);
             }
-            if (LOGGER.isDebugEnabled()) {
-                LOGGER.debug("Query is being performed by client: {}", clientId);
+            if (!binding.bind(clientId != null ? clientId : NO_CLIENT_ID, connection.getAutoCommit())) {
+                skippedBindings.increment();
             }
-            String query = "SET " + this.sessionVariable + " = " + clientId;
-            sql.execute(query);
+        } catch (SQLException e) {
+            bindings.remove(physicalConnection);
+            connection.close();
+            throw e;
         }
         return connection;
     }
+
+    /**
+     * @return permits currently available for admission, {@literal 0} without admission control
+     */
+    int getAdmissionPermits(){
+        Semaphore admission = this.admission;
+        return admission != null ? admission.availablePermits() : 0;
+    }
+
+    private Connection acquireConnection() throws SQLException{
+        AdmissionSemaphore admission = this.admission;
+        if (admission == null) {
+            return super.getConnection();
+        }
+        if (admissionFollowsPoolSize) {
+            admission.resize(getMaximumPoolSize());
+        }
+        long connectionTimeout = getConnectionTimeout();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+        try {
+            if (!admission.tryAcquire(connectionTimeout, TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(poolName() + " - Connection is not available, admission timed out after " + connectionTimeout + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new SQLTransientConnectionException(poolName() + " - Interrupted during connection acquisition", e);
+        }
+        try {
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new SQLTransientConnectionException(poolName() + " - Connection is not available, request timed out after " + connectionTimeout + "ms");
+            }
+            return acquireConnection(remainingMillis);
+        } finally {
+            admission.release();
+        }
+    }
+
+    /**
+     * Wait at most {@literal timeoutMillis} for a connection of the started pool. The first checkout starts the pool
+     * and waits for the connection timeout, as does a checkout from a closed pool to fail as usual.
+     */
+    private Connection acquireConnection(long timeoutMillis) throws SQLException{
+        if (!isClosed() && getHikariPoolMXBean() instanceof HikariPool pool) {
+            return pool.getConnection(timeoutMillis);
+        }
+        return super.getConnection();
+    }
+
+    @Nullable
+    private static Integer clientId(){
+        ClientUserAssociation clientUserAssociation = ClientContext.get();
+        return clientUserAssociation != null ? clientUserAssociation.clientId() : null;
+    }
+
+    private String poolName(){
+        String poolName = getPoolName();
+        return poolName != null ? poolName : DEFAULT_POOL_NAME;
+    }
+
+    /**
+     * Physical connections retired by the pool are closed, so their bindings can be dropped
+     */
+    private void removeClosedBindings(){
+        if (bindings.size() < getMaximumPoolSize()) {
+            return;
+        }
+        bindings.keySet()
+                .removeIf(ClientAwareDataSource::isClosed);
+    }
+
+    private static boolean isClosed(Connection connection){
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Fair semaphore whose number of permits can be changed while threads hold permits
+     */
+    private static final class AdmissionSemaphore extends Semaphore {
+
+        private volatile int permits;
+
+        private AdmissionSemaphore(int permits){
+            super(permits, true);
+            this.permits = permits;
+        }
+
+        /**
+         * Permits held beyond a reduced number are not taken back, available permits stay negative until released
+         *
+         * @param permits ignored if less than {@literal 1}, as before the pool is started
+         */
+        private void resize(int permits){
+            if (permits < 1 || permits == this.permits) {
+                return;
+            }
+            synchronized (this) {
+                int delta = permits - this.permits;
+                if (delta > 0) {
+                    release(delta);
+                } else if (delta < 0) {
+                    reducePermits(-delta);
+                }
+                this.permits = permits;
+            }
+        }
+    }
+
+    /**
+     * Session variable state of a single physical connection. A physical connection is used by
+     * one thread at a time, so no synchronization is needed.
+     */
+    private final class SessionVariableBinding {
+
+        private final PreparedStatement statement;
+        private Integer clientId;
+
+        private SessionVariableBinding(Connection physicalConnection) throws SQLException{
+            this.statement = physicalConnection.prepareStatement(SET_SESSION_VARIABLE_QUERY);
+            this.statement.setString(1, sessionVariable);
+        }
+
+        /**
+         * A value set inside a transaction is reverted on rollback, so it is only remembered
+         * when set in auto-commit mode.
+         *
+         * @return {@literal false} if the session variable already holds {@literal clientId}
+         */
+        private boolean bind(Integer clientId, boolean autoCommit) throws SQLException{
+            if (autoCommit && clientId.equals(this.clientId)) {
+                return false;
+            }
+            this.clientId = null;
+            statement.setString(2, String.valueOf(clientId));
+            try (ResultSet ignored = statement.executeQuery()) {
+                if (autoCommit) {
+                    this.clientId = clientId;
+                }
+            }
+            return true;
+        }
+    }
 }
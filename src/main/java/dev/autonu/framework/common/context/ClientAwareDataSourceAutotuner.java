@@ -0,0 +1,155 @@
+package dev.autonu.framework.common.context;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically samples connection acquisition time and utilization of a {@link ClientAwareDataSource}
+ * and resizes {@literal maximumPoolSize} and {@literal minimumIdle} within
+ * {@link ClientAwareDataSourceProperties.Autotune} bounds.
+ * <br></br>
+ * The pool grows by a quarter once it has been saturated for {@literal stableSamples} consecutive samples,
+ * and shrinks by one connection once it has been underutilized for twice as many samples.
+ * {@literal minimumIdle} follows the peak number of active connections seen since the last decision.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareDataSourceAutotuner implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareDataSourceAutotuner.class);
+    private static final int MAX_DECISIONS = 50;
+    private final ClientAwareDataSource dataSource;
+    private final ClientAwareDataSourceProperties.Autotune autotune;
+    private final Deque<Decision> decisions = new ArrayDeque<>();
+    private ScheduledExecutorService executor;
+    private long lastAcquisitions;
+    private long lastAcquisitionTimeNanos;
+    private int growSamples;
+    private int shrinkSamples;
+    private int peakActiveConnections;
+
+    public ClientAwareDataSourceAutotuner(ClientAwareDataSource dataSource, ClientAwareDataSourceProperties.Autotune autotune){
+        this.dataSource = dataSource;
+        this.autotune = autotune;
+    }
+
+    /**
+     * Resize decision taken by {@link ClientAwareDataSourceAutotuner}
+     */
+    public record Decision(Instant timestamp, String reason, int previousMaximumPoolSize, int maximumPoolSize, int minimumIdle, double averageAcquisitionMillis, int activeConnections, int threadsAwaitingConnection) {
+    }
+
+    record Sample(long averageAcquisitionNanos, int activeConnections, int threadsAwaitingConnection) {
+    }
+
+    public synchronized void start(){
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "client-aware-datasource-autotuner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = autotune.interval()
+                .toMillis();
+        executor.scheduleWithFixedDelay(this::sample, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close(){
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public ClientAwareDataSource getDataSource(){
+        return dataSource;
+    }
+
+    public ClientAwareDataSourceProperties.Autotune getAutotune(){
+        return autotune;
+    }
+
+    /**
+     * @return latest decisions, oldest first
+     */
+    public List<Decision> getDecisions(){
+        synchronized (decisions) {
+            return List.copyOf(decisions);
+        }
+    }
+
+    private void sample(){
+        try {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return;
+            }
+            long acquisitions = dataSource.getAcquisitions();
+            long acquisitionTimeNanos = dataSource.getAcquisitionTimeNanos();
+            long sampledAcquisitions = acquisitions - lastAcquisitions;
+            long averageAcquisitionNanos = sampledAcquisitions == 0 ? 0 : (acquisitionTimeNanos - lastAcquisitionTimeNanos) / sampledAcquisitions;
+            lastAcquisitions = acquisitions;
+            lastAcquisitionTimeNanos = acquisitionTimeNanos;
+            tune(new Sample(averageAcquisitionNanos, pool.getActiveConnections(), pool.getThreadsAwaitingConnection()));
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to autotune connection pool", e);
+        }
+    }
+
+    @Nullable
+    Decision tune(Sample sample){
+        int maximumPoolSize = dataSource.getMaximumPoolSize();
+        peakActiveConnections = Math.max(peakActiveConnections, sample.activeConnections());
+        boolean saturated = sample.threadsAwaitingConnection() > 0 || sample.averageAcquisitionNanos() > autotune.targetAcquisitionTime()
+                .toNanos();
+        boolean underutilized = !saturated && sample.activeConnections() < maximumPoolSize * autotune.shrinkUtilization();
+        growSamples = saturated ? growSamples + 1 : 0;
+        shrinkSamples = underutilized ? shrinkSamples + 1 : 0;
+        int newMaximumPoolSize;
+        String reason;
+        if (growSamples >= autotune.stableSamples() && maximumPoolSize < autotune.maxPoolSize()) {
+            newMaximumPoolSize = Math.min(autotune.maxPoolSize(), maximumPoolSize + Math.max(1, maximumPoolSize / 4));
+            reason = "saturated";
+        } else if (shrinkSamples >= 2 * autotune.stableSamples() && maximumPoolSize > autotune.minPoolSize()) {
+            newMaximumPoolSize = Math.max(autotune.minPoolSize(), maximumPoolSize - 1);
+            reason = "underutilized";
+        } else {
+            return null;
+        }
+        int minimumIdle = Math.max(Math.min(autotune.minPoolSize(), newMaximumPoolSize), Math.min(peakActiveConnections, newMaximumPoolSize));
+        if (newMaximumPoolSize < maximumPoolSize) {
+            dataSource.setMinimumIdle(minimumIdle);
+            dataSource.setMaximumPoolSize(newMaximumPoolSize);
+        } else {
+            dataSource.setMaximumPoolSize(newMaximumPoolSize);
+            dataSource.setMinimumIdle(minimumIdle);
+        }
+        Decision decision = new Decision(Instant.now(), reason, maximumPoolSize, newMaximumPoolSize, minimumIdle, sample.averageAcquisitionNanos() / 1_000_000d, sample.activeConnections(), sample.threadsAwaitingConnection());
+        LOGGER.info("Resized connection pool: {}", decision);
+        synchronized (decisions) {
+            if (decisions.size() == MAX_DECISIONS) {
+                decisions.removeFirst();
+            }
+            decisions.addLast(decision);
+        }
+        growSamples = 0;
+        shrinkSamples = 0;
+        peakActiveConnections = sample.activeConnections();
+        return decision;
+    }
+}
@@ -6,12 +6,15 @@ import com.mongodb.client.model.CountOptions;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.error.UnboundedResultSetException;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
 import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
 import dev.autonu.framework.common.model.ClientUserAssociation;
 import dev.autonu.framework.common.properties.DateTimeFormatProperties;
 import org.bson.Document;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Window;
 import org.springframework.data.mongodb.MongoDatabaseFactory;
 import org.springframework.data.mongodb.core.*;
 import org.springframework.data.mongodb.core.aggregation.Aggregation;
@@ -19,19 +22,21 @@ import org.springframework.data.mongodb.core.aggregation.AggregationOperationCon
 import org.springframework.data.mongodb.core.aggregation.AggregationResults;
 import org.springframework.data.mongodb.core.convert.MongoConverter;
 import org.springframework.data.mongodb.core.convert.MongoWriter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
 import org.springframework.data.mongodb.core.query.Collation;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 
-import java.time.ZoneId;
+import java.time.Duration;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Stream;
 
 /**
@@ -43,22 +48,58 @@ import java.util.stream.Stream;
 public class ClientAwareMongoTemplate extends MongoTemplate {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareMongoTemplate.class);
-    private final DateTimeFormatProperties dateTimeFormatProperties;
+    private final AuditStamper auditStamper;
     protected static final String FIELD_CLIENT_ID = "client_id";
+    protected static final String FIELD_CREATED_AT = "created_at";
+    protected static final String FIELD_CREATED_BY = "created_by";
+    protected static final String FIELD_UPDATED_AT = "updated_at";
+    protected static final String FIELD_UPDATED_BY = "updated_by";
+    public static final int DEFAULT_MAX_FIND_ALL_RESULTS = 10_000;
+    public static final int DEFAULT_MAX_CACHED_CLIENT_CRITERIA = 4_096;
+    private final ClientCriteriaCache criteriaCache = new ClientCriteriaCache(FIELD_CLIENT_ID, DEFAULT_MAX_CACHED_CLIENT_CRITERIA);
+    private final QueryMapper aggregationQueryMapper = new QueryMapper(getConverter());
+    private int maxFindAllResults = DEFAULT_MAX_FIND_ALL_RESULTS;
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+    private static final String OPERATION_FIND = "find";
+    private static final String OPERATION_FIND_ONE = "findOne";
+    private static final String OPERATION_COUNT = "count";
+    private static final String OPERATION_INSERT = "insert";
+    private static final String OPERATION_INSERT_ALL = "insertAll";
+    private static final String OPERATION_SAVE = "save";
+    private static final String OPERATION_UPDATE = "update";
+    private static final String OPERATION_REMOVE = "remove";
+    private static final String OPERATION_REPLACE = "replace";
+    private static final String OPERATION_AGGREGATE = "aggregate";
+    private static final String OPERATION_FIND_AND_REMOVE = "findAndRemove";
+    private static final String OPERATION_FIND_AND_MODIFY = "findAndModify";
+    private static final String OPERATION_FIND_AND_REPLACE = "findAndReplace";
 
     public ClientAwareMongoTemplate(MongoClient mongoClient, String databaseName, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoClient, databaseName, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareMongoTemplate(MongoClient mongoClient, String databaseName, AuditStamper auditStamper){
         super(mongoClient, databaseName);
-        this.dateTimeFormatProperties = dateTimeFormatProperties;
+        this.auditStamper = auditStamper;
     }
 
     public ClientAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoDbFactory, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, AuditStamper auditStamper){
         super(mongoDbFactory);
-        this.dateTimeFormatProperties = dateTimeFormatProperties;
+        this.auditStamper = auditStamper;
     }
 
     public ClientAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoDbFactory, mongoConverter, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareMongoTemplate(MongoDatabaseFactory mongoDbFactory, MongoConverter mongoConverter, AuditStamper auditStamper){
         super(mongoDbFactory, mongoConverter);
-        this.dateTimeFormatProperties = dateTimeFormatProperties;
+        this.auditStamper = auditStamper;
     }
 
     @Override
@@ -85,32 +126,70 @@ public class ClientAwareMongoTemplate extends MongoTemplate {
 
     @Override
     protected long doCount(CollectionPreparer collectionPreparer, String collectionName, Document filter, CountOptions options){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
-        filter.putAll(tenantCriteria);
-        return super.doCount(collectionPreparer, collectionName, filter, options);
+        filter = withClientIdFilter(filter);
+        long start = startOperation();
+        try {
+            long count = super.doCount(collectionPreparer, collectionName, filter, options);
+            recordOperation(OPERATION_COUNT, collectionName, start, -1);
+            return count;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_COUNT, collectionName);
+            throw e;
+        }
     }
 
     @Override
     protected <T> T doInsert(String collectionName, T objectToSave, MongoWriter<T> writer){
         ClientUserAssociation association = validateModelAndClientId(objectToSave);
         updateObjectToSaveWithClientId(objectToSave, association);
-        return super.doInsert(collectionName, objectToSave, writer);
+        long start = startOperation();
+        try {
+            T saved = super.doInsert(collectionName, objectToSave, writer);
+            recordOperation(OPERATION_INSERT, collectionName, start, 1);
+            return saved;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_INSERT, collectionName);
+            throw e;
+        }
     }
 
     @Override
     protected <T> Collection<T> doInsertAll(Collection<? extends T> listToSave, MongoWriter<T> writer){
+        ZonedDateTime now = auditStamper.now();
         for (T objectToSave : listToSave) {
             ClientUserAssociation association = validateModelAndClientId(objectToSave);
-            updateObjectToSaveWithClientId(objectToSave, association);
+            auditStamper.stampCreated((BaseClientAwareMongoModel) objectToSave, association, now);
+        }
+        if (metrics == null || listToSave.isEmpty()) {
+            return super.doInsertAll(listToSave, writer);
+        }
+        String collectionName = getCollectionName(listToSave.iterator()
+                .next()
+                .getClass());
+        long start = startOperation();
+        try {
+            Collection<T> saved = super.doInsertAll(listToSave, writer);
+            recordOperation(OPERATION_INSERT_ALL, collectionName, start, saved.size());
+            return saved;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_INSERT_ALL, collectionName);
+            throw e;
         }
-        return super.doInsertAll(listToSave, writer);
     }
 
     @Override
     protected <T> T doSave(String collectionName, T objectToSave, MongoWriter<T> writer){
         ClientUserAssociation association = validateModelAndClientId(objectToSave);
         updateObjectToSaveWithClientId(objectToSave, association);
-        return super.doSave(collectionName, objectToSave, writer);
+        long start = startOperation();
+        try {
+            T saved = super.doSave(collectionName, objectToSave, writer);
+            recordOperation(OPERATION_SAVE, collectionName, start, 1);
+            return saved;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_SAVE, collectionName);
+            throw e;
+        }
     }
 
     @Override
@@ -121,7 +200,15 @@ public class ClientAwareMongoTemplate extends MongoTemplate {
         Assert.notNull(update, "Update must not be null");
         Criteria criteria = validateClientIdAndGetCriteria();
         query.addCriteria(criteria);
-        return super.doUpdate(collectionName, query, update, entityClass, upsert, multi);
+        long start = startOperation();
+        try {
+            UpdateResult result = super.doUpdate(collectionName, query, update, entityClass, upsert, multi);
+            recordOperation(OPERATION_UPDATE, collectionName, start, result.wasAcknowledged() ? result.getModifiedCount() : -1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_UPDATE, collectionName);
+            throw e;
+        }
     }
 
     @Override
@@ -131,7 +218,15 @@ public class ClientAwareMongoTemplate extends MongoTemplate {
         Assert.hasText(collectionName, "Collection name must not be null or empty");
         Criteria criteria = validateClientIdAndGetCriteria();
         query.addCriteria(criteria);
-        return super.doRemove(collectionName, query, entityClass, multi);
+        long start = startOperation();
+        try {
+            DeleteResult result = super.doRemove(collectionName, query, entityClass, multi);
+            recordOperation(OPERATION_REMOVE, collectionName, start, result.wasAcknowledged() ? result.getDeletedCount() : -1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_REMOVE, collectionName);
+            throw e;
+        }
     }
 
     @Override
@@ -145,104 +240,344 @@ public class ClientAwareMongoTemplate extends MongoTemplate {
         Assert.isTrue(query.getSkip() <= 0, "Query must not define skip");
         Criteria criteria = validateClientIdAndGetCriteria();
         query.addCriteria(criteria);
-        return super.replace(query, entityType, replacement, options, collectionName);
+        long start = startOperation();
+        try {
+            UpdateResult result = super.replace(query, entityType, replacement, options, collectionName);
+            recordOperation(OPERATION_REPLACE, collectionName, start, result.wasAcknowledged() ? result.getModifiedCount() : -1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_REPLACE, collectionName);
+            throw e;
+        }
     }
 
     @Override
     @SuppressWarnings("ConstantConditions")
     protected <O> AggregationResults<O> doAggregate(Aggregation aggregation, String collectionName, Class<O> outputType, AggregationOperationContext context){
-        Criteria criteria = validateClientIdAndGetCriteria();
-        aggregation.getPipeline()
-                .add(Aggregation.match(criteria));
-        return super.doAggregate(aggregation, collectionName, outputType, context);
+        Aggregation clientAwareAggregation = validateClientIdAndGetAggregation(aggregation, context);
+        long start = startOperation();
+        try {
+            AggregationResults<O> results = super.doAggregate(clientAwareAggregation, collectionName, outputType, context);
+            recordOperation(OPERATION_AGGREGATE, collectionName, start, results.getMappedResults()
+                    .size());
+            return results;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_AGGREGATE, collectionName);
+            throw e;
+        }
     }
 
     @Override
     @SuppressWarnings("ConstantConditions")
     protected <O> Stream<O> aggregateStream(Aggregation aggregation, String collectionName, Class<O> outputType, @Nullable AggregationOperationContext context){
-        Criteria criteria = validateClientIdAndGetCriteria();
-        aggregation.getPipeline()
-                .add(Aggregation.match(criteria));
-        return super.aggregateStream(aggregation, collectionName, outputType, context);
+        Aggregation clientAwareAggregation = validateClientIdAndGetAggregation(aggregation, context != null ? context : ClientAwarePipelineRewriter.context(aggregation, null, getConverter(), aggregationQueryMapper));
+        return super.aggregateStream(clientAwareAggregation, collectionName, outputType, context);
     }
 
     @Nullable
     @Override
     protected <T> T doFindOne(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, CursorPreparer preparer, Class<T> entityClass){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
-        query.putAll(tenantCriteria);
-        return super.doFindOne(collectionName, collectionPreparer, query, fields, preparer, entityClass);
+        query = withClientIdFilter(query);
+        long start = startOperation();
+        try {
+            T result = super.doFindOne(collectionName, collectionPreparer, query, fields, preparer, entityClass);
+            recordOperation(OPERATION_FIND_ONE, collectionName, start, result == null ? 0 : 1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_FIND_ONE, collectionName);
+            throw e;
+        }
     }
 
     @Override
     protected <T> List<T> doFind(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, Class<T> entityClass, CursorPreparer preparer){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
+        query = withClientIdFilter(query);
         List<T> results;
-        if (query.isEmpty()) {
-            results = super.doFind(collectionName, collectionPreparer, tenantCriteria, fields, entityClass, preparer);
-        } else {
-            query.putAll(tenantCriteria);
+        long start = startOperation();
+        try {
             results = super.doFind(collectionName, collectionPreparer, query, fields, entityClass, preparer);
+        } catch (RuntimeException e) {
+            recordError(OPERATION_FIND, collectionName);
+            throw e;
         }
+        recordOperation(OPERATION_FIND, collectionName, start, results.size());
         return results;
     }
 
     @Override
     protected <T> T doFindAndRemove(CollectionPreparer collectionPreparer, String collectionName, Document query, Document fields, Document sort, @Nullable Collation collation, Class<T> entityClass){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
-        query.putAll(tenantCriteria);
-        return super.doFindAndRemove(collectionPreparer, collectionName, query, fields, sort, collation, entityClass);
+        query = withClientIdFilter(query);
+        long start = startOperation();
+        try {
+            T result = super.doFindAndRemove(collectionPreparer, collectionName, query, fields, sort, collation, entityClass);
+            recordOperation(OPERATION_FIND_AND_REMOVE, collectionName, start, result == null ? 0 : 1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_FIND_AND_REMOVE, collectionName);
+            throw e;
+        }
     }
 
     @Override
     protected <T> T doFindAndModify(CollectionPreparer collectionPreparer, String collectionName, Document query, Document fields, Document sort, Class<T> entityClass, UpdateDefinition update, @Nullable FindAndModifyOptions options){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
-        query.putAll(tenantCriteria);
-        return super.doFindAndModify(collectionPreparer, collectionName, query, fields, sort, entityClass, update, options);
+        query = withClientIdFilter(query);
+        long start = startOperation();
+        try {
+            T result = super.doFindAndModify(collectionPreparer, collectionName, query, fields, sort, entityClass, update, options);
+            recordOperation(OPERATION_FIND_AND_MODIFY, collectionName, start, result == null ? 0 : 1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_FIND_AND_MODIFY, collectionName);
+            throw e;
+        }
     }
 
     @Nullable
     @Override
     protected <T> T doFindAndReplace(CollectionPreparer collectionPreparer, String collectionName, Document mappedQuery, Document mappedFields, Document mappedSort, @Nullable com.mongodb.client.model.Collation collation, Class<?> entityType, Document replacement, FindAndReplaceOptions options, Class<T> resultType){
-        Document tenantCriteria = validateClientIdAndGetDocumentCriteria();
-        mappedQuery.putAll(tenantCriteria);
-        return super.doFindAndReplace(collectionPreparer, collectionName, mappedQuery, mappedFields, mappedSort, collation, entityType, replacement, options, resultType);
+        mappedQuery = withClientIdFilter(mappedQuery);
+        long start = startOperation();
+        try {
+            T result = super.doFindAndReplace(collectionPreparer, collectionName, mappedQuery, mappedFields, mappedSort, collation, entityType, replacement, options, resultType);
+            recordOperation(OPERATION_FIND_AND_REPLACE, collectionName, start, result == null ? 0 : 1);
+            return result;
+        } catch (RuntimeException e) {
+            recordError(OPERATION_FIND_AND_REPLACE, collectionName);
+            throw e;
+        }
     }
 
+    /**
+     * Find all documents of the current client. The {@value FIELD_CLIENT_ID} filter is sent to the server
+     * so only the current client's documents are read and mapped.
+     * Fails with {@link UnboundedResultSetException} once more than {@link #getMaxFindAllResults()} documents match,
+     * use {@link #streamAll(Class, String)} to read larger collections.
+     *
+     * @param entityClass    will never be {@literal null}
+     * @param collectionName will never be {@literal null}
+     */
     @Override
     public <T> List<T> findAll(Class<T> entityClass, String collectionName){
-        Integer clientId = validateClientId().clientId();
-        List<T> results = super.findAll(entityClass, collectionName);
-        final List<T> filteredResult = new ArrayList<>();
-        for (T result : results) {
-            if (!(result instanceof BaseClientAwareMongoModel baseClientAwareMongoModel)) {
-                throw new IllegalArgumentException("Model should be of type " + BaseClientAwareMongoModel.class + " .Provided " + result.getClass());
-            }
-            if (clientId.equals(baseClientAwareMongoModel.getClientId())) {
-                filteredResult.add(result);
-            }
+        Query query = new Query();
+        if (maxFindAllResults > 0) {
+            query.limit(maxFindAllResults + 1);
+        }
+        List<T> results = find(query, entityClass, collectionName);
+        if (maxFindAllResults > 0 && results.size() > maxFindAllResults) {
+            throw new UnboundedResultSetException("Query performed is not allowed. More than " + maxFindAllResults + " documents found in collection " + collectionName + ". Use streamAll instead");
+        }
+        return results;
+    }
+
+    /**
+     * Lazily read all documents of the current client backed by a server side cursor.
+     * The returned {@link Stream} has to be closed after use.
+     *
+     * @param entityClass    will never be {@literal null}
+     * @param collectionName will never be {@literal null}
+     */
+    public <T> Stream<T> streamAll(Class<T> entityClass, String collectionName){
+        return stream(new Query(), entityClass, collectionName);
+    }
+
+    /**
+     * @see #streamAll(Class, String)
+     */
+    public <T> Stream<T> streamAll(Class<T> entityClass){
+        return streamAll(entityClass, getCollectionName(entityClass));
+    }
+
+    /**
+     * {@link MongoTemplate#exists(Query, Class, String)} does not go through {@link #doFind}, the
+     * {@value FIELD_CLIENT_ID} criteria is added to the query instead
+     */
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public boolean exists(Query query, @Nullable Class<?> entityClass, String collectionName){
+        Assert.notNull(query, "Query must not be null");
+        Criteria criteria = validateClientIdAndGetCriteria();
+        query.addCriteria(criteria);
+        return super.exists(query, entityClass, collectionName);
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public <T> List<T> findDistinct(Query query, String field, String collectionName, Class<?> entityClass, Class<T> resultClass){
+        Assert.notNull(query, "Query must not be null");
+        Criteria criteria = validateClientIdAndGetCriteria();
+        query.addCriteria(criteria);
+        return super.findDistinct(query, field, collectionName, entityClass, resultClass);
+    }
+
+    @Override
+    @SuppressWarnings("ConstantConditions")
+    public <T> Window<T> scroll(Query query, Class<T> entityType, String collectionName){
+        Assert.notNull(query, "Query must not be null");
+        Criteria criteria = validateClientIdAndGetCriteria();
+        query.addCriteria(criteria);
+        return super.scroll(query, entityType, collectionName);
+    }
+
+    /**
+     * Count can not be estimated for a single client, so this always performs an exact count
+     * for the current client.
+     *
+     * @param collectionName will never be {@literal null}
+     */
+    @Override
+    public long estimatedCount(String collectionName){
+        return count(new Query(), collectionName);
+    }
+
+    /**
+     * Bulk operations are written without passing through this template, so neither restricted to nor stamped with
+     * the current client. Use {@link #bulkWriter(Class)} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, String collectionName){
+        throw bulkOpsNotAllowed();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always
+     * @see #bulkOps(BulkOperations.BulkMode, String)
+     */
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass){
+        throw bulkOpsNotAllowed();
+    }
+
+    /**
+     * @throws UnsupportedOperationException always
+     * @see #bulkOps(BulkOperations.BulkMode, String)
+     */
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, @Nullable Class<?> entityType, String collectionName){
+        throw bulkOpsNotAllowed();
+    }
+
+    /**
+     * Bulk operations for {@link ClientAwareBulkWriter}, which restricts and stamps every operation itself
+     */
+    BulkOperations unrestrictedBulkOps(BulkOperations.BulkMode mode, Class<?> entityClass, String collectionName){
+        return super.bulkOps(mode, entityClass, collectionName);
+    }
+
+    /**
+     * Batch writes of the current client into unordered bulk writes, flushed after
+     * {@value ClientAwareBulkWriter#DEFAULT_BATCH_SIZE} operations or one second.
+     * Use this instead of {@link #bulkOps(BulkOperations.BulkMode, Class)}, which is not allowed.
+     *
+     * @param entityClass will never be {@literal null}
+     */
+    public <T> ClientAwareBulkWriter<T> bulkWriter(Class<T> entityClass){
+        return bulkWriter(entityClass, ClientAwareBulkWriter.DEFAULT_BATCH_SIZE, ClientAwareBulkWriter.DEFAULT_FLUSH_INTERVAL);
+    }
+
+    /**
+     * @param entityClass   will never be {@literal null}
+     * @param batchSize     number of pending operations that triggers a bulk write
+     * @param flushInterval age of the oldest pending operation that triggers a bulk write
+     * @see #bulkWriter(Class)
+     */
+    public <T> ClientAwareBulkWriter<T> bulkWriter(Class<T> entityClass, int batchSize, Duration flushInterval){
+        return new ClientAwareBulkWriter<>(this, entityClass, getCollectionName(entityClass), batchSize, flushInterval);
+    }
+
+    /**
+     * Record latency, documents and errors of every operation per collection and client
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    @Nullable
+    public ClientOperationMetrics getMetrics(){
+        return metrics;
+    }
+
+    public int getMaxFindAllResults(){
+        return maxFindAllResults;
+    }
+
+    /**
+     * Set maximum number of documents {@link #findAll(Class, String)} may return.
+     * A value less than or equal to {@literal 0} disables the check.
+     *
+     * @param maxFindAllResults maximum number of documents
+     */
+    public void setMaxFindAllResults(int maxFindAllResults){
+        this.maxFindAllResults = maxFindAllResults;
+    }
+
+    private long startOperation(){
+        return metrics != null ? System.nanoTime() : 0L;
+    }
+
+    private void recordOperation(String operation, String collectionName, long start, long documents){
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.record(operation, collectionName, currentClientId(), System.nanoTime() - start, documents);
+        }
+    }
+
+    private void recordError(String operation, String collectionName){
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordError(operation, collectionName, currentClientId());
         }
-        return filteredResult;
     }
 
-    private <T> ClientUserAssociation validateModelAndClientId(T objectToSave){
+    @Nullable
+    private static Integer currentClientId(){
+        ClientUserAssociation association = ClientContext.get();
+        return association != null ? association.clientId() : null;
+    }
+
+    <T> ClientUserAssociation validateModelAndClientId(T objectToSave){
+        validateModel(objectToSave);
+        return validateClientId();
+    }
+
+    static void validateModel(Object objectToSave){
         if (!(objectToSave instanceof BaseClientAwareMongoModel)) {
             throw new IllegalArgumentException("Model should be of type " + BaseClientAwareMongoModel.class + " .Provided " + objectToSave.getClass());
         }
-        return validateClientId();
     }
 
-    private Criteria validateClientIdAndGetCriteria(){
-        int clientId = validateClientId().clientId();
-        return Criteria.where(FIELD_CLIENT_ID)
-                .is(clientId);
+    Criteria validateClientIdAndGetCriteria(){
+        return criteriaCache.get(validateClientId().clientId());
     }
 
-    private Document validateClientIdAndGetDocumentCriteria(){
-        int clientId = validateClientId().clientId();
-        return Query.query(Criteria.where(FIELD_CLIENT_ID)
-                        .is(clientId))
-                .getQueryObject();
+    /**
+     * Put the {@value FIELD_CLIENT_ID} predicate straight into an already mapped filter. Same result as merging
+     * {@code Query.query(Criteria.where(FIELD_CLIENT_ID).is(clientId)).getQueryObject()}, without building it.
+     * An empty filter may be the immutable empty document of Spring Data, a new filter is returned for it.
+     *
+     * @param filter will never be {@literal null}
+     */
+    private Document withClientIdFilter(Document filter){
+        Integer clientId = validateClientId().clientId();
+        if (filter.isEmpty()) {
+            return new Document(FIELD_CLIENT_ID, clientId);
+        }
+        filter.put(FIELD_CLIENT_ID, clientId);
+        return filter;
+    }
+
+    /**
+     * @see ClientAwarePipelineRewriter#rewrite(Aggregation, AggregationOperationContext, Integer)
+     */
+    private Aggregation validateClientIdAndGetAggregation(Aggregation aggregation, AggregationOperationContext context){
+        return ClientAwarePipelineRewriter.rewrite(aggregation, context, validateClientId().clientId());
+    }
+
+    static UnsupportedOperationException bulkOpsNotAllowed(){
+        return new UnsupportedOperationException("Query performed is not allowed. Bulk operations are not restricted to the current client");
     }
 
     private ClientUserAssociation validateClientId(){
@@ -259,18 +594,47 @@ public class ClientAwareMongoTemplate extends MongoTemplate {
         return association;
     }
 
-    private <T> void updateObjectToSaveWithClientId(T objectToSave, ClientUserAssociation association){
-        BaseClientAwareMongoModel baseClientAwareMongoModel = (BaseClientAwareMongoModel) objectToSave;
-        baseClientAwareMongoModel.setClientId(association.clientId());
-        if (StringUtils.hasText(association.username())) {
-            baseClientAwareMongoModel.setCreatedBy(association.username());
-            baseClientAwareMongoModel.setUpdatedBy(association.username());
-        } else {
-            baseClientAwareMongoModel.setCreatedBy(String.valueOf(association.clientId()));
-            baseClientAwareMongoModel.setUpdatedBy(String.valueOf(association.clientId()));
+    <T> void updateObjectToSaveWithClientId(T objectToSave, ClientUserAssociation association){
+        auditStamper.stampCreated((BaseClientAwareMongoModel) objectToSave, association, auditStamper.now());
+    }
+
+    /**
+     * @param update should be of type {@link Update}, it is copied and left unchanged
+     * @param upsert also set client id and created fields if the update inserts a document
+     * @return copy of {@literal update} also setting the updated fields of the current client
+     */
+    Update stampUpdate(UpdateDefinition update, boolean upsert){
+        if (!(update instanceof Update source)) {
+            throw new IllegalArgumentException("Update should be of type " + Update.class + " .Provided " + update.getClass());
+        }
+        ClientUserAssociation association = validateClientId();
+        String username = auditStamper.username(association);
+        ZonedDateTime now = auditStamper.now();
+        Document updateObject = new Document();
+        for (Map.Entry<String, Object> operation : source.getUpdateObject()
+                .entrySet()) {
+            updateObject.put(operation.getKey(), operation.getValue() instanceof Document fields ? new Document(fields) : operation.getValue());
+        }
+        Update stamped = Update.fromDocument(updateObject);
+        for (UpdateDefinition.ArrayFilter arrayFilter : source.getArrayFilters()) {
+            stamped.filterArray(new ArrayFilterCriteria(arrayFilter.asDocument()));
+        }
+        stamped.set(FIELD_UPDATED_AT, now)
+                .set(FIELD_UPDATED_BY, username);
+        if (upsert) {
+            stamped.setOnInsert(FIELD_CLIENT_ID, association.clientId())
+                    .setOnInsert(FIELD_CREATED_AT, now)
+                    .setOnInsert(FIELD_CREATED_BY, username);
+        }
+        return stamped;
+    }
+
+    private record ArrayFilterCriteria(Document getCriteriaObject) implements CriteriaDefinition {
+
+        @Nullable
+        @Override
+        public String getKey(){
+            return null;
         }
-        ZoneId zoneId = ZoneId.of(dateTimeFormatProperties.zone());
-        baseClientAwareMongoModel.setCreatedAt(ZonedDateTime.now(zoneId));
-        baseClientAwareMongoModel.setUpdatedAt(ZonedDateTime.now(zoneId));
     }
 }
@@ -0,0 +1,209 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.error.UnsafeAggregationPipelineException;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.FieldLookupPolicy;
+import org.springframework.data.mongodb.core.aggregation.TypeBasedAggregationOperationContext;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Restricts a rendered aggregation pipeline to a single client.
+ * <br></br>
+ * A {@literal $match} on {@value ClientAwareMongoTemplate#FIELD_CLIENT_ID} is put as the first stage, so
+ * every later stage only sees documents of the client and the {@literal client_id} index can be used.
+ * {@literal $geoNear} gets the filter merged into its {@literal query}, search stages get the {@literal $match}
+ * right after them. Sub-pipelines reading another collection ({@literal $lookup}, {@literal $unionWith},
+ * {@literal $graphLookup}) are restricted the same way and {@literal $facet} sub-pipelines are checked.
+ * Any stage not known to be safe is rejected with {@link UnsafeAggregationPipelineException}, among them
+ * {@literal $out} and {@literal $merge}: they write to a collection shared by all clients, {@literal $out} replaces
+ * documents of every client and {@literal $merge} matches documents of other clients.
+ * <br></br>
+ * Pipelines are rewritten once rendered, so stages of every kind, including ones rendering several stages,
+ * are seen as they are sent to the server.
+ *
+ * @author autonu2X
+ */
+final class ClientAwarePipelineRewriter {
+
+    private static final String GEO_NEAR = "$geoNear";
+    private static final String LOOKUP = "$lookup";
+    private static final String UNION_WITH = "$unionWith";
+    private static final String GRAPH_LOOKUP = "$graphLookup";
+    private static final String FACET = "$facet";
+    private static final String MATCH = "$match";
+    private static final String PIPELINE = "pipeline";
+    private static final Set<String> SEARCH_OPERATORS = Set.of("$search", "$searchMeta", "$vectorSearch");
+    private static final Set<String> SAFE_OPERATORS = Set.of("$addFields", "$bucket", "$bucketAuto", "$count", "$densify", "$fill", "$group", "$limit", "$match", "$project", "$redact", "$replaceRoot", "$replaceWith", "$sample", "$set", "$setWindowFields", "$skip", "$sort", "$sortByCount", "$unset", "$unwind");
+
+    private ClientAwarePipelineRewriter(){
+    }
+
+    /**
+     * Render {@literal aggregation} with {@literal context} and restrict the rendered pipeline to {@literal clientId}.
+     * The stages of the returned aggregation are already mapped and are not mapped again when it is run,
+     * the provided {@literal aggregation} is not modified. The input type of a {@link TypedAggregation} and
+     * the options, collation among them, are kept.
+     */
+    static Aggregation rewrite(Aggregation aggregation, AggregationOperationContext context, Integer clientId){
+        List<Document> pipeline = rewrite(aggregation.toPipeline(context), clientId);
+        List<AggregationOperation> stages = new ArrayList<>(pipeline.size());
+        for (Document stage : pipeline) {
+            stages.add(Aggregation.stage(stage));
+        }
+        if (aggregation instanceof TypedAggregation<?> typedAggregation) {
+            return Aggregation.newAggregation(typedAggregation.getInputType(), stages)
+                    .withOptions(aggregation.getOptions());
+        }
+        return Aggregation.newAggregation(stages)
+                .withOptions(aggregation.getOptions());
+    }
+
+    /**
+     * Context Spring Data renders {@literal aggregation} with if no context is provided
+     *
+     * @param inputType type the aggregation reads, ignored for a {@link TypedAggregation}
+     */
+    static AggregationOperationContext context(Aggregation aggregation, @Nullable Class<?> inputType, MongoConverter converter, QueryMapper queryMapper){
+        AggregationOptions.DomainTypeMapping domainTypeMapping = aggregation.getOptions()
+                .getDomainTypeMapping();
+        if (domainTypeMapping == AggregationOptions.DomainTypeMapping.NONE) {
+            return Aggregation.DEFAULT_CONTEXT;
+        }
+        FieldLookupPolicy lookupPolicy = domainTypeMapping == AggregationOptions.DomainTypeMapping.STRICT && !aggregation.getPipeline()
+                .containsUnionWith() ? FieldLookupPolicy.strict() : FieldLookupPolicy.relaxed();
+        Class<?> type = aggregation instanceof TypedAggregation<?> typedAggregation ? typedAggregation.getInputType() : inputType;
+        return new TypeBasedAggregationOperationContext(type != null ? type : Object.class, converter.getMappingContext(), queryMapper, lookupPolicy);
+    }
+
+    /**
+     * @param pipeline will never be {@literal null}
+     * @param clientId will never be {@literal null}
+     * @return new pipeline only reading documents of {@literal clientId}
+     */
+    static List<Document> rewrite(List<Document> pipeline, Integer clientId){
+        return restrict(pipeline, clientId);
+    }
+
+    /**
+     * Restrict a pipeline reading from a collection
+     */
+    private static List<Document> restrict(List<Document> pipeline, Integer clientId){
+        List<Document> rewritten = new ArrayList<>(pipeline.size() + 1);
+        int next = 0;
+        String firstOperator = pipeline.isEmpty() ? MATCH : operator(pipeline.get(0));
+        if (GEO_NEAR.equals(firstOperator)) {
+            Document geoNear = new Document((Document) pipeline.get(0)
+                    .get(GEO_NEAR));
+            geoNear.put("query", and(geoNear.get("query"), clientId));
+            rewritten.add(new Document(GEO_NEAR, geoNear));
+            next = 1;
+        } else if (SEARCH_OPERATORS.contains(firstOperator)) {
+            rewritten.add(pipeline.get(0));
+            rewritten.add(new Document(MATCH, filter(clientId)));
+            next = 1;
+        } else {
+            rewritten.add(new Document(MATCH, filter(clientId)));
+        }
+        for (int i = next; i < pipeline.size(); i++) {
+            rewritten.add(rewriteStage(pipeline.get(i), clientId));
+        }
+        return rewritten;
+    }
+
+    /**
+     * Check a pipeline working on already restricted documents
+     */
+    private static List<Document> check(List<Document> pipeline, Integer clientId){
+        List<Document> rewritten = new ArrayList<>(pipeline.size());
+        for (Document stage : pipeline) {
+            rewritten.add(rewriteStage(stage, clientId));
+        }
+        return rewritten;
+    }
+
+    private static Document rewriteStage(Document stage, Integer clientId){
+        String operator = operator(stage);
+        Object specification = stage.get(operator);
+        switch (operator) {
+            case LOOKUP -> {
+                Document lookup = new Document(document(operator, specification));
+                lookup.put(PIPELINE, restrict(pipeline(operator, lookup.get(PIPELINE)), clientId));
+                return new Document(LOOKUP, lookup);
+            }
+            case UNION_WITH -> {
+                Document unionWith = specification instanceof String collection ? new Document("coll", collection) : new Document(document(operator, specification));
+                unionWith.put(PIPELINE, restrict(pipeline(operator, unionWith.get(PIPELINE)), clientId));
+                return new Document(UNION_WITH, unionWith);
+            }
+            case GRAPH_LOOKUP -> {
+                Document graphLookup = new Document(document(operator, specification));
+                graphLookup.put("restrictSearchWithMatch", and(graphLookup.get("restrictSearchWithMatch"), clientId));
+                return new Document(GRAPH_LOOKUP, graphLookup);
+            }
+            case FACET -> {
+                Document facet = new Document();
+                for (Map.Entry<String, Object> entry : document(operator, specification).entrySet()) {
+                    facet.put(entry.getKey(), check(pipeline(operator, entry.getValue()), clientId));
+                }
+                return new Document(FACET, facet);
+            }
+            default -> {
+                if (!SAFE_OPERATORS.contains(operator)) {
+                    throw new UnsafeAggregationPipelineException("Aggregation performed is not allowed. Stage " + operator + " can not be restricted to client_id: " + clientId);
+                }
+                return stage;
+            }
+        }
+    }
+
+    private static String operator(Document stage){
+        if (stage.size() != 1) {
+            throw new UnsafeAggregationPipelineException("Aggregation performed is not allowed. Invalid stage: " + stage.toJson());
+        }
+        return stage.keySet()
+                .iterator()
+                .next();
+    }
+
+    private static Document filter(Integer clientId){
+        return new Document(ClientAwareMongoTemplate.FIELD_CLIENT_ID, clientId);
+    }
+
+    private static Document and(Object filter, Integer clientId){
+        if (filter == null) {
+            return filter(clientId);
+        }
+        return new Document("$and", List.of(filter, filter(clientId)));
+    }
+
+    private static Document document(String operator, Object specification){
+        if (!(specification instanceof Document document)) {
+            throw new UnsafeAggregationPipelineException("Aggregation performed is not allowed. Unsupported " + operator + " specification: " + specification);
+        }
+        return document;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Document> pipeline(String operator, Object pipeline){
+        if (pipeline == null) {
+            return List.of();
+        }
+        if (!(pipeline instanceof List<?> stages) || !stages.stream()
+                .allMatch(Document.class::isInstance)) {
+            throw new UnsafeAggregationPipelineException("Aggregation performed is not allowed. Unsupported " + operator + " pipeline: " + pipeline);
+        }
+        return (List<Document>) stages;
+    }
+}
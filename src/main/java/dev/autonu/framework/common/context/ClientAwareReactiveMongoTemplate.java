@@ -0,0 +1,313 @@
+package dev.autonu.framework.common.context;
+
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.InvalidMongoDbApiUsageException;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.*;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperationContext;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoWriter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+
+/**
+ * Reactive counterpart of {@link ClientAwareMongoTemplate}. The client is resolved from the Reactor Context
+ * of the subscription, see {@link ReactiveClientContext}, instead of {@link ClientContext}.
+ * Operations subscribed without a client fail with {@link InvalidClientUserAssociationException}.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareReactiveMongoTemplate extends ReactiveMongoTemplate {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareReactiveMongoTemplate.class);
+    private final AuditStamper auditStamper;
+    private final ClientCriteriaCache criteriaCache = new ClientCriteriaCache(ClientAwareMongoTemplate.FIELD_CLIENT_ID, ClientAwareMongoTemplate.DEFAULT_MAX_CACHED_CLIENT_CRITERIA);
+    private final QueryMapper aggregationQueryMapper = new QueryMapper(getConverter());
+
+    public ClientAwareReactiveMongoTemplate(MongoClient mongoClient, String databaseName, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoClient, databaseName, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareReactiveMongoTemplate(MongoClient mongoClient, String databaseName, AuditStamper auditStamper){
+        super(mongoClient, databaseName);
+        this.auditStamper = auditStamper;
+    }
+
+    public ClientAwareReactiveMongoTemplate(ReactiveMongoDatabaseFactory mongoDatabaseFactory, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoDatabaseFactory, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareReactiveMongoTemplate(ReactiveMongoDatabaseFactory mongoDatabaseFactory, AuditStamper auditStamper){
+        super(mongoDatabaseFactory);
+        this.auditStamper = auditStamper;
+    }
+
+    public ClientAwareReactiveMongoTemplate(ReactiveMongoDatabaseFactory mongoDatabaseFactory, @Nullable MongoConverter mongoConverter, DateTimeFormatProperties dateTimeFormatProperties){
+        this(mongoDatabaseFactory, mongoConverter, new AuditStamper(dateTimeFormatProperties));
+    }
+
+    public ClientAwareReactiveMongoTemplate(ReactiveMongoDatabaseFactory mongoDatabaseFactory, @Nullable MongoConverter mongoConverter, AuditStamper auditStamper){
+        super(mongoDatabaseFactory, mongoConverter);
+        this.auditStamper = auditStamper;
+    }
+
+    @Override
+    protected <T> Mono<T> doFindOne(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, @Nullable Document fields, Class<T> entityClass, FindPublisherPreparer preparer){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(query, context);
+            return super.doFindOne(collectionName, collectionPreparer, clientFilter, fields, entityClass, preparer);
+        });
+    }
+
+    @Override
+    protected <T> Flux<T> doFind(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, Class<T> entityClass){
+        return Flux.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(query, context);
+            return super.doFind(collectionName, collectionPreparer, clientFilter, fields, entityClass);
+        });
+    }
+
+    @Override
+    protected <T> Flux<T> doFind(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, Class<T> entityClass, FindPublisherPreparer preparer){
+        return Flux.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(query, context);
+            return super.doFind(collectionName, collectionPreparer, clientFilter, fields, entityClass, preparer);
+        });
+    }
+
+    /**
+     * Find all documents of the current client, the {@value ClientAwareMongoTemplate#FIELD_CLIENT_ID} filter is sent to the server
+     *
+     * @param entityClass    will never be {@literal null}
+     * @param collectionName will never be {@literal null}
+     */
+    @Override
+    public <T> Flux<T> findAll(Class<T> entityClass, String collectionName){
+        return find(new Query(), entityClass, collectionName);
+    }
+
+    @Override
+    public Mono<Boolean> exists(Query query, @Nullable Class<?> entityClass, String collectionName){
+        Assert.notNull(query, "Query must not be null");
+        return Mono.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.exists(query, entityClass, collectionName);
+        });
+    }
+
+    @Override
+    protected Mono<Long> doCount(String collectionName, Document filter, CountOptions options){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(filter, context);
+            return super.doCount(collectionName, clientFilter, options);
+        });
+    }
+
+    @Override
+    protected Mono<Long> doExactCount(String collectionName, Document filter, CountOptions options){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(filter, context);
+            return super.doExactCount(collectionName, clientFilter, options);
+        });
+    }
+
+    /**
+     * Count can not be estimated for a single client, so this always performs an exact count
+     * for the current client.
+     *
+     * @param collectionName will never be {@literal null}
+     */
+    @Override
+    public Mono<Long> estimatedCount(String collectionName){
+        return count(new Query(), collectionName);
+    }
+
+    @Override
+    public <T> Flux<T> findDistinct(Query query, String field, String collectionName, Class<?> entityClass, Class<T> resultClass){
+        Assert.notNull(query, "Query must not be null");
+        return Flux.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.findDistinct(query, field, collectionName, entityClass, resultClass);
+        });
+    }
+
+    @Override
+    public <T> Mono<Window<T>> scroll(Query query, Class<T> entityType, String collectionName){
+        Assert.notNull(query, "Query must not be null");
+        return Mono.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.scroll(query, entityType, collectionName);
+        });
+    }
+
+    @Override
+    public <T> Flux<T> tail(@Nullable Query query, Class<T> entityClass, String collectionName){
+        return super.tail(query != null ? query : new Query(), entityClass, collectionName);
+    }
+
+    /**
+     * Bulk operations are written without passing through this template, so neither restricted to nor stamped with
+     * the current client. Use {@link #insertAll(Collection)}, {@link #updateMulti(Query, UpdateDefinition, Class)}
+     * or {@link #remove(Query, Class)} instead.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public ReactiveBulkOperations bulkOps(BulkOperations.BulkMode mode, @Nullable Class<?> entityType, String collectionName){
+        throw ClientAwareMongoTemplate.bulkOpsNotAllowed();
+    }
+
+    /**
+     * @see ClientAwarePipelineRewriter#rewrite(Aggregation, AggregationOperationContext, Integer)
+     */
+    @Override
+    protected <O> Flux<O> doAggregate(Aggregation aggregation, String collectionName, @Nullable Class<?> inputType, Class<O> outputType){
+        Assert.notNull(aggregation, "Aggregation pipeline must not be null");
+        return Flux.deferContextual(context -> super.doAggregate(ClientAwarePipelineRewriter.rewrite(aggregation, ClientAwarePipelineRewriter.context(aggregation, inputType, getConverter(), aggregationQueryMapper), validateClientId(context).clientId()), collectionName, inputType, outputType));
+    }
+
+    @Override
+    protected <T> Mono<T> doFindAndRemove(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, Document sort, @Nullable Collation collation, Class<T> entityClass){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(query, context);
+            return super.doFindAndRemove(collectionName, collectionPreparer, clientFilter, fields, sort, collation, entityClass);
+        });
+    }
+
+    @Override
+    protected <T> Mono<T> doFindAndModify(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document query, Document fields, Document sort, Class<T> entityClass, UpdateDefinition update, FindAndModifyOptions options){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(query, context);
+            return super.doFindAndModify(collectionName, collectionPreparer, clientFilter, fields, sort, entityClass, update, options);
+        });
+    }
+
+    @Override
+    protected <T> Mono<T> doFindAndReplace(String collectionName, CollectionPreparer<MongoCollection<Document>> collectionPreparer, Document mappedQuery, Document mappedFields, Document mappedSort, com.mongodb.client.model.Collation collation, Class<?> entityType, Document replacement, FindAndReplaceOptions options, Class<T> resultType){
+        return Mono.deferContextual(context -> {
+            Document clientFilter = withClientIdFilter(mappedQuery, context);
+            return super.doFindAndReplace(collectionName, collectionPreparer, clientFilter, mappedFields, mappedSort, collation, entityType, replacement, options, resultType);
+        });
+    }
+
+    @Override
+    protected <T> Mono<T> doInsert(String collectionName, T objectToSave, MongoWriter<Object> writer){
+        return Mono.deferContextual(context -> {
+            validateModelAndUpdateObjectToSave(objectToSave, context, auditStamper.now());
+            return super.doInsert(collectionName, objectToSave, writer);
+        });
+    }
+
+    @Override
+    protected <T> Flux<T> doInsertBatch(String collectionName, Collection<? extends T> batchToSave, MongoWriter<Object> writer){
+        return Flux.deferContextual(context -> {
+            ZonedDateTime now = auditStamper.now();
+            for (T objectToSave : batchToSave) {
+                validateModelAndUpdateObjectToSave(objectToSave, context, now);
+            }
+            return super.doInsertBatch(collectionName, batchToSave, writer);
+        });
+    }
+
+    @Override
+    protected <T> Mono<T> doSave(String collectionName, T objectToSave, MongoWriter<Object> writer){
+        return Mono.deferContextual(context -> {
+            validateModelAndUpdateObjectToSave(objectToSave, context, auditStamper.now());
+            return super.doSave(collectionName, objectToSave, writer);
+        });
+    }
+
+    @Override
+    protected Mono<UpdateResult> doUpdate(String collectionName, Query query, @Nullable UpdateDefinition update, @Nullable Class<?> entityClass, boolean upsert, boolean multi){
+        Assert.notNull(query, "Query must not be null");
+        return Mono.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.doUpdate(collectionName, query, update, entityClass, upsert, multi);
+        });
+    }
+
+    @Override
+    protected <T> Mono<DeleteResult> doRemove(String collectionName, Query query, @Nullable Class<T> entityClass){
+        Assert.notNull(query, "Query must not be null");
+        return Mono.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.doRemove(collectionName, query, entityClass);
+        });
+    }
+
+    @Override
+    protected <S, T> Mono<UpdateResult> replace(Query query, Class<S> entityType, T replacement, ReplaceOptions options, String collectionName){
+        Assert.notNull(query, "Query must not be null");
+        return Mono.deferContextual(context -> {
+            addClientCriteria(query, context);
+            return super.replace(query, entityType, replacement, options, collectionName);
+        });
+    }
+
+    private void validateModelAndUpdateObjectToSave(Object objectToSave, ContextView context, ZonedDateTime now){
+        ClientAwareMongoTemplate.validateModel(objectToSave);
+        auditStamper.stampCreated((BaseClientAwareMongoModel) objectToSave, validateClientId(context), now);
+    }
+
+    /**
+     * A query is subscribed again on retry or repeat, the criteria of the same client is then already present
+     */
+    private void addClientCriteria(Query query, ContextView context){
+        Integer clientId = validateClientId(context).clientId();
+        try {
+            query.addCriteria(criteriaCache.get(clientId));
+        } catch (InvalidMongoDbApiUsageException e) {
+            if (!clientId.equals(query.getQueryObject()
+                    .get(ClientAwareMongoTemplate.FIELD_CLIENT_ID))) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * An empty filter may be the immutable empty document of Spring Data, a new filter is returned for it
+     */
+    private static Document withClientIdFilter(Document filter, ContextView context){
+        Integer clientId = validateClientId(context).clientId();
+        if (filter.isEmpty()) {
+            return new Document(ClientAwareMongoTemplate.FIELD_CLIENT_ID, clientId);
+        }
+        filter.put(ClientAwareMongoTemplate.FIELD_CLIENT_ID, clientId);
+        return filter;
+    }
+
+    private static ClientUserAssociation validateClientId(ContextView context){
+        ClientUserAssociation association = ReactiveClientContext.get(context)
+                .orElse(null);
+        if (association == null || association.clientId() == null) {
+            throw new InvalidClientUserAssociationException("Query performed is not allowed. Invalid client_id: null");
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Query is being performed by client_id: {}", association.clientId());
+        }
+        return association;
+    }
+}
@@ -0,0 +1,276 @@
+package dev.autonu.framework.common.context;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to replica pools and all other work to the primary {@link DataSource}.
+ * The physical connection is fetched lazily, so {@code @Transactional(readOnly = true)} is known when the
+ * pool is chosen, see {@link LazyConnectionDataSourceProxy}.
+ * <br></br>
+ * Every replica is a {@link ClientAwareDataSource}, so the client session variable is set on replica connections
+ * exactly like on primary connections. The replication lag of every replica is checked every
+ * {@link ClientAwareDataSourceProperties.Replicas#lagCheckInterval()}, a replica lagging behind more than
+ * {@link ClientAwareDataSourceProperties.Replicas#maxLag()} or failing the check is ejected until it catches up.
+ * Read-only transactions use the primary when all replicas are ejected.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareReplicaDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareReplicaDataSource.class);
+    private static final String REPLICATION_LAG_QUERY = "SELECT COALESCE(CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END, 0)";
+    private final DataSource primary;
+    private final ClientAwareDataSourceProperties.Replicas properties;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    @Nullable
+    private ScheduledExecutorService lagChecker;
+
+    public ClientAwareReplicaDataSource(DataSource primary, List<ClientAwareDataSource> replicas, ClientAwareDataSourceProperties.Replicas properties){
+        super(primary);
+        Assert.notEmpty(replicas, "Replicas must not be empty");
+        this.primary = primary;
+        this.properties = properties;
+        for (ClientAwareDataSource replica : replicas) {
+            this.replicas.add(new Replica(replica));
+        }
+        setReadOnlyDataSource(new ReplicaRouter());
+    }
+
+    /**
+     * Create one {@link ClientAwareDataSource} per url of {@link ClientAwareDataSourceProperties.Replicas#urls()}
+     *
+     * @param primary will never be {@literal null}
+     */
+    public static ClientAwareReplicaDataSource create(DataSource primary, ClientAwareDataSourceProperties dataSourceProperties){
+        ClientAwareDataSourceProperties.Replicas replicaProperties = dataSourceProperties.replicas();
+        List<ClientAwareDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.urls()
+                .size(); i++) {
+            ClientAwareDataSource replica = new ClientAwareDataSource(dataSourceProperties.sessionVariable());
+            replica.setJdbcUrl(replicaProperties.urls()
+                    .get(i));
+            replica.setUsername(dataSourceProperties.username());
+            replica.setPassword(dataSourceProperties.password());
+            replica.setPoolName("client-aware-replica-" + i);
+            replica.setMaximumPoolSize(replicaProperties.poolSize());
+            replica.setReadOnly(true);
+            if (dataSourceProperties.admission()
+                    .enabled()) {
+                int permits = dataSourceProperties.admission()
+                        .permits();
+                if (permits > 0) {
+                    replica.setAdmissionPermits(permits);
+                } else {
+                    replica.setAdmissionPermitsToPoolSize();
+                }
+            }
+            replicas.add(replica);
+        }
+        return new ClientAwareReplicaDataSource(primary, replicas, replicaProperties);
+    }
+
+    /**
+     * Start checking the replication lag of all replicas
+     */
+    public synchronized void start(){
+        if (lagChecker != null) {
+            return;
+        }
+        long interval = properties.lagCheckInterval()
+                .toMillis();
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "client-aware-replica-lag-checker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkLag, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Check the replication lag of all replicas once, eject replicas lagging behind more than
+     * {@link ClientAwareDataSourceProperties.Replicas#maxLag()} and restore replicas that caught up
+     */
+    public void checkLag(){
+        double maxLagSeconds = properties.maxLag()
+                .toNanos() / 1e9;
+        for (Replica replica : replicas) {
+            boolean ejected;
+            try {
+                replica.lagSeconds = replicationLag(replica.dataSource);
+                ejected = replica.lagSeconds > maxLagSeconds;
+            } catch (SQLException | RuntimeException e) {
+                replica.lagSeconds = Double.NaN;
+                ejected = true;
+                LOGGER.warn("Replication lag check of {} failed", replica.dataSource.getPoolName(), e);
+            }
+            if (ejected != replica.ejected) {
+                replica.ejected = ejected;
+                LOGGER.info("Replica {} {}, lag {}s", replica.dataSource.getPoolName(), ejected ? "ejected" : "restored", replica.lagSeconds);
+            }
+        }
+    }
+
+    /**
+     * Record connection acquisition time per client for all replica pools
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        for (Replica replica : replicas) {
+            replica.dataSource.setMetrics(metrics);
+        }
+    }
+
+    public DataSource getPrimaryDataSource(){
+        return primary;
+    }
+
+    /**
+     * @return number of replicas not ejected
+     */
+    public int getAvailableReplicas(){
+        int available = 0;
+        for (Replica replica : replicas) {
+            if (!replica.ejected) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    /**
+     * @return number of checkouts for which setting the session variable was skipped across all replica pools
+     */
+    public long getSkippedBindings(){
+        long skippedBindings = 0;
+        for (Replica replica : replicas) {
+            skippedBindings += replica.dataSource.getSkippedBindings();
+        }
+        return skippedBindings;
+    }
+
+    @Override
+    public synchronized void close() throws IOException{
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+            lagChecker = null;
+        }
+        for (Replica replica : replicas) {
+            replica.dataSource.close();
+        }
+        if (primary instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * @param replica will never be {@literal null}
+     * @return replication lag of {@literal replica} in seconds
+     */
+    protected double replicationLag(ClientAwareDataSource replica) throws SQLException{
+        try (Connection connection = replica.getConnection(); Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+            return resultSet.next() ? resultSet.getDouble(1) : 0;
+        }
+    }
+
+    /**
+     * @return replica for the next read-only transaction, {@literal null} if all replicas are ejected
+     */
+    @Nullable
+    ClientAwareDataSource selectReplica(){
+        return switch (properties.selection()) {
+            case ROUND_ROBIN -> nextReplica();
+            case LEAST_LOADED -> leastLoadedReplica();
+        };
+    }
+
+    @Nullable
+    private ClientAwareDataSource nextReplica(){
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.ejected) {
+                return replica.dataSource;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private ClientAwareDataSource leastLoadedReplica(){
+        Replica leastLoaded = null;
+        int leastLoad = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            if (replica.ejected) {
+                continue;
+            }
+            int load = replica.load();
+            if (load < leastLoad) {
+                leastLoaded = replica;
+                leastLoad = load;
+            }
+        }
+        return leastLoaded != null ? leastLoaded.dataSource : null;
+    }
+
+    private final class ReplicaRouter extends AbstractDataSource {
+
+        @Override
+        public Connection getConnection() throws SQLException{
+            ClientAwareDataSource replica = selectReplica();
+            if (replica == null) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("All replicas are ejected. Read-only transaction uses primary");
+                }
+                return primary.getConnection();
+            }
+            return replica.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException{
+            ClientAwareDataSource replica = selectReplica();
+            return replica != null ? replica.getConnection(username, password) : primary.getConnection(username, password);
+        }
+    }
+
+    private static final class Replica {
+
+        private final ClientAwareDataSource dataSource;
+        private volatile boolean ejected;
+        private volatile double lagSeconds;
+
+        private Replica(ClientAwareDataSource dataSource){
+            this.dataSource = dataSource;
+        }
+
+        private int load(){
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            return pool != null ? pool.getActiveConnections() + pool.getThreadsAwaitingConnection() : 0;
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package dev.autonu.framework.common.context;
 
 import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.slf4j.MDC;
 import org.springframework.lang.Nullable;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
 /**
+ * Current {@link ClientUserAssociation} of the thread. Bind a client for a block of work with
+ * <pre>
+ * try (ClientScope ignored = ClientContext.bind(association)) {
+ *     ...
+ * }
+ * </pre>
+ * and use the {@literal wrap} methods, {@link ClientContextTaskDecorator} or {@link ClientContextThreadLocalAccessor}
+ * to carry the client over to other threads.
+ * <br></br>
+ * The client id of the bound client is kept in the {@value #MDC_CLIENT_ID} MDC key, printed by the log pattern.
+ *
  * @author autonu2X
  */
-final class ClientContext {
+public final class ClientContext {
 
+    /**
+     * MDC key of the client id of the bound client
+     */
+    public static final String MDC_CLIENT_ID = "clientId";
     static final ThreadLocal<ClientUserAssociation> TENANT_CONTEXT = new ThreadLocal<>();
 
     private ClientContext() {
@@ -15,14 +35,81 @@ final class ClientContext {
 
     static void set(ClientUserAssociation clientUserAssociation) {
         TENANT_CONTEXT.set(clientUserAssociation);
+        if (clientUserAssociation.clientId() != null) {
+            MDC.put(MDC_CLIENT_ID, clientUserAssociation.clientId()
+                    .toString());
+        } else {
+            MDC.remove(MDC_CLIENT_ID);
+        }
     }
 
     @Nullable
-    static ClientUserAssociation get() {
+    public static ClientUserAssociation get() {
         return TENANT_CONTEXT.get();
     }
 
     static void clear() {
         TENANT_CONTEXT.remove();
+        MDC.remove(MDC_CLIENT_ID);
+    }
+
+    /**
+     * Bind {@literal clientUserAssociation} to the current thread until the returned scope is closed,
+     * the previously bound client is restored on close.
+     *
+     * @param clientUserAssociation {@literal null} unbinds the client for the scope
+     */
+    public static ClientScope bind(@Nullable ClientUserAssociation clientUserAssociation) {
+        ClientScope scope = new ClientScope(get());
+        if (clientUserAssociation == null) {
+            clear();
+        } else {
+            set(clientUserAssociation);
+        }
+        return scope;
+    }
+
+    /**
+     * @return {@literal runnable} running with the client bound at the time of wrapping
+     */
+    public static Runnable wrap(Runnable runnable) {
+        ClientUserAssociation association = get();
+        return () -> {
+            try (ClientScope ignored = bind(association)) {
+                runnable.run();
+            }
+        };
+    }
+
+    /**
+     * @return {@literal callable} running with the client bound at the time of wrapping
+     */
+    public static <V> Callable<V> wrap(Callable<V> callable) {
+        ClientUserAssociation association = get();
+        return () -> {
+            try (ClientScope ignored = bind(association)) {
+                return callable.call();
+            }
+        };
+    }
+
+    /**
+     * @return {@literal supplier} running with the client bound at the time of wrapping,
+     * for {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier)}
+     */
+    public static <V> Supplier<V> wrap(Supplier<V> supplier) {
+        ClientUserAssociation association = get();
+        return () -> {
+            try (ClientScope ignored = bind(association)) {
+                return supplier.get();
+            }
+        };
+    }
+
+    /**
+     * @return executor running every task with the client bound when the task is submitted
+     */
+    public static Executor wrap(Executor executor) {
+        return command -> executor.execute(wrap(command));
     }
 }
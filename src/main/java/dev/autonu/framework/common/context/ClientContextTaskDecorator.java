@@ -0,0 +1,17 @@
+package dev.autonu.framework.common.context;
+
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Runs tasks of Spring task executors, including {@literal @Async} methods, with the client of the submitting thread
+ *
+ * @author autonu2X
+ * @see ClientContext#wrap(Runnable)
+ */
+public class ClientContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable){
+        return ClientContext.wrap(runnable);
+    }
+}
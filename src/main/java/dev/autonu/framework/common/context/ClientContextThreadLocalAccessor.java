@@ -0,0 +1,38 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import io.micrometer.context.ThreadLocalAccessor;
+import org.springframework.lang.Nullable;
+
+/**
+ * Makes {@link ClientContext} known to Micrometer context propagation, so context snapshots, Reactor automatic
+ * context propagation and observation aware executors carry the client over. The key is {@link ReactiveClientContext#KEY},
+ * so the client of the thread ends up in the Reactor Context read by {@link ClientAwareReactiveMongoTemplate}.
+ * <br></br>
+ * Registered through {@literal META-INF/services/io.micrometer.context.ThreadLocalAccessor}.
+ *
+ * @author autonu2X
+ */
+public class ClientContextThreadLocalAccessor implements ThreadLocalAccessor<ClientUserAssociation> {
+
+    @Override
+    public Object key(){
+        return ReactiveClientContext.KEY;
+    }
+
+    @Nullable
+    @Override
+    public ClientUserAssociation getValue(){
+        return ClientContext.get();
+    }
+
+    @Override
+    public void setValue(ClientUserAssociation value){
+        ClientContext.set(value);
+    }
+
+    @Override
+    public void setValue(){
+        ClientContext.clear();
+    }
+}
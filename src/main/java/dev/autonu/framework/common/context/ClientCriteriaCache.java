@@ -0,0 +1,48 @@
+package dev.autonu.framework.common.context;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of the {@literal client_id} {@link Criteria} per client, so the criteria is built once per client
+ * instead of once per query. Cached criteria are never modified after they are built and can be shared between queries.
+ * <br></br>
+ * When the cache is full an arbitrary entry is evicted before a new client is added.
+ *
+ * @author autonu2X
+ */
+final class ClientCriteriaCache {
+
+    private final String field;
+    private final int maximumSize;
+    private final Map<Integer, Criteria> criteria = new ConcurrentHashMap<>();
+
+    ClientCriteriaCache(String field, int maximumSize){
+        this.field = field;
+        this.maximumSize = maximumSize;
+    }
+
+    Criteria get(Integer clientId){
+        Criteria cached = criteria.get(clientId);
+        if (cached != null) {
+            return cached;
+        }
+        if (criteria.size() >= maximumSize) {
+            Iterator<Integer> iterator = criteria.keySet()
+                    .iterator();
+            if (iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return criteria.computeIfAbsent(clientId, id -> Criteria.where(field)
+                .is(id));
+    }
+
+    int size(){
+        return criteria.size();
+    }
+}
@@ -0,0 +1,251 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientFairExecutorProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Executor keeping one queue per client, so a client submitting many tasks can not starve other clients.
+ * Workers take tasks from the client queues by deficit round robin: every turn a client may run as many tasks
+ * as its weight before the next client is served. Tasks run with the client bound that submitted them.
+ * <br></br>
+ * Tasks of a client are rejected with {@link RejectedExecutionException} once
+ * {@link ClientFairExecutorProperties#queueCapacity()} tasks of that client are queued.
+ *
+ * @author autonu2X
+ */
+public class ClientFairExecutor implements Executor, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientFairExecutor.class);
+    private static final String OPERATION_SUBMIT = "submit";
+    private static final String OPERATION_WAIT = "wait";
+    private static final String OPERATION_RUN = "run";
+    private final String name;
+    private final ClientFairExecutorProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final Map<Integer, ClientQueue> queues = new HashMap<>();
+    private final Deque<ClientQueue> activeQueues = new ArrayDeque<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private int queuedTasks;
+    private boolean shutdown;
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+
+    public ClientFairExecutor(String name, ClientFairExecutorProperties properties){
+        Assert.isTrue(properties.workers() > 0, "Workers must be greater than 0");
+        this.name = name;
+        this.properties = properties;
+    }
+
+    /**
+     * Start the worker threads. Tasks submitted before are queued.
+     */
+    public void start(){
+        lock.lock();
+        try {
+            if (!workers.isEmpty() || shutdown) {
+                return;
+            }
+            for (int i = 0; i < properties.workers(); i++) {
+                Thread worker = new Thread(this::work, name + "-" + i);
+                workers.add(worker);
+                worker.start();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Queue {@literal task} for the current client of {@link ClientContext}. Tasks without a client share one queue.
+     */
+    @Override
+    public void execute(Runnable task){
+        Assert.notNull(task, "Task must not be null");
+        ClientUserAssociation association = ClientContext.get();
+        Integer clientId = association != null ? association.clientId() : null;
+        lock.lock();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException(name + " is shut down");
+            }
+            ClientQueue queue = queues.computeIfAbsent(clientId, ClientQueue::new);
+            if (queue.tasks.size() >= properties.queueCapacity()) {
+                recordError(OPERATION_SUBMIT, clientId);
+                throw new RejectedExecutionException("Queue of client " + clientId + " is full. Capacity: " + properties.queueCapacity());
+            }
+            queue.tasks.addLast(new QueuedTask(task, association, System.nanoTime()));
+            queuedTasks++;
+            if (queue.tasks.size() == 1) {
+                activeQueues.addLast(queue);
+            }
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record time spent in queue and running per client
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * @return number of tasks queued for all clients
+     */
+    public int getQueuedTasks(){
+        lock.lock();
+        try {
+            return queuedTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param clientId {@literal null} for tasks submitted without a client
+     * @return number of tasks queued for {@literal clientId}
+     */
+    public int getQueuedTasks(@Nullable Integer clientId){
+        lock.lock();
+        try {
+            ClientQueue queue = queues.get(clientId);
+            return queue != null ? queue.tasks.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop accepting tasks. Queued tasks are still run, workers stop once all queues are empty.
+     */
+    @Override
+    public void close(){
+        lock.lock();
+        try {
+            shutdown = true;
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work(){
+        try {
+            QueuedTask task;
+            while ((task = next()) != null) {
+                run(task);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+
+    @Nullable
+    private QueuedTask next() throws InterruptedException{
+        lock.lock();
+        try {
+            while (activeQueues.isEmpty()) {
+                if (shutdown) {
+                    return null;
+                }
+                available.await();
+            }
+            ClientQueue queue = activeQueues.peekFirst();
+            if (queue.deficit < 1) {
+                queue.deficit += weight(queue.clientId);
+            }
+            QueuedTask task = queue.tasks.pollFirst();
+            queue.deficit--;
+            queuedTasks--;
+            if (queue.tasks.isEmpty()) {
+                activeQueues.pollFirst();
+                queues.remove(queue.clientId);
+            } else if (queue.deficit < 1) {
+                activeQueues.addLast(activeQueues.pollFirst());
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Any failure of a task, including an {@link Error}, is logged so the worker keeps serving the queues
+     */
+    private void run(QueuedTask task){
+        Integer clientId = task.association != null ? task.association.clientId() : null;
+        long start = System.nanoTime();
+        record(OPERATION_WAIT, clientId, start - task.queuedAt);
+        try (ClientScope ignored = ClientContext.bind(task.association)) {
+            task.runnable.run();
+            record(OPERATION_RUN, clientId, System.nanoTime() - start);
+        } catch (Throwable e) {
+            recordError(OPERATION_RUN, clientId);
+            LOGGER.error("Task of client {} failed", clientId, e);
+        }
+    }
+
+    private int weight(@Nullable Integer clientId){
+        if (clientId == null) {
+            return Math.max(1, properties.defaultWeight());
+        }
+        return Math.max(1, properties.weights()
+                .getOrDefault(clientId, properties.defaultWeight()));
+    }
+
+    private void record(String operation, @Nullable Integer clientId, long durationNanos){
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.record(operation, name, clientId, durationNanos, -1);
+        }
+    }
+
+    private void recordError(String operation, @Nullable Integer clientId){
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordError(operation, name, clientId);
+        }
+    }
+
+    private record QueuedTask(Runnable runnable, @Nullable ClientUserAssociation association, long queuedAt) {
+    }
+
+    private static final class ClientQueue {
+
+        @Nullable
+        private final Integer clientId;
+        private final Deque<QueuedTask> tasks = new ArrayDeque<>();
+        private int deficit;
+
+        private ClientQueue(@Nullable Integer clientId){
+            this.clientId = clientId;
+        }
+    }
+}
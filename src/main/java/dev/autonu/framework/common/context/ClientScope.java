@@ -0,0 +1,29 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.springframework.lang.Nullable;
+
+/**
+ * Binding of a client to the current thread created by {@link ClientContext#bind(ClientUserAssociation)}.
+ * Closing restores the client bound before, so scopes can be nested. Has to be closed on the thread that opened it.
+ *
+ * @author autonu2X
+ */
+public final class ClientScope implements AutoCloseable {
+
+    @Nullable
+    private final ClientUserAssociation previous;
+
+    ClientScope(@Nullable ClientUserAssociation previous){
+        this.previous = previous;
+    }
+
+    @Override
+    public void close(){
+        if (previous == null) {
+            ClientContext.clear();
+        } else {
+            ClientContext.set(previous);
+        }
+    }
+}
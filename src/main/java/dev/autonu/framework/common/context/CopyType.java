@@ -0,0 +1,141 @@
+package dev.autonu.framework.common.context;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * PostgreSQL column types written by {@link ClientAwareCopyLoader} in the binary {@literal COPY} format
+ *
+ * @author autonu2X
+ */
+public enum CopyType {
+
+    BOOLEAN {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(1);
+            out.writeByte((Boolean) value ? 1 : 0);
+        }
+    },
+    SMALLINT {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(2);
+            out.writeShort(((Number) value).shortValue());
+        }
+    },
+    INTEGER {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(4);
+            out.writeInt(((Number) value).intValue());
+        }
+    },
+    BIGINT {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(8);
+            out.writeLong(((Number) value).longValue());
+        }
+    },
+    REAL {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(4);
+            out.writeFloat(((Number) value).floatValue());
+        }
+    },
+    DOUBLE {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(8);
+            out.writeDouble(((Number) value).doubleValue());
+        }
+    },
+    /**
+     * {@literal text} and {@literal varchar}, any value is written as {@link String#valueOf(Object)}
+     */
+    TEXT {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            byte[] bytes = String.valueOf(value)
+                    .getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    },
+    UUID {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            java.util.UUID uuid = (java.util.UUID) value;
+            out.writeInt(16);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        }
+    },
+    /**
+     * {@literal timestamptz} from {@link Instant}, {@link OffsetDateTime} or {@link ZonedDateTime}
+     */
+    TIMESTAMPTZ {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            Instant instant;
+            if (value instanceof Instant i) {
+                instant = i;
+            } else if (value instanceof OffsetDateTime offsetDateTime) {
+                instant = offsetDateTime.toInstant();
+            } else if (value instanceof ZonedDateTime zonedDateTime) {
+                instant = zonedDateTime.toInstant();
+            } else {
+                throw new IllegalArgumentException("Unsupported timestamptz value " + value.getClass());
+            }
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, instant));
+        }
+    },
+    /**
+     * {@literal timestamp} from {@link LocalDateTime}
+     */
+    TIMESTAMP {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, ((LocalDateTime) value).toInstant(ZoneOffset.UTC)));
+        }
+    },
+    /**
+     * {@literal date} from {@link LocalDate}
+     */
+    DATE {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            out.writeInt(4);
+            out.writeInt((int) ChronoUnit.DAYS.between(POSTGRES_EPOCH_DATE, (LocalDate) value));
+        }
+    },
+    BYTEA {
+        @Override
+        void write(DataOutputStream out, Object value) throws IOException{
+            byte[] bytes = (byte[]) value;
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    };
+
+    private static final LocalDate POSTGRES_EPOCH_DATE = LocalDate.of(2000, 1, 1);
+    private static final Instant POSTGRES_EPOCH = POSTGRES_EPOCH_DATE.atStartOfDay(ZoneOffset.UTC)
+            .toInstant();
+
+    /**
+     * Write length and value of a non {@literal null} field
+     */
+    abstract void write(DataOutputStream out, Object value) throws IOException;
+}
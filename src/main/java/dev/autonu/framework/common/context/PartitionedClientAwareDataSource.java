@@ -0,0 +1,317 @@
+package dev.autonu.framework.common.context;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gives every client of {@link ClientAwareDataSourceProperties.Partition#dedicatedClientIds()} its own
+ * {@link ClientAwareDataSource}, so a single client can not use up the connections of all others.
+ * All other clients share one {@link ClientAwareDataSource}.
+ * <br></br>
+ * Dedicated pools are created on first use. When creating one would exceed
+ * {@link ClientAwareDataSourceProperties.Partition#maxConnections()}, the least recently used idle
+ * dedicated pool is closed. If no pool can be closed the client falls back to the shared pool.
+ * Pools unused for {@link ClientAwareDataSourceProperties.Partition#idleTimeout()} are closed by the checkout
+ * finding the last check older than half the idle timeout.
+ * <br></br>
+ * A connection is borrowed from a dedicated pool under a lease, a pool is only closed without leases and
+ * without active connections, and borrowers finding it closed fall back to the shared pool.
+ *
+ * @author autonu2X
+ */
+public class PartitionedClientAwareDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedClientAwareDataSource.class);
+    private final ClientAwareDataSourceProperties dataSourceProperties;
+    private final ClientAwareDataSourceProperties.Partition partition;
+    private final ClientAwareDataSource sharedDataSource;
+    private final Map<Integer, DedicatedDataSource> dedicatedDataSources = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder closedSkippedBindings = new LongAdder();
+    private final AtomicLong reportedSkippedBindings = new AtomicLong();
+    private volatile long nextIdleCheck;
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+
+    public PartitionedClientAwareDataSource(ClientAwareDataSourceProperties dataSourceProperties){
+        this.dataSourceProperties = dataSourceProperties;
+        this.partition = dataSourceProperties.partition();
+        this.sharedDataSource = createDataSource("shared", partition.sharedPoolSize());
+        this.nextIdleCheck = System.nanoTime() + idleCheckInterval();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException{
+        closeIdleDataSourcesIfDue();
+        DedicatedDataSource dedicatedDataSource = dedicatedDataSource();
+        if (dedicatedDataSource != null && dedicatedDataSource.lease()) {
+            try {
+                dedicatedDataSource.lastAccess = System.nanoTime();
+                return dedicatedDataSource.dataSource.getConnection();
+            } finally {
+                dedicatedDataSource.release();
+            }
+        }
+        return sharedDataSource.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException{
+        return sharedDataSource.getConnection(username, password);
+    }
+
+    /**
+     * Record connection acquisition time per client for the shared and all dedicated pools
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+        sharedDataSource.setMetrics(metrics);
+        for (DedicatedDataSource dedicatedDataSource : dedicatedDataSources.values()) {
+            dedicatedDataSource.dataSource.setMetrics(metrics);
+        }
+    }
+
+    public ClientAwareDataSource getSharedDataSource(){
+        return sharedDataSource;
+    }
+
+    /**
+     * @return number of checkouts for which setting the session variable was skipped across all pools,
+     * including closed dedicated pools, never decreasing
+     */
+    public long getSkippedBindings(){
+        long skippedBindings = sharedDataSource.getSkippedBindings() + closedSkippedBindings.sum();
+        for (DedicatedDataSource dedicatedDataSource : dedicatedDataSources.values()) {
+            skippedBindings += dedicatedDataSource.dataSource.getSkippedBindings();
+        }
+        return reportedSkippedBindings.accumulateAndGet(skippedBindings, Math::max);
+    }
+
+    /**
+     * @return number of open dedicated pools
+     */
+    int getDedicatedPools(){
+        return dedicatedDataSources.size();
+    }
+
+    @Override
+    public void close(){
+        lock.lock();
+        try {
+            for (DedicatedDataSource dedicatedDataSource : dedicatedDataSources.values()) {
+                dedicatedDataSource.leases.set(DedicatedDataSource.RETIRED);
+                dedicatedDataSource.dataSource.close();
+            }
+            dedicatedDataSources.clear();
+            sharedDataSource.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Create {@link ClientAwareDataSource} for one partition
+     *
+     * @param poolName        will never be {@literal null}
+     * @param maximumPoolSize maximum connections of the pool
+     */
+    protected ClientAwareDataSource createDataSource(String poolName, int maximumPoolSize){
+        ClientAwareDataSource dataSource = new ClientAwareDataSource(dataSourceProperties.sessionVariable());
+        dataSource.setJdbcUrl(dataSourceProperties.url());
+        dataSource.setUsername(dataSourceProperties.username());
+        dataSource.setPassword(dataSourceProperties.password());
+        dataSource.setPoolName("client-aware-" + poolName);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMinimumIdle(0);
+        dataSource.setMetrics(metrics);
+        if (dataSourceProperties.admission()
+                .enabled()) {
+            int permits = dataSourceProperties.admission()
+                    .permits();
+            if (permits > 0) {
+                dataSource.setAdmissionPermits(permits);
+            } else {
+                dataSource.setAdmissionPermitsToPoolSize();
+            }
+        }
+        return dataSource;
+    }
+
+    @Nullable
+    private DedicatedDataSource dedicatedDataSource(){
+        ClientUserAssociation association = ClientContext.get();
+        if (association == null || association.clientId() == null || !partition.dedicatedClientIds()
+                .contains(association.clientId())) {
+            return null;
+        }
+        DedicatedDataSource dedicatedDataSource = dedicatedDataSources.get(association.clientId());
+        if (dedicatedDataSource != null) {
+            return dedicatedDataSource;
+        }
+        return createDedicatedDataSource(association.clientId());
+    }
+
+    /**
+     * Closing pools blocks on I/O, so a {@link ReentrantLock} is used instead of {@literal synchronized}
+     * to not pin the carrier of a virtual thread.
+     */
+    @Nullable
+    private DedicatedDataSource createDedicatedDataSource(Integer clientId){
+        lock.lock();
+        try {
+            DedicatedDataSource dedicatedDataSource = dedicatedDataSources.get(clientId);
+            if (dedicatedDataSource != null) {
+                return dedicatedDataSource;
+            }
+            closeExpiredDataSources();
+            while (connectionBudget() < partition.dedicatedPoolSize()) {
+                if (!closeLeastRecentlyUsedDataSource()) {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Connection budget exhausted. Client {} uses shared pool", clientId);
+                    }
+                    return null;
+                }
+            }
+            dedicatedDataSource = new DedicatedDataSource(createDataSource(String.valueOf(clientId), partition.dedicatedPoolSize()));
+            dedicatedDataSources.put(clientId, dedicatedDataSource);
+            return dedicatedDataSource;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int connectionBudget(){
+        return partition.maxConnections() - partition.sharedPoolSize() - dedicatedDataSources.size() * partition.dedicatedPoolSize();
+    }
+
+    /**
+     * Runs on the thread of the checkout, skipped while another thread holds the lock
+     */
+    private void closeIdleDataSourcesIfDue(){
+        long now = System.nanoTime();
+        if (now - nextIdleCheck < 0 || dedicatedDataSources.isEmpty() || !lock.tryLock()) {
+            return;
+        }
+        try {
+            nextIdleCheck = now + idleCheckInterval();
+            closeExpiredDataSources();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private long idleCheckInterval(){
+        return partition.idleTimeout()
+                .toNanos() / 2;
+    }
+
+    private void closeExpiredDataSources(){
+        long now = System.nanoTime();
+        for (Map.Entry<Integer, DedicatedDataSource> entry : dedicatedDataSources.entrySet()) {
+            if (now - entry.getValue().lastAccess >= partition.idleTimeout()
+                    .toNanos()) {
+                closeDataSource(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Try idle pools from the least recently used one until one can be closed
+     */
+    private boolean closeLeastRecentlyUsedDataSource(){
+        List<Map.Entry<Integer, DedicatedDataSource>> candidates = new ArrayList<>(dedicatedDataSources.entrySet());
+        candidates.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+        for (Map.Entry<Integer, DedicatedDataSource> candidate : candidates) {
+            if (closeDataSource(candidate.getKey(), candidate.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return {@literal false} if the pool is in use and was left open
+     */
+    private boolean closeDataSource(Integer clientId, DedicatedDataSource dedicatedDataSource){
+        if (!dedicatedDataSource.retire()) {
+            return false;
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Closing connection pool of client {}", clientId);
+        }
+        dedicatedDataSources.remove(clientId, dedicatedDataSource);
+        dedicatedDataSource.dataSource.close();
+        closedSkippedBindings.add(dedicatedDataSource.dataSource.getSkippedBindings());
+        return true;
+    }
+
+    private static final class DedicatedDataSource {
+
+        private static final int RETIRED = -1;
+        private final ClientAwareDataSource dataSource;
+        /**
+         * Number of threads borrowing a connection, {@link #RETIRED} once the pool is closed
+         */
+        private final AtomicInteger leases = new AtomicInteger();
+        private volatile long lastAccess = System.nanoTime();
+
+        private DedicatedDataSource(ClientAwareDataSource dataSource){
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * @return {@literal false} if the pool is retired
+         */
+        private boolean lease(){
+            int current;
+            do {
+                current = leases.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+            } while (!leases.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        private void release(){
+            leases.decrementAndGet();
+        }
+
+        /**
+         * Retire the pool if it has no leases and no active connections. New leases are refused before the
+         * connections are checked, so a connection borrowed under an earlier lease is always seen as active.
+         */
+        private boolean retire(){
+            if (!leases.compareAndSet(0, RETIRED)) {
+                return false;
+            }
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool != null && (pool.getActiveConnections() > 0 || pool.getThreadsAwaitingConnection() > 0)) {
+                leases.set(0);
+                return false;
+            }
+            return true;
+        }
+    }
+}
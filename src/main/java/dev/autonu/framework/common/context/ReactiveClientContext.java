@@ -0,0 +1,50 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Holds the current {@link ClientUserAssociation} in the Reactor {@link Context} of a subscription,
+ * the reactive counterpart of {@link ClientContext}.
+ * <pre>
+ * template.find(query, Order.class)
+ *         .contextWrite(ReactiveClientContext.withClient(association));
+ * </pre>
+ *
+ * @author autonu2X
+ * @see ClientAwareReactiveMongoTemplate
+ */
+public final class ReactiveClientContext {
+
+    /**
+     * Key of the {@link ClientUserAssociation} in the Reactor {@link Context}
+     */
+    public static final String KEY = "dev.autonu.framework.common.client";
+
+    private ReactiveClientContext(){
+    }
+
+    /**
+     * @param clientUserAssociation will never be {@literal null}
+     * @return function to pass to {@literal contextWrite}
+     */
+    public static Function<Context, Context> withClient(ClientUserAssociation clientUserAssociation){
+        return context -> context.put(KEY, clientUserAssociation);
+    }
+
+    /**
+     * @return current client, empty if none is bound to the subscription
+     */
+    public static Mono<ClientUserAssociation> get(){
+        return Mono.deferContextual(context -> Mono.justOrEmpty(get(context)));
+    }
+
+    static Optional<ClientUserAssociation> get(ContextView context){
+        return context.getOrEmpty(KEY);
+    }
+}
@@ -0,0 +1,15 @@
+package dev.autonu.framework.common.error;
+
+/**
+ * @author autonu2X
+ */
+public class InvalidClientTokenException extends RuntimeException {
+
+    public InvalidClientTokenException(String message){
+        super(message);
+    }
+
+    public InvalidClientTokenException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
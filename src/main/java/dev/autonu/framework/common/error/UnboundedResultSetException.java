@@ -0,0 +1,16 @@
+package dev.autonu.framework.common.error;
+
+/**
+ * Thrown when a query without a limit would return more documents than allowed.
+ *
+ * @author autonu2X
+ */
+public class UnboundedResultSetException extends RuntimeException {
+
+    public UnboundedResultSetException(){
+    }
+
+    public UnboundedResultSetException(String message){
+        super(message);
+    }
+}
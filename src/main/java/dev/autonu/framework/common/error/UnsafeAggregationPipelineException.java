@@ -0,0 +1,16 @@
+package dev.autonu.framework.common.error;
+
+/**
+ * Thrown when an aggregation pipeline can not be restricted to the current client.
+ *
+ * @author autonu2X
+ */
+public class UnsafeAggregationPipelineException extends RuntimeException {
+
+    public UnsafeAggregationPipelineException(){
+    }
+
+    public UnsafeAggregationPipelineException(String message){
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * Receives the records of one client of a polled batch, see {@link ClientBatchMessageListener}
+ *
+ * @author autonu2X
+ */
+@FunctionalInterface
+public interface ClientBatchListener<K, V> {
+
+    /**
+     * Called with {@literal association} bound to {@link dev.autonu.framework.common.context.ClientContext}
+     *
+     * @param association {@literal null} for records without client headers
+     * @param records     records of {@literal association} in the order they were polled, will never be empty
+     */
+    void onClientBatch(@Nullable ClientUserAssociation association, List<ConsumerRecord<K, V>> records);
+}
@@ -0,0 +1,103 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups every polled batch by the {@link ClientUserAssociation} of the {@link ClientHeaders} and hands each group
+ * to a {@link ClientBatchListener} with the client bound to {@link ClientContext}, so the work of one client can be
+ * written in one batch. Records without client headers form one group with no client bound.
+ * <br></br>
+ * Groups are handed over in the order their first record was polled, records keep their polled order within
+ * a group. Records of one client sent by different users form separate groups, so audit fields name the right user.
+ * <br></br>
+ * When a group fails, a {@link BatchListenerFailedException} pointing at the first record of the group is thrown,
+ * so the error handler commits the records before it and redelivers the rest. Records of earlier groups polled
+ * after that record are redelivered as well.
+ * <pre>
+ * container.setupMessageListener(new ClientBatchMessageListener&lt;&gt;((association, records) -&gt; ...));
+ * </pre>
+ * In a batch {@literal @KafkaListener} use {@link #dispatch(List, ClientBatchListener)}.
+ *
+ * @author autonu2X
+ */
+public class ClientBatchMessageListener<K, V> implements BatchMessageListener<K, V> {
+
+    private final ClientBatchListener<K, V> delegate;
+
+    public ClientBatchMessageListener(ClientBatchListener<K, V> delegate){
+        Assert.notNull(delegate, "Delegate must not be null");
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void onMessage(List<ConsumerRecord<K, V>> records){
+        dispatch(records, delegate);
+    }
+
+    /**
+     * Group {@literal records} by client and call {@literal listener} once per group
+     *
+     * @throws BatchListenerFailedException if {@literal listener} fails for a group
+     */
+    public static <K, V> void dispatch(List<ConsumerRecord<K, V>> records, ClientBatchListener<K, V> listener){
+        for (ClientGroup<K, V> group : group(records)) {
+            try (ClientScope ignored = ClientContext.bind(group.association)) {
+                listener.onClientBatch(group.association, group.records);
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Records of client " + (group.association != null ? group.association.clientId() : null) + " failed", e, group.firstIndex);
+            }
+        }
+    }
+
+    /**
+     * {@link LinkedHashMap} allows the {@literal null} key of records without client, and keeps groups in polled order
+     */
+    static <K, V> List<ClientGroup<K, V>> group(List<ConsumerRecord<K, V>> records){
+        Map<ClientUserAssociation, ClientGroup<K, V>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<K, V> record = records.get(i);
+            ClientUserAssociation association = ClientHeaders.read(record.headers());
+            ClientGroup<K, V> group = groups.get(association);
+            if (group == null) {
+                group = new ClientGroup<>(association, i);
+                groups.put(association, group);
+            }
+            group.records.add(record);
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    static final class ClientGroup<K, V> {
+
+        @Nullable
+        private final ClientUserAssociation association;
+        private final int firstIndex;
+        private final List<ConsumerRecord<K, V>> records = new ArrayList<>();
+
+        private ClientGroup(@Nullable ClientUserAssociation association, int firstIndex){
+            this.association = association;
+            this.firstIndex = firstIndex;
+        }
+
+        @Nullable
+        ClientUserAssociation association(){
+            return association;
+        }
+
+        List<ConsumerRecord<K, V>> records(){
+            return records;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+
+/**
+ * Adds the {@link ClientUserAssociation} bound to {@link ClientContext} to the headers of every sent record,
+ * see {@link ClientHeaders}. Records already carrying a client id keep it. Kafka calls the interceptor on the
+ * thread calling {@literal send}, so the client of the sending thread is used.
+ * <br></br>
+ * Register with {@literal interceptor.classes} of the producer, done for the Spring Boot producer factory when
+ * {@literal common.starter.kafka.enabled} is set.
+ *
+ * @author autonu2X
+ */
+public class ClientContextProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record){
+        ClientUserAssociation association = ClientContext.get();
+        if (association != null) {
+            ClientHeaders.write(record.headers(), association);
+        }
+        return record;
+    }
+
+    @Override
+    public void onAcknowledgement(@Nullable RecordMetadata metadata, @Nullable Exception exception){
+    }
+
+    @Override
+    public void close(){
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs){
+    }
+}
@@ -0,0 +1,74 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.lang.Nullable;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Carries a {@link ClientUserAssociation} in Kafka record headers. Values are written as UTF-8 strings,
+ * so consumers not using the starter can read them.
+ *
+ * @author autonu2X
+ * @see ClientContextProducerInterceptor
+ * @see ClientBatchMessageListener
+ */
+public final class ClientHeaders {
+
+    public static final String CLIENT_ID = "x-client-id";
+    public static final String USER_ID = "x-user-id";
+    public static final String USERNAME = "x-username";
+
+    private ClientHeaders(){
+    }
+
+    /**
+     * Add the headers of {@literal association} unless {@literal headers} already carry a client id
+     *
+     * @return {@literal true} if headers were added
+     */
+    public static boolean write(Headers headers, ClientUserAssociation association){
+        if (association.clientId() == null || headers.lastHeader(CLIENT_ID) != null) {
+            return false;
+        }
+        headers.add(CLIENT_ID, bytes(association.clientId()
+                .toString()));
+        if (association.userId() != null) {
+            headers.add(USER_ID, bytes(association.userId()
+                    .toString()));
+        }
+        if (association.username() != null) {
+            headers.add(USERNAME, bytes(association.username()));
+        }
+        return true;
+    }
+
+    /**
+     * @return association carried by {@literal headers}, {@literal null} if there is no valid client id header
+     */
+    @Nullable
+    public static ClientUserAssociation read(Headers headers){
+        String clientId = value(headers, CLIENT_ID);
+        if (clientId == null) {
+            return null;
+        }
+        try {
+            String userId = value(headers, USER_ID);
+            return new ClientUserAssociation(Integer.valueOf(clientId), userId != null ? Long.valueOf(userId) : null, value(headers, USERNAME));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @Nullable
+    private static String value(Headers headers, String key){
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
+    private static byte[] bytes(String value){
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
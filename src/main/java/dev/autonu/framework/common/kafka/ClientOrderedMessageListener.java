@@ -0,0 +1,272 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientKafkaProperties;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.listener.AcknowledgingConsumerAwareMessageListener;
+import org.springframework.kafka.listener.AcknowledgingMessageListener;
+import org.springframework.kafka.listener.ConsumerAwareMessageListener;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Processes the records of one partition concurrently on {@literal executor}, one after another in offset order
+ * per {@link ClientKafkaProperties.Parallel#ordering()} key, so a slow key or client only holds up its own records.
+ * Records without key are not ordered. Every record runs with the client of its {@link ClientHeaders} bound to
+ * {@link ClientContext}.
+ * <br></br>
+ * Every record is acknowledged once processed, the container must use {@link ContainerProperties.AckMode#MANUAL}
+ * with async acks, see {@link #configure(ContainerProperties, ClientKafkaProperties.Parallel)}. The container then
+ * commits an offset only once all earlier records of the partition are acknowledged, so no unprocessed record is
+ * committed, and pauses all its partitions until every record of a poll is acknowledged. The records in flight
+ * are therefore bounded by one poll, {@link ClientKafkaProperties.Parallel#maxInFlight()} is applied as
+ * {@literal max.poll.records}. The consumer thread never waits.
+ * <br></br>
+ * Container error handlers do not see failed records. A record recoverer set with
+ * {@link #setErrorHandler(BiConsumer)}, for example a
+ * {@link org.springframework.kafka.listener.DeadLetterPublishingRecoverer}, gets the failed record instead.
+ * Without one, or if it fails as well, the record is logged. The failed record is acknowledged either way, as an
+ * unacknowledged record would keep the container paused for good.
+ * The delegate gets neither {@link Acknowledgment} nor {@link Consumer}.
+ *
+ * @author autonu2X
+ */
+public class ClientOrderedMessageListener<K, V> implements AcknowledgingMessageListener<K, V> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientOrderedMessageListener.class);
+    private static final String OPERATION_PROCESS = "process";
+    private static final Integer NO_CLIENT_ID = -1;
+    private final String name;
+    private final MessageListener<K, V> delegate;
+    private final Executor executor;
+    private final ClientKafkaProperties.Parallel properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Object, Lane> lanes = new HashMap<>();
+    @Nullable
+    private volatile BiConsumer<? super ConsumerRecord<K, V>, ? super Exception> errorHandler;
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+
+    public ClientOrderedMessageListener(String name, MessageListener<K, V> delegate, Executor executor, ClientKafkaProperties.Parallel properties){
+        Assert.isTrue(properties.maxInFlight() > 0, "Max in flight must be greater than 0");
+        this.name = name;
+        this.delegate = delegate;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    /**
+     * Let the container commit out of order acknowledgments once all earlier offsets are acknowledged, and poll
+     * at most {@link ClientKafkaProperties.Parallel#maxInFlight()} records at a time
+     */
+    public static void configure(ContainerProperties containerProperties, ClientKafkaProperties.Parallel properties){
+        containerProperties.setAckMode(ContainerProperties.AckMode.MANUAL);
+        containerProperties.setAsyncAcks(true);
+        containerProperties.getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(properties.maxInFlight()));
+    }
+
+    @Override
+    public void onMessage(ConsumerRecord<K, V> record, @Nullable Acknowledgment acknowledgment){
+        inFlight.incrementAndGet();
+        ClientUserAssociation association = ClientHeaders.read(record.headers());
+        Object laneKey = laneKey(record, association);
+        Lane lane;
+        boolean idle;
+        lock.lock();
+        try {
+            lane = lanes.computeIfAbsent(laneKey, Lane::new);
+            lane.tasks.addLast(new Task<>(record, association, acknowledgment));
+            idle = !lane.running;
+            lane.running = true;
+        } finally {
+            lock.unlock();
+        }
+        if (idle) {
+            schedule(lane);
+        }
+    }
+
+    /**
+     * @param errorHandler called with records the delegate failed for, {@literal null} only logs them
+     */
+    public void setErrorHandler(@Nullable BiConsumer<? super ConsumerRecord<K, V>, ? super Exception> errorHandler){
+        this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Record processing time per client
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    /**
+     * @return records received but not processed yet
+     */
+    public int getInFlight(){
+        return inFlight.get();
+    }
+
+    /**
+     * Run one record of {@literal lane} per task, so a lane with many records does not keep a thread of a fair
+     * executor. The task is handed over with the client of the record it processes bound, so a
+     * {@link dev.autonu.framework.common.context.ClientFairExecutor} queues it for that client.
+     * An executor rejecting the task makes the calling thread process the record.
+     */
+    private void schedule(Lane lane){
+        Task<K, V> next;
+        lock.lock();
+        try {
+            next = lane.tasks.peekFirst();
+        } finally {
+            lock.unlock();
+        }
+        try (ClientScope ignored = ClientContext.bind(next != null ? next.association : null)) {
+            executor.execute(() -> process(lane));
+            return;
+        } catch (RejectedExecutionException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Executor rejected record of listener {}, processing on the calling thread", name);
+            }
+        }
+        process(lane);
+    }
+
+    private void process(Lane lane){
+        Task<K, V> task;
+        lock.lock();
+        try {
+            task = lane.tasks.pollFirst();
+        } finally {
+            lock.unlock();
+        }
+        if (task != null) {
+            process(task);
+        }
+        boolean more;
+        lock.lock();
+        try {
+            more = !lane.tasks.isEmpty();
+            if (!more) {
+                lane.running = false;
+                lanes.remove(lane.key);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (more) {
+            schedule(lane);
+        }
+    }
+
+    private void process(Task<K, V> task){
+        Integer clientId = task.association != null ? task.association.clientId() : null;
+        long start = System.nanoTime();
+        try (ClientScope ignored = ClientContext.bind(task.association)) {
+            invokeDelegate(task.record);
+            ClientOperationMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.record(OPERATION_PROCESS, name, clientId, System.nanoTime() - start, 1);
+            }
+        } catch (RuntimeException e) {
+            ClientOperationMetrics metrics = this.metrics;
+            if (metrics != null) {
+                metrics.recordError(OPERATION_PROCESS, name, clientId);
+            }
+            handleError(task.record, e);
+        }
+        try {
+            if (task.acknowledgment != null) {
+                task.acknowledgment.acknowledge();
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void invokeDelegate(ConsumerRecord<K, V> record){
+        if (delegate instanceof AcknowledgingConsumerAwareMessageListener<?, ?>) {
+            ((AcknowledgingConsumerAwareMessageListener<K, V>) delegate).onMessage(record, null, null);
+        } else if (delegate instanceof ConsumerAwareMessageListener<?, ?>) {
+            ((ConsumerAwareMessageListener<K, V>) delegate).onMessage(record, (Consumer<?, ?>) null);
+        } else if (delegate instanceof AcknowledgingMessageListener<?, ?>) {
+            ((AcknowledgingMessageListener<K, V>) delegate).onMessage(record, (Acknowledgment) null);
+        } else {
+            delegate.onMessage(record);
+        }
+    }
+
+    private void handleError(ConsumerRecord<K, V> record, RuntimeException exception){
+        BiConsumer<? super ConsumerRecord<K, V>, ? super Exception> errorHandler = this.errorHandler;
+        if (errorHandler == null) {
+            LOGGER.error("Processing of record {}-{}@{} failed, it is skipped", record.topic(), record.partition(), record.offset(), exception);
+            return;
+        }
+        try {
+            errorHandler.accept(record, exception);
+        } catch (RuntimeException e) {
+            LOGGER.error("Error handler failed for record {}-{}@{}, it is skipped", record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+
+    /**
+     * Key bytes are compared by content, records without key get a lane of their own
+     */
+    private Object laneKey(ConsumerRecord<K, V> record, @Nullable ClientUserAssociation association){
+        if (properties.ordering() == ClientKafkaProperties.Parallel.Ordering.CLIENT) {
+            return association != null && association.clientId() != null ? association.clientId() : NO_CLIENT_ID;
+        }
+        Object key = record.key();
+        if (key == null) {
+            return new Object();
+        }
+        return new PartitionKey(record.topic(), record.partition(), key instanceof byte[] bytes ? ByteBuffer.wrap(bytes) : key);
+    }
+
+    private record PartitionKey(String topic, int partition, Object key) {
+    }
+
+    private record Task<K, V>(ConsumerRecord<K, V> record, @Nullable ClientUserAssociation association, @Nullable Acknowledgment acknowledgment) {
+    }
+
+    private final class Lane {
+
+        private final Object key;
+        private final Deque<Task<K, V>> tasks = new ArrayDeque<>();
+        private boolean running;
+
+        private Lane(Object key){
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package dev.autonu.framework.common.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import dev.autonu.framework.common.properties.ClientAsyncLoggingProperties;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes events to the attached appender on a background thread, buffered in the bounded array backed queue of
+ * {@link AsyncAppender}. What happens to an event logged while the queue is full is decided by
+ * {@link ClientAsyncLoggingProperties.FullPolicy}, events are never dropped before the queue is full.
+ * <br></br>
+ * The MDC, and so the client id of {@link dev.autonu.framework.common.context.ClientContext}, is captured
+ * on the logging thread.
+ *
+ * @author autonu2X
+ */
+public class ClientAsyncAppender extends AsyncAppender {
+
+    private final ClientAsyncLoggingProperties.FullPolicy fullPolicy;
+    private final LongAdder dropped = new LongAdder();
+
+    public ClientAsyncAppender(ClientAsyncLoggingProperties.FullPolicy fullPolicy){
+        this.fullPolicy = fullPolicy;
+        setDiscardingThreshold(0);
+        setNeverBlock(false);
+    }
+
+    @Override
+    protected void append(ILoggingEvent event){
+        if (fullPolicy == ClientAsyncLoggingProperties.FullPolicy.DROP_DEBUG && getRemainingCapacity() == 0 && event.getLevel()
+                .toInt() <= Level.DEBUG_INT) {
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    /**
+     * @return number of events dropped because the queue was full
+     */
+    public long getDropped(){
+        return dropped.sum();
+    }
+
+    /**
+     * @return number of events waiting to be written
+     */
+    public int getQueueDepth(){
+        return getNumberOfElementsInQueue();
+    }
+}
@@ -0,0 +1,90 @@
+package dev.autonu.framework.common.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AsyncAppenderBase;
+import dev.autonu.framework.common.properties.ClientAsyncLoggingProperties;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationPreparedEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Wraps every appender of the root logger in a {@link ClientAsyncAppender} once the logging system is initialized.
+ * Registered by {@link dev.autonu.framework.common.bootstrap.LogPatternAutoConfigPostProcessor} if
+ * {@link ClientAsyncLoggingProperties#enabled()}. Appenders which are asynchronous already are left as they are.
+ *
+ * @author autonu2X
+ */
+public class ClientAsyncLoggingListener implements ApplicationListener<ApplicationPreparedEvent> {
+
+    /**
+     * Prefix of the name of an asynchronous appender, followed by the name of the wrapped appender
+     */
+    public static final String APPENDER_NAME_PREFIX = "CLIENT_ASYNC_";
+    private final ClientAsyncLoggingProperties properties;
+
+    public ClientAsyncLoggingListener(ClientAsyncLoggingProperties properties){
+        this.properties = properties;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationPreparedEvent event){
+        ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+        if (loggerFactory instanceof LoggerContext loggerContext) {
+            install(loggerContext, properties);
+        }
+    }
+
+    /**
+     * @return appenders installed, none if all appenders of the root logger are asynchronous already
+     */
+    public static List<ClientAsyncAppender> install(LoggerContext loggerContext, ClientAsyncLoggingProperties properties){
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        List<ClientAsyncAppender> installed = new ArrayList<>();
+        for (Appender<ILoggingEvent> appender : rootAppenders(loggerContext)) {
+            if (appender instanceof AsyncAppenderBase<?>) {
+                continue;
+            }
+            ClientAsyncAppender asyncAppender = new ClientAsyncAppender(properties.fullPolicy());
+            asyncAppender.setName(APPENDER_NAME_PREFIX + appender.getName());
+            asyncAppender.setContext(loggerContext);
+            asyncAppender.setQueueSize(properties.queueSize());
+            asyncAppender.setIncludeCallerData(properties.includeCallerData());
+            asyncAppender.setMaxFlushTime((int) properties.maxFlushTime()
+                    .toMillis());
+            asyncAppender.addAppender(appender);
+            asyncAppender.start();
+            root.addAppender(asyncAppender);
+            root.detachAppender(appender);
+            installed.add(asyncAppender);
+        }
+        return installed;
+    }
+
+    /**
+     * @return appenders of the root logger installed by {@link #install(LoggerContext, ClientAsyncLoggingProperties)}
+     */
+    public static List<ClientAsyncAppender> installed(LoggerContext loggerContext){
+        List<ClientAsyncAppender> installed = new ArrayList<>();
+        for (Appender<ILoggingEvent> appender : rootAppenders(loggerContext)) {
+            if (appender instanceof ClientAsyncAppender asyncAppender) {
+                installed.add(asyncAppender);
+            }
+        }
+        return installed;
+    }
+
+    private static List<Appender<ILoggingEvent>> rootAppenders(LoggerContext loggerContext){
+        List<Appender<ILoggingEvent>> appenders = new ArrayList<>();
+        loggerContext.getLogger(Logger.ROOT_LOGGER_NAME)
+                .iteratorForAppenders()
+                .forEachRemaining(appenders::add);
+        return appenders;
+    }
+}
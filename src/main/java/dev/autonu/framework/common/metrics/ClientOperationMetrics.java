@@ -0,0 +1,244 @@
+package dev.autonu.framework.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.lang.Nullable;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Records latency, number of documents and errors of client-aware operations tagged by
+ * {@literal operation}, target (collection, pool, executor, limiter or cache) and {@literal client}.
+ * <br></br>
+ * Only the first {@literal maxClientTags} clients seen get their own {@literal client} tag, whether or not they are
+ * the busiest ones, every later client is recorded as {@value OTHER_CLIENT}. Operations without a client are recorded
+ * as {@value NO_CLIENT}. Meters are created once per tag combination and looked up
+ * without allocating afterwards.
+ *
+ * @author autonu2X
+ */
+public class ClientOperationMetrics {
+
+    public static final String MONGO_PREFIX = "common.starter.mongo";
+    public static final String MONGO_TARGET_TAG = "collection";
+    public static final String DATASOURCE_PREFIX = "common.starter.datasource";
+    public static final String DATASOURCE_TARGET_TAG = "pool";
+    public static final String EXECUTOR_PREFIX = "common.starter.executor";
+    public static final String EXECUTOR_TARGET_TAG = "executor";
+    public static final String WEB_PREFIX = "common.starter.web";
+    public static final String WEB_TARGET_TAG = "limiter";
+    public static final String CACHE_PREFIX = "common.starter.cache";
+    public static final String CACHE_TARGET_TAG = "cache";
+    public static final String KAFKA_PREFIX = "common.starter.kafka";
+    public static final String KAFKA_TARGET_TAG = "listener";
+    protected static final String OTHER_CLIENT = "other";
+    protected static final String NO_CLIENT = "none";
+    private final MeterRegistry registry;
+    private final String prefix;
+    private final String targetTag;
+    private final int maxClientTags;
+    private final Map<Integer, String> clientTags = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<String, OperationMeters>>> meters = new ConcurrentHashMap<>();
+    private final Map<OtherCounterKey, OtherCounter> otherCounters = new ConcurrentHashMap<>();
+
+    public ClientOperationMetrics(MeterRegistry registry, String prefix, String targetTag, int maxClientTags){
+        this.registry = registry;
+        this.prefix = prefix;
+        this.targetTag = targetTag;
+        this.maxClientTags = maxClientTags;
+    }
+
+    /**
+     * Record a successful operation
+     *
+     * @param operation     will never be {@literal null}
+     * @param target        will never be {@literal null}
+     * @param clientId      client performing the operation
+     * @param durationNanos duration of the operation
+     * @param documents     number of documents read or written, negative if unknown
+     */
+    public void record(String operation, String target, @Nullable Integer clientId, long durationNanos, long documents){
+        OperationMeters operationMeters = meters(operation, target, clientId);
+        operationMeters.timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        if (documents >= 0) {
+            operationMeters.documents.record(documents);
+        }
+    }
+
+    /**
+     * Record a failed operation
+     *
+     * @param operation will never be {@literal null}
+     * @param target    will never be {@literal null}
+     * @param clientId  client performing the operation
+     */
+    public void recordError(String operation, String target, @Nullable Integer clientId){
+        meters(operation, target, clientId).errors.increment();
+    }
+
+    /**
+     * Register a gauge {@literal <prefix>.<name>} for one client. Not registered for clients beyond
+     * {@literal maxClientTags}, as gauges of different clients can not be summed up into {@value OTHER_CLIENT}.
+     *
+     * @param name     will never be {@literal null}
+     * @param target   will never be {@literal null}
+     * @param clientId client the gauge belongs to
+     * @param state    object the gauge reads, held weakly by the registry
+     * @return {@literal true} if the gauge was registered
+     */
+    public <T> boolean gauge(String name, String target, @Nullable Integer clientId, T state, ToDoubleFunction<T> value){
+        String client = clientTag(clientId);
+        if (OTHER_CLIENT.equals(client)) {
+            return false;
+        }
+        Gauge.builder(prefix + "." + name, state, value)
+                .tag(targetTag, target)
+                .tag("client", client)
+                .register(registry);
+        return true;
+    }
+
+    /**
+     * Register a counter {@literal <prefix>.<name>} for one client, reading a monotonically increasing count from
+     * {@literal state}. Counts of clients beyond {@literal maxClientTags} are summed up into one
+     * {@value OTHER_CLIENT} counter, which holds {@literal state} strongly.
+     *
+     * @param tags additional tag keys and values
+     * @return {@literal true} if the client got a counter of its own
+     */
+    public <T> boolean counter(String name, String target, @Nullable Integer clientId, T state, ToDoubleFunction<T> count, String... tags){
+        String client = clientTag(clientId);
+        if (OTHER_CLIENT.equals(client)) {
+            otherCounters.computeIfAbsent(new OtherCounterKey(name, target, List.of(tags)), key -> registerOtherCounter(key.name, key.target, tags))
+                    .add(state, () -> count.applyAsDouble(state));
+            return false;
+        }
+        FunctionCounter.builder(prefix + "." + name, state, count)
+                .tag(targetTag, target)
+                .tag("client", client)
+                .tags(tags)
+                .register(registry);
+        return true;
+    }
+
+    /**
+     * Stop reading {@literal state} registered with {@link #counter} for a client summed up into {@value OTHER_CLIENT},
+     * its last count stays part of the {@value OTHER_CLIENT} counter. Call it once the client is dropped, so the
+     * {@value OTHER_CLIENT} counter does not hold the state of every client ever seen.
+     */
+    public void release(Object state){
+        for (OtherCounter otherCounter : otherCounters.values()) {
+            otherCounter.release(state);
+        }
+    }
+
+    private OtherCounter registerOtherCounter(String name, String target, String... tags){
+        OtherCounter otherCounter = new OtherCounter();
+        FunctionCounter.builder(prefix + "." + name, otherCounter, OtherCounter::sum)
+                .tag(targetTag, target)
+                .tag("client", OTHER_CLIENT)
+                .tags(tags)
+                .register(registry);
+        return otherCounter;
+    }
+
+    private OperationMeters meters(String operation, String target, @Nullable Integer clientId){
+        String client = clientTag(clientId);
+        Map<String, Map<String, OperationMeters>> metersByTarget = meters.get(operation);
+        if (metersByTarget == null) {
+            metersByTarget = meters.computeIfAbsent(operation, key -> new ConcurrentHashMap<>());
+        }
+        Map<String, OperationMeters> metersByClient = metersByTarget.get(target);
+        if (metersByClient == null) {
+            metersByClient = metersByTarget.computeIfAbsent(target, key -> new ConcurrentHashMap<>());
+        }
+        OperationMeters operationMeters = metersByClient.get(client);
+        if (operationMeters == null) {
+            operationMeters = metersByClient.computeIfAbsent(client, key -> new OperationMeters(operation, target, key));
+        }
+        return operationMeters;
+    }
+
+    private String clientTag(@Nullable Integer clientId){
+        if (clientId == null) {
+            return NO_CLIENT;
+        }
+        String client = clientTags.get(clientId);
+        if (client != null) {
+            return client;
+        }
+        if (clientTags.size() >= maxClientTags) {
+            return OTHER_CLIENT;
+        }
+        return clientTags.computeIfAbsent(clientId, String::valueOf);
+    }
+
+    private record OtherCounterKey(String name, String target, List<String> tags) {
+    }
+
+    /**
+     * Sum of the counts of all clients recorded as {@value OTHER_CLIENT}, keeping the last count of released states
+     */
+    private static final class OtherCounter {
+
+        private final Map<Object, DoubleSupplier> counts = new IdentityHashMap<>();
+        private double released;
+
+        private synchronized void add(Object state, DoubleSupplier count){
+            counts.put(state, count);
+        }
+
+        private synchronized void release(Object state){
+            DoubleSupplier count = counts.remove(state);
+            if (count != null) {
+                released += count.getAsDouble();
+            }
+        }
+
+        private synchronized double sum(){
+            double sum = released;
+            for (DoubleSupplier count : counts.values()) {
+                sum += count.getAsDouble();
+            }
+            return sum;
+        }
+    }
+
+    private final class OperationMeters {
+
+        private final Timer timer;
+        private final DistributionSummary documents;
+        private final Counter errors;
+
+        private OperationMeters(String operation, String target, String client){
+            this.timer = Timer.builder(prefix + ".operations")
+                    .description("Latency of client-aware operations")
+                    .tag("operation", operation)
+                    .tag(targetTag, target)
+                    .tag("client", client)
+                    .register(registry);
+            this.documents = DistributionSummary.builder(prefix + ".documents")
+                    .description("Documents read or written by client-aware operations")
+                    .tag("operation", operation)
+                    .tag(targetTag, target)
+                    .tag("client", client)
+                    .register(registry);
+            this.errors = Counter.builder(prefix + ".errors")
+                    .description("Failed client-aware operations")
+                    .tag("operation", operation)
+                    .tag(targetTag, target)
+                    .tag("client", client)
+                    .register(registry);
+        }
+    }
+}
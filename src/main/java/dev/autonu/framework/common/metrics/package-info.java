@@ -0,0 +1,7 @@
+/**
+ * @author autonu2X
+ */
+@NonNullApi
+package dev.autonu.framework.common.metrics;
+
+import org.springframework.lang.NonNullApi;
@@ -10,7 +10,7 @@ import java.time.ZonedDateTime;
  * @author autonu2X
  */
 @MappedSuperclass
-abstract class AbstractClientAwareModel<ID> {
+public abstract class AbstractClientAwareModel<ID> {
 
     protected Integer clientId;
     protected String createdBy;
@@ -1,19 +1,19 @@
 package dev.autonu.framework.common.model;
 
-import dev.autonu.framework.common.context.ClientAwareModelListener;
 import jakarta.persistence.*;
 
 import java.io.Serializable;
-import java.time.ZonedDateTime;
 
 /**
  * This class has to extended by any other entity class.
+ * <br></br>
+ * Ids are generated by an identity column, which makes Hibernate insert every row on its own.
+ * Extend {@link BaseSequenceClientAwareModel} for entities inserted in bulk.
  *
  * @author autonu2X
  */
 @MappedSuperclass
-@EntityListeners(ClientAwareModelListener.class)
-public class BaseClientAwareModel<ID extends Serializable> extends AbstractClientAwareModel<ID> {
+public class BaseClientAwareModel<ID extends Serializable> extends ClientAwareEntity<ID> {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,52 +26,4 @@ public class BaseClientAwareModel<ID extends Serializable> extends AbstractClien
     public void setId(ID id){
         this.id = id;
     }
-
-    @Column(name = "client_id")
-    public Integer getClientId(){
-        return clientId;
-    }
-
-    public void setClientId(Integer clientId){
-        this.clientId = clientId;
-    }
-
-    @Column(name = "created_at", updatable = false)
-    public ZonedDateTime getCreatedAt(){
-        return createdAt;
-    }
-
-    public void setCreatedAt(ZonedDateTime createdAt){
-        this.createdAt = createdAt;
-    }
-
-    @Column(name = "updated_at")
-    public ZonedDateTime getUpdatedAt(){
-        return updatedAt;
-    }
-
-    public void setUpdatedAt(ZonedDateTime updatedAt){
-        this.updatedAt = updatedAt;
-    }
-
-    @Column(name = "created_by")
-    public String getCreatedBy(){
-        return createdBy;
-    }
-
-    public void setCreatedBy(String createdBy){
-        this.createdBy = createdBy;
-    }
-
-    @Column(name = "updated_by")
-    public String getUpdatedBy(){
-        return updatedBy;
-    }
-
-    public void setUpdatedBy(String updatedBy){
-        this.updatedBy = updatedBy;
-    }
-
-    @Version
-    private Integer version;
 }
@@ -0,0 +1,31 @@
+package dev.autonu.framework.common.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Client-aware entity with ids taken from a database sequence, so Hibernate can batch inserts.
+ * Hibernate uses the sequence {@literal <EntityName>_SEQ}, named after the entity and not its table, and fetches 50 ids
+ * per round trip, the sequence must be created with the same increment. For the entity {@literal Order}:
+ * <pre>
+ * create sequence order_seq increment by 50;
+ * </pre>
+ * The optimizer handing out the fetched ids is Hibernate's default unless set by {@literal common.starter.jpa.id-optimizer}.
+ *
+ * @author autonu2X
+ * @see dev.autonu.framework.common.properties.ClientAwareJpaProperties
+ */
+@MappedSuperclass
+public class BaseSequenceClientAwareModel extends ClientAwareEntity<Long> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    private Long id;
+
+    public Long getId(){
+        return id;
+    }
+
+    public void setId(Long id){
+        this.id = id;
+    }
+}
@@ -0,0 +1,69 @@
+package dev.autonu.framework.common.model;
+
+import dev.autonu.framework.common.context.ClientAwareModelListener;
+import jakarta.persistence.Column;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
+
+import java.io.Serializable;
+import java.time.ZonedDateTime;
+
+/**
+ * Client and audit columns shared by all client-aware entities, subclasses only map the id.
+ * Extend {@link BaseClientAwareModel} or {@link BaseSequenceClientAwareModel} instead of this class.
+ *
+ * @author autonu2X
+ */
+@MappedSuperclass
+@EntityListeners(ClientAwareModelListener.class)
+public abstract class ClientAwareEntity<ID extends Serializable> extends AbstractClientAwareModel<ID> {
+
+    @Column(name = "client_id")
+    public Integer getClientId(){
+        return clientId;
+    }
+
+    public void setClientId(Integer clientId){
+        this.clientId = clientId;
+    }
+
+    @Column(name = "created_at", updatable = false)
+    public ZonedDateTime getCreatedAt(){
+        return createdAt;
+    }
+
+    public void setCreatedAt(ZonedDateTime createdAt){
+        this.createdAt = createdAt;
+    }
+
+    @Column(name = "updated_at")
+    public ZonedDateTime getUpdatedAt(){
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(ZonedDateTime updatedAt){
+        this.updatedAt = updatedAt;
+    }
+
+    @Column(name = "created_by")
+    public String getCreatedBy(){
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy){
+        this.createdBy = createdBy;
+    }
+
+    @Column(name = "updated_by")
+    public String getUpdatedBy(){
+        return updatedBy;
+    }
+
+    public void setUpdatedBy(String updatedBy){
+        this.updatedBy = updatedBy;
+    }
+
+    @Version
+    private Integer version;
+}
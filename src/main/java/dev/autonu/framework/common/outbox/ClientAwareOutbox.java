@@ -0,0 +1,88 @@
+package dev.autonu.framework.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientOutboxProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import java.util.regex.Pattern;
+
+/**
+ * Writes events of the current client to the outbox table in the current transaction, so an event is stored
+ * if and only if the change it describes is committed. {@link ClientAwareOutboxRelay} publishes stored events to Kafka.
+ * <br></br>
+ * The table needs the following columns, row level security must not be enabled for it:
+ * <pre>
+ * CREATE TABLE client_outbox (
+ *     id             bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+ *     client_id      integer      NOT NULL,
+ *     user_id        bigint,
+ *     created_by     varchar(255) NOT NULL,
+ *     created_at     timestamptz  NOT NULL,
+ *     topic          varchar(255) NOT NULL,
+ *     message_key    varchar(255),
+ *     aggregate_type varchar(255) NOT NULL,
+ *     event_type     varchar(64)  NOT NULL,
+ *     payload        text         NOT NULL
+ * );
+ * </pre>
+ *
+ * @author autonu2X
+ * @see ClientAwareOutboxListener
+ */
+public class ClientAwareOutbox {
+
+    static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*)?");
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuditStamper auditStamper;
+    private final ClientOutboxProperties properties;
+    private final String insertStatement;
+
+    public ClientAwareOutbox(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, AuditStamper auditStamper, ClientOutboxProperties properties){
+        Assert.isTrue(IDENTIFIER.matcher(properties.table())
+                .matches(), "Invalid table name: " + properties.table());
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.auditStamper = auditStamper;
+        this.properties = properties;
+        this.insertStatement = "INSERT INTO " + properties.table() + " (client_id, user_id, created_by, created_at, topic, message_key, aggregate_type, event_type, payload) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    }
+
+    /**
+     * Store an event of the current client of {@link ClientContext}
+     *
+     * @param aggregateType selects the topic, see {@link ClientOutboxProperties#topics()}
+     * @param aggregateId   key of the Kafka record, events of one aggregate keep their order
+     * @param eventType     for example {@literal created}
+     * @param payload       serialized to JSON
+     * @throws IllegalStateException if no transaction is active
+     */
+    public void publish(String aggregateType, @Nullable Object aggregateId, String eventType, Object payload){
+        Assert.state(TransactionSynchronizationManager.isActualTransactionActive(), "Outbox events must be written in a transaction");
+        ClientUserAssociation association = ClientContext.get();
+        if (association == null || association.clientId() == null) {
+            throw new InvalidClientUserAssociationException("Invalid clientUserAssociation: " + association);
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Payload of " + aggregateType + " can not be serialized", e);
+        }
+        jdbcTemplate.update(insertStatement, association.clientId(), association.userId(), auditStamper.username(association), auditStamper.now()
+                .toOffsetDateTime(), topic(aggregateType), aggregateId != null ? aggregateId.toString() : null, aggregateType, eventType, json);
+    }
+
+    private String topic(String aggregateType){
+        return properties.topics()
+                .getOrDefault(aggregateType, properties.defaultTopic());
+    }
+}
@@ -0,0 +1,56 @@
+package dev.autonu.framework.common.outbox;
+
+import dev.autonu.framework.common.model.ClientAwareEntity;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Stores a {@literal created}, {@literal updated} or {@literal deleted} event in the {@link ClientAwareOutbox}
+ * for every change of an entity, in the transaction of the change. Opt in per entity next to
+ * {@link dev.autonu.framework.common.context.ClientAwareModelListener}:
+ * <pre>
+ * &#64;Entity
+ * &#64;EntityListeners(ClientAwareOutboxListener.class)
+ * public class Order extends BaseClientAwareModel&lt;Long&gt; {
+ * </pre>
+ * The aggregate type is the simple class name, the aggregate id the entity id and the payload the entity
+ * serialized to JSON, so lazy associations should be excluded from serialization.
+ * Hibernate creates the listener through the Spring bean container.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareOutboxListener {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    private final ClientAwareOutbox outbox;
+
+    public ClientAwareOutboxListener(ClientAwareOutbox outbox){
+        this.outbox = outbox;
+    }
+
+    @PostPersist
+    public void postPersist(Object entity){
+        publish(entity, CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity){
+        publish(entity, UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity){
+        publish(entity, DELETED);
+    }
+
+    private void publish(Object entity, String eventType){
+        if (!(entity instanceof ClientAwareEntity<?> clientAwareEntity)) {
+            throw new IllegalArgumentException("Model should be of type " + ClientAwareEntity.class + " .Provided " + entity.getClass());
+        }
+        outbox.publish(entity.getClass()
+                .getSimpleName(), clientAwareEntity.getId(), eventType, entity);
+    }
+}
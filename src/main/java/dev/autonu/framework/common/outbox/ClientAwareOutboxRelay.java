@@ -0,0 +1,216 @@
+package dev.autonu.framework.common.outbox;
+
+import dev.autonu.framework.common.kafka.ClientHeaders;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientOutboxProperties;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes the events of the {@link ClientAwareOutbox} to Kafka. Every batch is claimed, sent and deleted in one
+ * transaction: up to {@link ClientOutboxProperties.Relay#batchSize()} rows are deleted with
+ * {@literal FOR UPDATE SKIP LOCKED}, sent in id order and the transaction is committed once Kafka acknowledged all
+ * of them. A failed send rolls the deletion back, so the batch is sent again, events are published at least once.
+ * <br></br>
+ * Several relays can drain one table, each claims other rows. Events of one aggregate are only guaranteed to keep
+ * their order with a single relay, disable {@link ClientOutboxProperties.Relay#enabled()} in all other applications
+ * if order matters.
+ * <br></br>
+ * Records carry the {@link ClientHeaders} of the client that stored the event, and the aggregate and event type.
+ *
+ * @author autonu2X
+ */
+public class ClientAwareOutboxRelay implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientAwareOutboxRelay.class);
+    public static final String AGGREGATE_TYPE_HEADER = "x-aggregate-type";
+    public static final String EVENT_TYPE_HEADER = "x-event-type";
+    private static final RowMapper<OutboxEvent> EVENT_MAPPER = (resultSet, rowNum) -> new OutboxEvent(resultSet.getLong("id"), resultSet.getInt("client_id"), resultSet.getObject("user_id", Long.class), resultSet.getString("created_by"), resultSet.getObject("created_at", OffsetDateTime.class), resultSet.getString("topic"), resultSet.getString("message_key"), resultSet.getString("aggregate_type"), resultSet.getString("event_type"), resultSet.getString("payload"));
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ClientOutboxProperties.Relay properties;
+    private final String claimStatement;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private volatile double lagSeconds;
+    @Nullable
+    private Thread worker;
+    private volatile boolean running;
+
+    public ClientAwareOutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, KafkaTemplate<String, String> kafkaTemplate, ClientOutboxProperties properties){
+        Assert.isTrue(ClientAwareOutbox.IDENTIFIER.matcher(properties.table())
+                .matches(), "Invalid table name: " + properties.table());
+        Assert.isTrue(properties.relay()
+                .batchSize() > 0, "Batch size must be greater than 0");
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.properties = properties.relay();
+        this.claimStatement = "WITH batch AS (SELECT id FROM " + properties.table() + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) DELETE FROM " + properties.table() + " outbox USING batch WHERE outbox.id = batch.id "
+                + "RETURNING outbox.id, outbox.client_id, outbox.user_id, outbox.created_by, outbox.created_at, outbox.topic, outbox.message_key, outbox.aggregate_type, outbox.event_type, outbox.payload";
+    }
+
+    /**
+     * Event stored in the outbox
+     */
+    public record OutboxEvent(long id, int clientId, @Nullable Long userId, String createdBy, OffsetDateTime createdAt, String topic, @Nullable String key, String aggregateType, String eventType, String payload) {
+    }
+
+    /**
+     * Start draining the outbox on a daemon thread
+     */
+    public synchronized void start(){
+        if (worker != null) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drain, "client-outbox-relay");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Claim, publish and delete one batch
+     *
+     * @return number of events published
+     */
+    public int relayBatch(){
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = new ArrayList<>(jdbcTemplate.query(claimStatement, EVENT_MAPPER, properties.batchSize()));
+            if (events.isEmpty()) {
+                lagSeconds = 0;
+                return 0;
+            }
+            events.sort(Comparator.comparingLong(OutboxEvent::id));
+            send(events);
+            lagSeconds = Duration.between(events.get(0)
+                            .createdAt(), OffsetDateTime.now())
+                    .toMillis() / 1000.0;
+            return events.size();
+        });
+        int count = relayed != null ? relayed : 0;
+        published.add(count);
+        return count;
+    }
+
+    /**
+     * @return number of events published
+     */
+    public long getPublished(){
+        return published.sum();
+    }
+
+    /**
+     * @return number of batches rolled back
+     */
+    public long getFailedBatches(){
+        return failedBatches.sum();
+    }
+
+    /**
+     * @return age of the oldest event of the last batch when it was published, {@literal 0} once the outbox is drained
+     */
+    public double getLagSeconds(){
+        return lagSeconds;
+    }
+
+    @Override
+    public void close(){
+        Thread worker;
+        synchronized (this) {
+            running = false;
+            worker = this.worker;
+            this.worker = null;
+        }
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    private void drain(){
+        while (running) {
+            try {
+                if (relayBatch() < properties.batchSize()) {
+                    Thread.sleep(properties.pollInterval()
+                            .toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+                return;
+            } catch (RuntimeException e) {
+                failedBatches.increment();
+                LOGGER.warn("Publishing outbox batch failed, retrying in {}", properties.pollInterval(), e);
+                try {
+                    Thread.sleep(properties.pollInterval()
+                            .toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread()
+                            .interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Hand all records to the producer before waiting, so they are sent in few compressed Kafka batches
+     */
+    private void send(List<OutboxEvent> events){
+        List<CompletableFuture<SendResult<String, String>>> results = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            results.add(kafkaTemplate.send(record(event)));
+        }
+        kafkaTemplate.flush();
+        try {
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new))
+                    .get(properties.sendTimeout()
+                            .toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+            throw new IllegalStateException("Interrupted while publishing outbox batch", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Publishing outbox batch of " + events.size() + " events failed", e);
+        }
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Published outbox events {} to {}", events.get(0)
+                    .id(), events.get(events.size() - 1)
+                    .id());
+        }
+    }
+
+    private static ProducerRecord<String, String> record(OutboxEvent event){
+        ProducerRecord<String, String> record = new ProducerRecord<>(event.topic(), event.key(), event.payload());
+        ClientHeaders.write(record.headers(), new ClientUserAssociation(event.clientId(), event.userId(), event.createdBy()));
+        record.headers()
+                .add(AGGREGATE_TYPE_HEADER, event.aggregateType()
+                        .getBytes(StandardCharsets.UTF_8));
+        record.headers()
+                .add(EVENT_TYPE_HEADER, event.eventType()
+                        .getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,43 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Appenders of the root logger write events on a background thread, so a slow disk does not slow down the
+ * logging threads. Events are buffered in a bounded queue of {@literal queueSize} events.
+ *
+ * @param enabled           wrap the appenders of the root logger, logback only
+ * @param queueSize         maximum events waiting to be written
+ * @param fullPolicy        what happens to an event logged while the queue is full
+ * @param includeCallerData capture the calling method on the logging thread, needed by {@literal %M} of the log pattern
+ * @param maxFlushTime      maximum time waited for queued events to be written on shutdown
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.logging.async")
+public record ClientAsyncLoggingProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_QUEUE_SIZE) int queueSize,
+        @DefaultValue(DEFAULT_FULL_POLICY) FullPolicy fullPolicy,
+        @DefaultValue("true") boolean includeCallerData,
+        @DefaultValue(DEFAULT_MAX_FLUSH_TIME) Duration maxFlushTime) {
+
+    public static final String DEFAULT_QUEUE_SIZE = "8192";
+
+    public static final String DEFAULT_FULL_POLICY = "DROP_DEBUG";
+
+    public static final String DEFAULT_MAX_FLUSH_TIME = "1s";
+
+    public enum FullPolicy {
+        /**
+         * Drop {@literal DEBUG} and {@literal TRACE} events, wait for free space with all others
+         */
+        DROP_DEBUG,
+        /**
+         * Wait for free space, no event is lost
+         */
+        BLOCK
+    }
+}
@@ -1,11 +1,158 @@
 package dev.autonu.framework.common.properties;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 
 /**
  * @author autonu2X
  */
 
 @ConfigurationProperties(prefix = "common.starter.datasource")
-public record ClientAwareDataSourceProperties(String url, String username, String password, String sessionVariable) {
+public record ClientAwareDataSourceProperties(String url, String username, String password, String sessionVariable, Partition partition, Autotune autotune, Admission admission, Replicas replicas) {
+
+    /**
+     * Dedicated connection pools for {@literal dedicatedClientIds}, all other clients share one pool.
+     *
+     * @param enabled            enable partitioned connection pools
+     * @param dedicatedClientIds clients getting their own connection pool
+     * @param dedicatedPoolSize  maximum connections of a dedicated pool
+     * @param sharedPoolSize     maximum connections of the shared pool
+     * @param maxConnections     maximum connections of all pools together
+     * @param idleTimeout        time after which an unused dedicated pool is closed
+     */
+    public record Partition(
+            boolean enabled,
+            @DefaultValue Set<Integer> dedicatedClientIds,
+            @DefaultValue(DEFAULT_DEDICATED_POOL_SIZE) int dedicatedPoolSize,
+            @DefaultValue(DEFAULT_SHARED_POOL_SIZE) int sharedPoolSize,
+            @DefaultValue(DEFAULT_MAX_CONNECTIONS) int maxConnections,
+            @DefaultValue(DEFAULT_IDLE_TIMEOUT) Duration idleTimeout) {
+
+        public static final String DEFAULT_DEDICATED_POOL_SIZE = "5";
+
+        public static final String DEFAULT_SHARED_POOL_SIZE = "10";
+
+        public static final String DEFAULT_MAX_CONNECTIONS = "50";
+
+        public static final String DEFAULT_IDLE_TIMEOUT = "10m";
+    }
+
+    /**
+     * Resize the connection pool at runtime based on connection acquisition time and utilization.
+     * Not applied to dedicated pools of {@link Partition}.
+     *
+     * @param enabled               enable pool autotuning
+     * @param minPoolSize           lower bound of maximum pool size
+     * @param maxPoolSize           upper bound of maximum pool size
+     * @param interval              time between two samples
+     * @param targetAcquisitionTime average connection acquisition time above which the pool grows
+     * @param shrinkUtilization     ratio of active to maximum connections below which the pool shrinks
+     * @param stableSamples         consecutive samples needed before the pool grows, shrinking needs twice as many
+     */
+    public record Autotune(
+            boolean enabled,
+            @DefaultValue(DEFAULT_MIN_POOL_SIZE) int minPoolSize,
+            @DefaultValue(DEFAULT_MAX_POOL_SIZE) int maxPoolSize,
+            @DefaultValue(DEFAULT_INTERVAL) Duration interval,
+            @DefaultValue(DEFAULT_TARGET_ACQUISITION_TIME) Duration targetAcquisitionTime,
+            @DefaultValue(DEFAULT_SHRINK_UTILIZATION) double shrinkUtilization,
+            @DefaultValue(DEFAULT_STABLE_SAMPLES) int stableSamples) {
+
+        public static final String DEFAULT_MIN_POOL_SIZE = "2";
+
+        public static final String DEFAULT_MAX_POOL_SIZE = "50";
+
+        public static final String DEFAULT_INTERVAL = "10s";
+
+        public static final String DEFAULT_TARGET_ACQUISITION_TIME = "5ms";
+
+        public static final String DEFAULT_SHRINK_UTILIZATION = "0.5";
+
+        public static final String DEFAULT_STABLE_SAMPLES = "3";
+    }
+
+    /**
+     * Limit the number of threads acquiring a connection from a pool at the same time. Excess threads wait in FIFO
+     * order in front of the pool, which is cheap for virtual threads, and fail after the pool's connection timeout.
+     *
+     * @param enabled enable admission control
+     * @param permits threads acquiring a connection at the same time per pool, fixed even if the autotuner resizes the pool,
+     *                {@literal 0} uses the maximum pool size and follows its changes
+     */
+    public record Admission(
+            boolean enabled,
+            @DefaultValue(DEFAULT_PERMITS) int permits) {
+
+        public static final String DEFAULT_PERMITS = "0";
+    }
+
+    /**
+     * Read-only transactions use a connection of one of the replica pools, all other work uses the primary pool.
+     * Replicas use the {@literal username} and {@literal password} of the primary and set {@literal sessionVariable}
+     * like the primary. Replicas lagging behind more than {@literal maxLag} are ejected until they catch up,
+     * read-only transactions use the primary when all replicas are ejected.
+     *
+     * @param enabled          enable read replica routing
+     * @param urls             JDBC urls of the replicas
+     * @param poolSize         maximum connections of each replica pool
+     * @param selection        how a replica is chosen for a read-only transaction
+     * @param maxLag           replication lag above which a replica is ejected
+     * @param lagCheckInterval time between two replication lag checks
+     */
+    public record Replicas(
+            boolean enabled,
+            @DefaultValue List<String> urls,
+            @DefaultValue(DEFAULT_POOL_SIZE) int poolSize,
+            @DefaultValue(DEFAULT_SELECTION) Selection selection,
+            @DefaultValue(DEFAULT_MAX_LAG) Duration maxLag,
+            @DefaultValue(DEFAULT_LAG_CHECK_INTERVAL) Duration lagCheckInterval) {
+
+        public static final String DEFAULT_POOL_SIZE = "10";
+
+        public static final String DEFAULT_SELECTION = "ROUND_ROBIN";
+
+        public static final String DEFAULT_MAX_LAG = "10s";
+
+        public static final String DEFAULT_LAG_CHECK_INTERVAL = "5s";
+
+        public enum Selection {
+            /**
+             * Use the replicas in turn
+             */
+            ROUND_ROBIN,
+            /**
+             * Use the replica with the fewest active connections
+             */
+            LEAST_LOADED
+        }
+    }
+
+    @ConstructorBinding
+    public ClientAwareDataSourceProperties{
+        if (partition == null) {
+            partition = new Partition(false, Set.of(), Integer.parseInt(Partition.DEFAULT_DEDICATED_POOL_SIZE), Integer.parseInt(Partition.DEFAULT_SHARED_POOL_SIZE), Integer.parseInt(Partition.DEFAULT_MAX_CONNECTIONS), DurationStyle.detectAndParse(Partition.DEFAULT_IDLE_TIMEOUT));
+        }
+        if (autotune == null) {
+            autotune = new Autotune(false, Integer.parseInt(Autotune.DEFAULT_MIN_POOL_SIZE), Integer.parseInt(Autotune.DEFAULT_MAX_POOL_SIZE), Duration.ofSeconds(10), Duration.ofMillis(5), Double.parseDouble(Autotune.DEFAULT_SHRINK_UTILIZATION), Integer.parseInt(Autotune.DEFAULT_STABLE_SAMPLES));
+        }
+        if (admission == null) {
+            admission = new Admission(false, Integer.parseInt(Admission.DEFAULT_PERMITS));
+        }
+        if (replicas == null) {
+            replicas = new Replicas(false, List.of(), Integer.parseInt(Replicas.DEFAULT_POOL_SIZE), Replicas.Selection.ROUND_ROBIN, Duration.ofSeconds(10), Duration.ofSeconds(5));
+        }
+    }
+
+    /**
+     * Single connection pool shared by all clients, without autotuning, admission control or replicas
+     */
+    public ClientAwareDataSourceProperties(String url, String username, String password, String sessionVariable){
+        this(url, username, password, sessionVariable, null, null, null, null);
+    }
 }
@@ -0,0 +1,53 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.lang.Nullable;
+
+/**
+ * Hibernate settings applied unless set through {@literal spring.jpa.properties}
+ *
+ * @param batchSize   statements sent to the database in one JDBC batch, {@literal 0} disables batching
+ * @param orderWrites order inserts and updates by entity, so consecutive statements can share a batch
+ * @param idOptimizer optimizer of all sequence ids, {@literal pooled} or {@literal pooled-lo}, unset keeps the default of
+ *                    Hibernate. Instances using different optimizers on the same sequence hand out the same ids,
+ *                    so change it on all instances at once
+ * @param cache       client partitioned second-level cache
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.jpa")
+public record ClientAwareJpaProperties(
+        @DefaultValue(DEFAULT_BATCH_SIZE) int batchSize,
+        @DefaultValue("true") boolean orderWrites,
+        @Nullable String idOptimizer,
+        Cache cache) {
+
+    /**
+     * Second-level cache keeping entries of each client apart,
+     * see {@link dev.autonu.framework.common.cache.ClientPartitionedRegionFactory}
+     *
+     * @param enabled             enable the second-level cache
+     * @param maxEntriesPerClient maximum entries per client and cache region, {@literal 0} for no limit
+     * @param maxClients          maximum clients per cache region, the client used least recently is dropped beyond,
+     *                            {@literal 0} for no limit
+     * @param queryCache          enable the query cache as well
+     */
+    public record Cache(
+            boolean enabled,
+            @DefaultValue(DEFAULT_MAX_ENTRIES_PER_CLIENT) int maxEntriesPerClient,
+            @DefaultValue(DEFAULT_MAX_CLIENTS) int maxClients,
+            boolean queryCache) {
+
+        public static final String DEFAULT_MAX_ENTRIES_PER_CLIENT = "1000";
+
+        public static final String DEFAULT_MAX_CLIENTS = "1000";
+    }
+
+    public ClientAwareJpaProperties{
+        if (cache == null) {
+            cache = new Cache(false, Integer.parseInt(Cache.DEFAULT_MAX_ENTRIES_PER_CLIENT), Integer.parseInt(Cache.DEFAULT_MAX_CLIENTS), false);
+        }
+    }
+
+    public static final String DEFAULT_BATCH_SIZE = "50";
+}
@@ -0,0 +1,40 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * @param enabled             register a client-aware {@literal cacheManager}
+ * @param maxEntriesPerClient maximum entries per client and cache, {@literal 0} for no limit
+ * @param quotas              maximum entries per client id and cache, overriding {@literal maxEntriesPerClient}
+ * @param allowNullValues     cache {@literal null} results
+ * @param maxClients          maximum clients per cache, the client used least recently is dropped with its statistics
+ *                            beyond, {@literal 0} for no limit
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.cache")
+public record ClientCacheProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_MAX_ENTRIES_PER_CLIENT) int maxEntriesPerClient,
+        @DefaultValue Map<Integer, Integer> quotas,
+        @DefaultValue("true") boolean allowNullValues,
+        @DefaultValue(DEFAULT_MAX_CLIENTS) int maxClients) {
+
+    public static final String DEFAULT_MAX_ENTRIES_PER_CLIENT = "1000";
+
+    public static final String DEFAULT_MAX_CLIENTS = "1000";
+
+    @ConstructorBinding
+    public ClientCacheProperties{
+        if (quotas == null) {
+            quotas = Map.of();
+        }
+    }
+
+    public ClientCacheProperties(boolean enabled, int maxEntriesPerClient, Map<Integer, Integer> quotas, boolean allowNullValues){
+        this(enabled, maxEntriesPerClient, quotas, allowNullValues, Integer.parseInt(DEFAULT_MAX_CLIENTS));
+    }
+}
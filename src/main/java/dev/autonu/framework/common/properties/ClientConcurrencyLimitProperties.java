@@ -0,0 +1,37 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Concurrency limit per client for inbound HTTP requests, adapted by additive increase and multiplicative decrease
+ *
+ * @param enabled          register the concurrency limit filter
+ * @param initialLimit     concurrent requests a client may start with
+ * @param minLimit         lower bound of the limit
+ * @param maxLimit         upper bound of the limit
+ * @param latencyThreshold request latency above which the limit of the client is decreased
+ * @param backoffRatio     factor applied to the limit on decrease
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.web.concurrency-limit")
+public record ClientConcurrencyLimitProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_INITIAL_LIMIT) int initialLimit,
+        @DefaultValue(DEFAULT_MIN_LIMIT) int minLimit,
+        @DefaultValue(DEFAULT_MAX_LIMIT) int maxLimit,
+        @DefaultValue(DEFAULT_LATENCY_THRESHOLD) Duration latencyThreshold,
+        @DefaultValue(DEFAULT_BACKOFF_RATIO) double backoffRatio) {
+
+    public static final String DEFAULT_INITIAL_LIMIT = "20";
+
+    public static final String DEFAULT_MIN_LIMIT = "1";
+
+    public static final String DEFAULT_MAX_LIMIT = "200";
+
+    public static final String DEFAULT_LATENCY_THRESHOLD = "1s";
+
+    public static final String DEFAULT_BACKOFF_RATIO = "0.9";
+}
@@ -0,0 +1,35 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * @param enabled       register a {@literal clientFairExecutor} bean
+ * @param workers       number of worker threads
+ * @param defaultWeight share of a client not listed in {@literal weights}
+ * @param weights       share per client id, a client with weight 2 gets twice the tasks of a client with weight 1
+ * @param queueCapacity maximum queued tasks per client, further tasks are rejected
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.executor")
+public record ClientFairExecutorProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_WORKERS) int workers,
+        @DefaultValue(DEFAULT_WEIGHT) int defaultWeight,
+        @DefaultValue Map<Integer, Integer> weights,
+        @DefaultValue(DEFAULT_QUEUE_CAPACITY) int queueCapacity) {
+
+    public static final String DEFAULT_WORKERS = "4";
+
+    public static final String DEFAULT_WEIGHT = "1";
+
+    public static final String DEFAULT_QUEUE_CAPACITY = "10000";
+
+    public ClientFairExecutorProperties{
+        if (weights == null) {
+            weights = Map.of();
+        }
+    }
+}
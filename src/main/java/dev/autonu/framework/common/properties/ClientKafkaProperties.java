@@ -0,0 +1,50 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled  add the client of {@link dev.autonu.framework.common.context.ClientContext} to the headers of
+ *                 records sent by the Spring Boot producer factory
+ * @param parallel process records of one partition concurrently
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.kafka")
+public record ClientKafkaProperties(boolean enabled, Parallel parallel) {
+
+    /**
+     * Process the records of one partition concurrently, in order per {@literal ordering} key.
+     * Applied to record listeners of the Spring Boot listener container factory.
+     *
+     * @param enabled     enable parallel processing
+     * @param ordering    records with the same ordering key are processed one after another in offset order
+     * @param maxInFlight records received but not processed yet per consumer, applied as {@literal max.poll.records}
+     *                    as the container polls again only once all records of a poll are processed
+     */
+    public record Parallel(
+            boolean enabled,
+            @DefaultValue(DEFAULT_ORDERING) Ordering ordering,
+            @DefaultValue(DEFAULT_MAX_IN_FLIGHT) int maxInFlight) {
+
+        public static final String DEFAULT_ORDERING = "KEY";
+
+        public static final String DEFAULT_MAX_IN_FLIGHT = "500";
+
+        public enum Ordering {
+            /**
+             * Records with the same key of the same partition
+             */
+            KEY,
+            /**
+             * Records of the same client of {@link dev.autonu.framework.common.kafka.ClientHeaders}
+             */
+            CLIENT
+        }
+    }
+
+    public ClientKafkaProperties{
+        if (parallel == null) {
+            parallel = new Parallel(false, Parallel.Ordering.KEY, Integer.parseInt(Parallel.DEFAULT_MAX_IN_FLIGHT));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxClientTags number of clients recorded with their own {@literal client} tag. These are the first clients seen
+ *                      since startup, not the busiest ones, every later client is recorded as {@literal other}
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.metrics")
+public record ClientMetricsProperties(@DefaultValue(DEFAULT_MAX_CLIENT_TAGS) int maxClientTags) {
+
+    public static final String DEFAULT_MAX_CLIENT_TAGS = "100";
+}
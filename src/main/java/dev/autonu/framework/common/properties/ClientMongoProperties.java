@@ -0,0 +1,17 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled           register the client-aware templates in place of the templates of Spring Boot
+ * @param maxFindAllResults maximum number of documents {@literal findAll} may return, {@literal 0} or less disables the check
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.mongo")
+public record ClientMongoProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_MAX_FIND_ALL_RESULTS) int maxFindAllResults) {
+
+    public static final String DEFAULT_MAX_FIND_ALL_RESULTS = "10000";
+}
@@ -0,0 +1,64 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param enabled      register the outbox and its entity listener
+ * @param table        table holding unpublished events, must not have row level security enabled
+ * @param defaultTopic topic of aggregate types not listed in {@literal topics}
+ * @param topics       topic per aggregate type, the simple class name of an entity
+ * @param relay        publish events of the outbox to Kafka
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.outbox")
+public record ClientOutboxProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_TABLE) String table,
+        @DefaultValue(DEFAULT_TOPIC) String defaultTopic,
+        @DefaultValue Map<String, String> topics,
+        Relay relay) {
+
+    public static final String DEFAULT_TABLE = "client_outbox";
+
+    public static final String DEFAULT_TOPIC = "client-outbox";
+
+    /**
+     * @param enabled         run the relay in this application
+     * @param batchSize       events published and deleted per transaction
+     * @param pollInterval    time between two polls once the outbox is drained, a full batch is followed by the next poll at once
+     * @param sendTimeout     time to wait for Kafka to acknowledge a batch before it is rolled back
+     * @param compressionType compression of the relay producer
+     * @param linger          time the relay producer waits to fill a Kafka batch
+     */
+    public record Relay(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue(DEFAULT_BATCH_SIZE) int batchSize,
+            @DefaultValue(DEFAULT_POLL_INTERVAL) Duration pollInterval,
+            @DefaultValue(DEFAULT_SEND_TIMEOUT) Duration sendTimeout,
+            @DefaultValue(DEFAULT_COMPRESSION_TYPE) String compressionType,
+            @DefaultValue(DEFAULT_LINGER) Duration linger) {
+
+        public static final String DEFAULT_BATCH_SIZE = "500";
+
+        public static final String DEFAULT_POLL_INTERVAL = "500ms";
+
+        public static final String DEFAULT_SEND_TIMEOUT = "30s";
+
+        public static final String DEFAULT_COMPRESSION_TYPE = "lz4";
+
+        public static final String DEFAULT_LINGER = "20ms";
+    }
+
+    public ClientOutboxProperties{
+        if (topics == null) {
+            topics = Map.of();
+        }
+        if (relay == null) {
+            relay = new Relay(true, Integer.parseInt(Relay.DEFAULT_BATCH_SIZE), Duration.ofMillis(500), Duration.ofSeconds(30), Relay.DEFAULT_COMPRESSION_TYPE, Duration.ofMillis(20));
+        }
+    }
+}
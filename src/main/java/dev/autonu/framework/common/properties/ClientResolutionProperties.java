@@ -0,0 +1,106 @@
+package dev.autonu.framework.common.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Resolves the client of inbound HTTP requests and binds it to {@link dev.autonu.framework.common.context.ClientContext}
+ *
+ * @param enabled       register the client resolution filter
+ * @param source        where the client is taken from
+ * @param required      reject requests without a valid client with {@literal 401 Unauthorized}
+ * @param excludedPaths ant style path patterns of requests not needing a client, for example {@literal /actuator/**}
+ * @param header        header names of {@link Source#HEADER}
+ * @param token         verification of {@link Source#BEARER_TOKEN}
+ * @author autonu2X
+ */
+@ConfigurationProperties(prefix = "common.starter.web.client-resolution")
+public record ClientResolutionProperties(
+        boolean enabled,
+        @DefaultValue(DEFAULT_SOURCE) Source source,
+        @DefaultValue("true") boolean required,
+        @DefaultValue List<String> excludedPaths,
+        Header header,
+        Token token) {
+
+    public static final String DEFAULT_SOURCE = "BEARER_TOKEN";
+
+    public enum Source {
+        /**
+         * Headers set by a trusted gateway
+         */
+        HEADER,
+        /**
+         * Signed JWT of the {@literal Authorization} header
+         */
+        BEARER_TOKEN
+    }
+
+    /**
+     * @param clientId header holding the client id
+     * @param userId   header holding the user id
+     * @param username header holding the username
+     */
+    public record Header(
+            @DefaultValue(DEFAULT_CLIENT_ID) String clientId,
+            @DefaultValue(DEFAULT_USER_ID) String userId,
+            @DefaultValue(DEFAULT_USERNAME) String username) {
+
+        public static final String DEFAULT_CLIENT_ID = "X-Client-Id";
+
+        public static final String DEFAULT_USER_ID = "X-User-Id";
+
+        public static final String DEFAULT_USERNAME = "X-Username";
+    }
+
+    /**
+     * Tokens are signed with {@literal HS256} if {@literal secret} is set, with {@literal RS256} otherwise.
+     * Verified tokens are cached by their SHA-256 hash until they expire, at most for {@literal cacheTtl}.
+     *
+     * @param secret        shared secret of {@literal HS256} tokens
+     * @param publicKey     base64 encoded X.509 RSA public key of {@literal RS256} tokens
+     * @param clientIdClaim claim holding the client id
+     * @param userIdClaim   claim holding the user id
+     * @param usernameClaim claim holding the username
+     * @param clockSkew     tolerance when checking {@literal exp} and {@literal nbf}
+     * @param cacheSize     maximum verified tokens cached
+     * @param cacheTtl      maximum time a verified token is cached
+     */
+    public record Token(
+            String secret,
+            String publicKey,
+            @DefaultValue(DEFAULT_CLIENT_ID_CLAIM) String clientIdClaim,
+            @DefaultValue(DEFAULT_USER_ID_CLAIM) String userIdClaim,
+            @DefaultValue(DEFAULT_USERNAME_CLAIM) String usernameClaim,
+            @DefaultValue(DEFAULT_CLOCK_SKEW) Duration clockSkew,
+            @DefaultValue(DEFAULT_CACHE_SIZE) int cacheSize,
+            @DefaultValue(DEFAULT_CACHE_TTL) Duration cacheTtl) {
+
+        public static final String DEFAULT_CLIENT_ID_CLAIM = "client_id";
+
+        public static final String DEFAULT_USER_ID_CLAIM = "user_id";
+
+        public static final String DEFAULT_USERNAME_CLAIM = "sub";
+
+        public static final String DEFAULT_CLOCK_SKEW = "30s";
+
+        public static final String DEFAULT_CACHE_SIZE = "10000";
+
+        public static final String DEFAULT_CACHE_TTL = "5m";
+    }
+
+    public ClientResolutionProperties{
+        if (excludedPaths == null) {
+            excludedPaths = List.of();
+        }
+        if (header == null) {
+            header = new Header(Header.DEFAULT_CLIENT_ID, Header.DEFAULT_USER_ID, Header.DEFAULT_USERNAME);
+        }
+        if (token == null) {
+            token = new Token(null, null, Token.DEFAULT_CLIENT_ID_CLAIM, Token.DEFAULT_USER_ID_CLAIM, Token.DEFAULT_USERNAME_CLAIM, Duration.ofSeconds(30), Integer.parseInt(Token.DEFAULT_CACHE_SIZE), Duration.ofMinutes(5));
+        }
+    }
+}
@@ -3,20 +3,25 @@ package dev.autonu.framework.common.properties;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.ZoneId;
 
 /**
+ * @param zone           zone of audit timestamps
+ * @param auditPrecision audit timestamps are reused for this long, {@literal 0} reads the clock for every operation
  * @author autonu
  */
 @Validated
 @ConfigurationProperties(prefix = "common.starter.time")
 public record DateTimeFormatProperties(
         @NotBlank(message = "Provide value for dev.autonu.time.zone") @DefaultValue(DEFAULT_ZONE) String zone,
-        Format format) {
+        Format format,
+        @DefaultValue(DEFAULT_AUDIT_PRECISION) Duration auditPrecision) {
 
     public record Format(
             @NotBlank(message = "Provide value for dev.autonu.time.date") @DefaultValue(ISO_DATE) String date,
@@ -24,10 +29,21 @@ public record DateTimeFormatProperties(
 
     }
 
+    @ConstructorBinding
     public DateTimeFormatProperties{
         if (format == null) {
             format = new Format(ISO_DATE, ISO_DATE_TIME);
         }
+        if (auditPrecision == null) {
+            auditPrecision = Duration.ZERO;
+        }
+    }
+
+    /**
+     * Without {@literal auditPrecision}, the clock is read for every operation
+     */
+    public DateTimeFormatProperties(String zone, Format format){
+        this(zone, format, Duration.ZERO);
     }
 
     @AssertTrue(message = "Property value of dev.autonu.time.zone is not valid. Provide valid zone id")
@@ -45,4 +61,6 @@ public record DateTimeFormatProperties(
     public static final String ISO_DATE = "yyyy-MM-dd";
 
     public static final String ISO_DATE_TIME = "yyyy-MM-dd'T'HH:mm:ss.SSSXXX";
+
+    public static final String DEFAULT_AUDIT_PRECISION = "0s";
 }
@@ -0,0 +1,193 @@
+package dev.autonu.framework.common.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.error.InvalidClientTokenException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Takes the client from the claims of a signed JWT in the {@literal Authorization: Bearer} header.
+ * Only the configured algorithm is accepted, {@literal HS256} with a shared secret or {@literal RS256} with a public key,
+ * {@literal exp} and {@literal nbf} are checked if present.
+ * <br></br>
+ * Verified tokens are cached in a {@link VerifiedTokenCache} until they expire, at most for
+ * {@link ClientResolutionProperties.Token#cacheTtl()}, so a token sent with many requests is verified once.
+ * Invalid tokens are not cached.
+ *
+ * @author autonu2X
+ */
+public class BearerTokenClientResolver implements ClientResolver {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String HS256 = "HS256";
+    private static final String RS256 = "RS256";
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private final ClientResolutionProperties.Token properties;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final String algorithm;
+    @Nullable
+    private final SecretKeySpec secretKey;
+    @Nullable
+    private final PublicKey publicKey;
+    private final VerifiedTokenCache cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BearerTokenClientResolver(ClientResolutionProperties.Token properties, ObjectMapper objectMapper, Clock clock){
+        Assert.state(StringUtils.hasText(properties.secret()) || StringUtils.hasText(properties.publicKey()), "Either secret or public key must be set");
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.cache = new VerifiedTokenCache(properties.cacheSize());
+        if (StringUtils.hasText(properties.secret())) {
+            this.algorithm = HS256;
+            this.secretKey = new SecretKeySpec(properties.secret()
+                    .getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+            this.publicKey = null;
+        } else {
+            this.algorithm = RS256;
+            this.secretKey = null;
+            try {
+                this.publicKey = KeyFactory.getInstance("RSA")
+                        .generatePublic(new X509EncodedKeySpec(Base64.getMimeDecoder()
+                                .decode(properties.publicKey())));
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                throw new IllegalStateException("Invalid public key", e);
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public ClientUserAssociation resolve(HttpServletRequest request){
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return resolve(authorization.substring(BEARER_PREFIX.length())
+                .trim());
+    }
+
+    /**
+     * @param token compact serialized JWT
+     * @throws InvalidClientTokenException if the token is malformed, not signed by the configured key, expired or has no client
+     */
+    public ClientUserAssociation resolve(String token){
+        VerifiedTokenCache.TokenHash hash = VerifiedTokenCache.hash(token);
+        long now = clock.millis();
+        ClientUserAssociation association = cache.get(hash, now);
+        if (association != null) {
+            hits.increment();
+            return association;
+        }
+        misses.increment();
+        JsonNode claims = verify(token, now);
+        association = association(claims);
+        long expiresAt = now + properties.cacheTtl()
+                .toMillis();
+        if (claims.hasNonNull("exp")) {
+            expiresAt = Math.min(expiresAt, claims.get("exp")
+                    .asLong() * 1000);
+        }
+        cache.put(hash, association, expiresAt);
+        return association;
+    }
+
+    /**
+     * @return number of requests served from the cache of verified tokens
+     */
+    public long getCacheHits(){
+        return hits.sum();
+    }
+
+    /**
+     * @return number of requests with a token that had to be verified
+     */
+    public long getCacheMisses(){
+        return misses.sum();
+    }
+
+    private JsonNode verify(String token, long now){
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = headerEnd < 0 ? -1 : token.indexOf('.', headerEnd + 1);
+        if (headerEnd <= 0 || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0) {
+            throw new InvalidClientTokenException("Malformed token");
+        }
+        try {
+            JsonNode header = objectMapper.readTree(DECODER.decode(token.substring(0, headerEnd)));
+            if (!algorithm.equals(header.path("alg")
+                    .asText())) {
+                throw new InvalidClientTokenException("Unexpected token algorithm: " + header.path("alg")
+                        .asText());
+            }
+            if (!isValidSignature(token.substring(0, payloadEnd)
+                    .getBytes(StandardCharsets.US_ASCII), DECODER.decode(token.substring(payloadEnd + 1)))) {
+                throw new InvalidClientTokenException("Invalid token signature");
+            }
+            JsonNode claims = objectMapper.readTree(DECODER.decode(token.substring(headerEnd + 1, payloadEnd)));
+            long clockSkew = properties.clockSkew()
+                    .toMillis();
+            if (claims.hasNonNull("exp") && claims.get("exp")
+                    .asLong() * 1000 + clockSkew <= now) {
+                throw new InvalidClientTokenException("Token expired");
+            }
+            if (claims.hasNonNull("nbf") && claims.get("nbf")
+                    .asLong() * 1000 - clockSkew > now) {
+                throw new InvalidClientTokenException("Token not valid yet");
+            }
+            return claims;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidClientTokenException("Malformed token", e);
+        } catch (GeneralSecurityException e) {
+            throw new InvalidClientTokenException("Token signature can not be verified", e);
+        }
+    }
+
+    private boolean isValidSignature(byte[] content, byte[] signature) throws GeneralSecurityException{
+        if (secretKey != null) {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(secretKey);
+            return MessageDigest.isEqual(mac.doFinal(content), signature);
+        }
+        Signature verifier = Signature.getInstance("SHA256withRSA");
+        verifier.initVerify(publicKey);
+        verifier.update(content);
+        return verifier.verify(signature);
+    }
+
+    private ClientUserAssociation association(JsonNode claims){
+        JsonNode clientId = claims.get(properties.clientIdClaim());
+        if (clientId == null || !(clientId.canConvertToInt() || clientId.isTextual())) {
+            throw new InvalidClientTokenException("Token has no " + properties.clientIdClaim() + " claim");
+        }
+        JsonNode userId = claims.get(properties.userIdClaim());
+        JsonNode username = claims.get(properties.usernameClaim());
+        try {
+            return new ClientUserAssociation(clientId.isTextual() ? Integer.valueOf(clientId.asText()) : clientId.asInt(), userId == null || userId.isNull() ? null : userId.isTextual() ? Long.valueOf(userId.asText()) : userId.asLong(),
+                    username == null || username.isNull() ? null : username.asText());
+        } catch (NumberFormatException e) {
+            throw new InvalidClientTokenException("Invalid client or user id claim", e);
+        }
+    }
+}
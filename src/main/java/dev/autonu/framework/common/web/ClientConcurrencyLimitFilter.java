@@ -0,0 +1,101 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests of a client with {@literal 429 Too Many Requests} once the client reached its limit
+ * of {@link ClientConcurrencyLimiter}, instead of letting them wait for a thread or connection.
+ * Requests without a client in {@link ClientContext} are not limited, so this filter has to run after
+ * the filter binding the client, see {@link #ORDER}.
+ * <br></br>
+ * Responses with status {@literal 503} or {@literal 504} count as overloaded. The permit of an async request
+ * is released when the async request completes.
+ *
+ * @author autonu2X
+ */
+public class ClientConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientConcurrencyLimitFilter.class);
+    /**
+     * Order of the filter, after filters binding the client and before the dispatcher servlet
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+    private final ClientConcurrencyLimiter limiter;
+
+    public ClientConcurrencyLimitFilter(ClientConcurrencyLimiter limiter){
+        this.limiter = limiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException{
+        ClientUserAssociation association = ClientContext.get();
+        if (association == null || association.clientId() == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ClientConcurrencyLimiter.Permit permit = limiter.tryAcquire(association.clientId());
+        if (permit == null) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Request of client_id: {} rejected, limit: {}", association.clientId(), limiter.getLimit(association.clientId()));
+            }
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            return;
+        }
+        boolean asyncStarted = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext()
+                        .addListener(new PermitReleasingListener(permit, response));
+                asyncStarted = true;
+            }
+        } finally {
+            if (!asyncStarted) {
+                permit.release(isOverloaded(response));
+            }
+        }
+    }
+
+    private static boolean isOverloaded(HttpServletResponse response){
+        int status = response.getStatus();
+        return status == HttpStatus.SERVICE_UNAVAILABLE.value() || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    private record PermitReleasingListener(ClientConcurrencyLimiter.Permit permit, HttpServletResponse response) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event){
+            permit.release(isOverloaded(response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event){
+            permit.release(true);
+        }
+
+        @Override
+        public void onError(AsyncEvent event){
+            permit.release(isOverloaded(response));
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event){
+            event.getAsyncContext()
+                    .addListener(this);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientConcurrencyLimitProperties;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limits the number of concurrent requests per client. The limit of a client adapts to the latency of its requests:
+ * it grows by one every {@literal limit} requests completing below {@literal latencyThreshold} while the client
+ * uses at least half of it, and is multiplied by {@literal backoffRatio} when a request is slower or overloaded.
+ * Requests that were already running when the limit was decreased do not decrease it again.
+ * <br></br>
+ * Request latency is recorded as operation {@value #OPERATION_REQUEST}, rejected requests as errors of operation
+ * {@value #OPERATION_ADMIT}.
+ *
+ * @author autonu2X
+ */
+public class ClientConcurrencyLimiter {
+
+    protected static final String OPERATION_REQUEST = "request";
+    protected static final String OPERATION_ADMIT = "admit";
+    protected static final String LIMIT_METRIC = "concurrency.limit";
+    protected static final String IN_FLIGHT_METRIC = "concurrency.in-flight";
+    private final String name;
+    private final ClientConcurrencyLimitProperties properties;
+    private final long latencyThresholdNanos;
+    private final Map<Integer, ClientLimit> limits = new ConcurrentHashMap<>();
+    @Nullable
+    private volatile ClientOperationMetrics metrics;
+
+    public ClientConcurrencyLimiter(String name, ClientConcurrencyLimitProperties properties){
+        Assert.isTrue(properties.minLimit() > 0, "Min limit must be greater than 0");
+        Assert.isTrue(properties.minLimit() <= properties.initialLimit() && properties.initialLimit() <= properties.maxLimit(), "Initial limit must be between min limit and max limit");
+        Assert.isTrue(properties.backoffRatio() > 0 && properties.backoffRatio() < 1, "Backoff ratio must be between 0 and 1");
+        this.name = name;
+        this.properties = properties;
+        this.latencyThresholdNanos = properties.latencyThreshold()
+                .toNanos();
+    }
+
+    /**
+     * Permit of one admitted request, release it once the request completed
+     */
+    public final class Permit {
+
+        private final ClientLimit limit;
+        private final long acquiredAt;
+        private boolean released;
+
+        private Permit(ClientLimit limit, long acquiredAt){
+            this.limit = limit;
+            this.acquiredAt = acquiredAt;
+        }
+
+        /**
+         * Release the permit and adapt the limit of the client, only the first call has an effect
+         *
+         * @param overloaded {@literal true} if the request failed because the service is overloaded
+         */
+        public void release(boolean overloaded){
+            synchronized (this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+            }
+            long latency = System.nanoTime() - acquiredAt;
+            limit.release(acquiredAt, overloaded || latency > latencyThresholdNanos);
+            ClientOperationMetrics metrics = ClientConcurrencyLimiter.this.metrics;
+            if (metrics != null) {
+                metrics.record(OPERATION_REQUEST, name, limit.clientId, latency, -1);
+            }
+        }
+    }
+
+    /**
+     * Record latency, rejections and the current limit per client
+     *
+     * @param metrics metrics to record to, {@literal null} disables recording
+     */
+    public void setMetrics(@Nullable ClientOperationMetrics metrics){
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return permit for one request of {@literal clientId}, {@literal null} if the client reached its limit
+     */
+    @Nullable
+    public Permit tryAcquire(Integer clientId){
+        Assert.notNull(clientId, "Client id must not be null");
+        ClientLimit limit = limits.get(clientId);
+        if (limit == null) {
+            limit = limits.computeIfAbsent(clientId, this::createLimit);
+        }
+        long now = System.nanoTime();
+        if (limit.tryAcquire()) {
+            return new Permit(limit, now);
+        }
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.recordError(OPERATION_ADMIT, name, clientId);
+        }
+        return null;
+    }
+
+    /**
+     * @return current limit of {@literal clientId}
+     */
+    public int getLimit(Integer clientId){
+        ClientLimit limit = limits.get(clientId);
+        return limit != null ? limit.limit() : properties.initialLimit();
+    }
+
+    /**
+     * @return requests of {@literal clientId} currently running
+     */
+    public int getInFlight(Integer clientId){
+        ClientLimit limit = limits.get(clientId);
+        return limit != null ? limit.inFlight() : 0;
+    }
+
+    public String getName(){
+        return name;
+    }
+
+    private ClientLimit createLimit(Integer clientId){
+        ClientLimit limit = new ClientLimit(clientId, properties.initialLimit());
+        ClientOperationMetrics metrics = this.metrics;
+        if (metrics != null) {
+            metrics.gauge(LIMIT_METRIC, name, clientId, limit, ClientLimit::limit);
+            metrics.gauge(IN_FLIGHT_METRIC, name, clientId, limit, ClientLimit::inFlight);
+        }
+        return limit;
+    }
+
+    private final class ClientLimit {
+
+        private final Integer clientId;
+        private double limit;
+        private int inFlight;
+        private long lastDecrease = System.nanoTime();
+
+        private ClientLimit(Integer clientId, int limit){
+            this.clientId = clientId;
+            this.limit = limit;
+        }
+
+        private synchronized boolean tryAcquire(){
+            if (inFlight >= (int) limit) {
+                return false;
+            }
+            inFlight++;
+            return true;
+        }
+
+        private synchronized void release(long acquiredAt, boolean overloaded){
+            int active = inFlight--;
+            if (overloaded) {
+                if (acquiredAt - lastDecrease >= 0) {
+                    limit = Math.max(properties.minLimit(), limit * properties.backoffRatio());
+                    lastDecrease = System.nanoTime();
+                }
+            } else if (active * 2 >= (int) limit) {
+                limit = Math.min(properties.maxLimit(), limit + 1 / limit);
+            }
+        }
+
+        private synchronized int limit(){
+            return (int) limit;
+        }
+
+        private synchronized int inFlight(){
+            return inFlight;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.error.InvalidClientTokenException;
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Binds the client of every request, resolved by a {@link ClientResolver}, to {@link ClientContext} for the rest
+ * of the filter chain, and so to the {@value ClientContext#MDC_CLIENT_ID} MDC key. Requests with an invalid client are
+ * rejected with {@literal 401 Unauthorized}, as are requests without a client if
+ * {@link ClientResolutionProperties#required()}, unless their path is excluded.
+ * <br></br>
+ * Runs before {@link ClientConcurrencyLimitFilter}, see {@link #ORDER}.
+ *
+ * @author autonu2X
+ */
+public class ClientResolutionFilter extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClientResolutionFilter.class);
+    /**
+     * Order of the filter, before {@link ClientConcurrencyLimitFilter#ORDER}
+     */
+    public static final int ORDER = ClientConcurrencyLimitFilter.ORDER - 10;
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+    private final ClientResolver resolver;
+    private final boolean required;
+    private final List<String> excludedPaths;
+
+    public ClientResolutionFilter(ClientResolver resolver, ClientResolutionProperties properties){
+        this.resolver = resolver;
+        this.required = properties.required();
+        this.excludedPaths = properties.excludedPaths();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request){
+        if (excludedPaths.isEmpty()) {
+            return false;
+        }
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        for (String excludedPath : excludedPaths) {
+            if (PATH_MATCHER.match(excludedPath, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Async dispatches run on another thread than the initial request, the client has to be bound again
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch(){
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException{
+        ClientUserAssociation association;
+        try {
+            association = resolver.resolve(request);
+        } catch (InvalidClientTokenException | InvalidClientUserAssociationException e) {
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Request to {} rejected: {}", request.getRequestURI(), e.getMessage());
+            }
+            response.sendError(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        if (association == null || association.clientId() == null) {
+            if (required) {
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("Request to {} rejected, no client", request.getRequestURI());
+                }
+                response.sendError(HttpStatus.UNAUTHORIZED.value());
+                return;
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ClientScope ignored = ClientContext.bind(association)) {
+            filterChain.doFilter(request, response);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+
+/**
+ * Resolves the client of an inbound HTTP request, see {@link ClientResolutionFilter}
+ *
+ * @author autonu2X
+ */
+@FunctionalInterface
+public interface ClientResolver {
+
+    /**
+     * @return {@literal null} if the request carries no client
+     * @throws dev.autonu.framework.common.error.InvalidClientTokenException           if the request carries an invalid token
+     * @throws dev.autonu.framework.common.error.InvalidClientUserAssociationException if the request carries an invalid client
+     */
+    @Nullable
+    ClientUserAssociation resolve(HttpServletRequest request);
+}
@@ -0,0 +1,37 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.lang.Nullable;
+
+/**
+ * Takes the client from headers set by a trusted gateway. The headers must be removed from external requests
+ * by the gateway, the application can not tell them apart.
+ *
+ * @author autonu2X
+ */
+public class HeaderClientResolver implements ClientResolver {
+
+    private final ClientResolutionProperties.Header header;
+
+    public HeaderClientResolver(ClientResolutionProperties.Header header){
+        this.header = header;
+    }
+
+    @Nullable
+    @Override
+    public ClientUserAssociation resolve(HttpServletRequest request){
+        String clientId = request.getHeader(header.clientId());
+        if (clientId == null) {
+            return null;
+        }
+        String userId = request.getHeader(header.userId());
+        try {
+            return new ClientUserAssociation(Integer.valueOf(clientId.trim()), userId != null ? Long.valueOf(userId.trim()) : null, request.getHeader(header.username()));
+        } catch (NumberFormatException e) {
+            throw new InvalidClientUserAssociationException("Invalid client id: " + clientId + " or user id: " + userId);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Clients of verified tokens keyed by the SHA-256 hash of the token, so the tokens themselves are not kept.
+ * Split into segments holding the least recently used entries each, so concurrent requests rarely contend.
+ *
+ * @author autonu2X
+ */
+final class VerifiedTokenCache {
+
+    private static final int SEGMENTS = 16;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    VerifiedTokenCache(int maxEntries){
+        Assert.isTrue(maxEntries > 0, "Max entries must be greater than 0");
+        int maxEntriesPerSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(maxEntriesPerSegment);
+        }
+    }
+
+    /**
+     * @return {@literal null} if the token is not cached or expired at {@literal nowMillis}
+     */
+    @Nullable
+    ClientUserAssociation get(TokenHash hash, long nowMillis){
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            VerifiedToken verifiedToken = segment.get(hash);
+            if (verifiedToken == null) {
+                return null;
+            }
+            if (verifiedToken.expiresAtMillis <= nowMillis) {
+                segment.remove(hash);
+                return null;
+            }
+            return verifiedToken.association;
+        }
+    }
+
+    void put(TokenHash hash, ClientUserAssociation association, long expiresAtMillis){
+        Segment segment = segment(hash);
+        synchronized (segment) {
+            segment.put(hash, new VerifiedToken(association, expiresAtMillis));
+        }
+    }
+
+    int size(){
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    static TokenHash hash(String token){
+        try {
+            ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+            return new TokenHash(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private Segment segment(TokenHash hash){
+        return segments[(int) (hash.first & (SEGMENTS - 1))];
+    }
+
+    /**
+     * SHA-256 hash of a token as four longs, compared without allocating
+     */
+    record TokenHash(long first, long second, long third, long fourth) {
+    }
+
+    private record VerifiedToken(ClientUserAssociation association, long expiresAtMillis) {
+    }
+
+    private static final class Segment extends LinkedHashMap<TokenHash, VerifiedToken> {
+
+        private final int maxEntries;
+
+        private Segment(int maxEntries){
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TokenHash, VerifiedToken> eldest){
+            return size() > maxEntries;
+        }
+    }
+}
@@ -1,13 +1,31 @@
 package dev.autonu.framework.common.autoconfig;
 
+import dev.autonu.framework.common.context.ClientAwareDataSource;
+import dev.autonu.framework.common.context.ClientAwareDataSourceAutotuner;
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.context.PartitionedClientAwareDataSource;
+import dev.autonu.framework.common.model.ClientUserAssociation;
 import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.AssertionsForClassTypes;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
 
 /**
  * @author autonu2X
@@ -15,6 +33,8 @@ import static org.junit.jupiter.api.Assertions.*;
 class ClientAwareDataSourceConfigurationTest {
 
     private final ApplicationContextRunner contextRunner = new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(ClientAwareDataSourceConfiguration.class));
+    private final Connection connection = mock(Connection.class);
+    private final PreparedStatement statement = mock(PreparedStatement.class);
 
     @Test
     void givenNoProperties_whenContextCreated_thenDataSourceIsNotPresent() {
@@ -36,4 +56,99 @@ class ClientAwareDataSourceConfigurationTest {
                             .username()).isEqualTo("root");
                 });
     }
-}
\ No newline at end of file
+
+    @Test
+    void givenMeterRegistry_whenContextCreated_thenSkippedBindingsMetricIsRegistered() {
+
+        contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .withPropertyValues("common.starter.datasource.url=jdbc:postgresql://localhost:5432/saas", "common.starter.datasource.username=root", "common.starter.datasource.password=saas")
+                .run(context -> assertNotNull(context.getBean(MeterRegistry.class)
+                        .find(ClientAwareDataSourceConfiguration.SKIPPED_BINDINGS_METRIC)
+                        .functionCounter()));
+    }
+
+    @Test
+    void givenPartitionEnabled_whenContextCreated_thenPartitionedDataSourceIsPresent() {
+
+        contextRunner.withPropertyValues("common.starter.datasource.url=jdbc:postgresql://localhost:5432/saas", "common.starter.datasource.username=root", "common.starter.datasource.password=saas", "common.starter.datasource.partition.enabled=true", "common.starter.datasource.partition.dedicated-client-ids=1,2", "common.starter.datasource.partition.dedicated-pool-size=4")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(PartitionedClientAwareDataSource.class);
+                    ClientAwareDataSourceProperties.Partition partition = context.getBean(ClientAwareDataSourceProperties.class)
+                            .partition();
+                    AssertionsForClassTypes.assertThat(partition.dedicatedPoolSize()).isEqualTo(4);
+                    AssertionsForClassTypes.assertThat(partition.sharedPoolSize()).isEqualTo(10);
+                    assertTrue(partition.dedicatedClientIds()
+                            .containsAll(List.of(1, 2)));
+                });
+    }
+
+    @Test
+    void givenAutotuneEnabled_whenContextCreated_thenAutotunerIsPresent() {
+
+        contextRunner.withPropertyValues("common.starter.datasource.url=jdbc:postgresql://localhost:5432/saas", "common.starter.datasource.username=root", "common.starter.datasource.password=saas", "common.starter.datasource.autotune.enabled=true", "common.starter.datasource.autotune.max-pool-size=30")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ClientAwareDataSourceAutotuner.class);
+                    AssertionsForClassTypes.assertThat(context.getBean(ClientAwareDataSourceAutotuner.class)
+                            .getAutotune()
+                            .maxPoolSize()).isEqualTo(30);
+                });
+    }
+
+    @Test
+    void givenSameClientOnSamePhysicalConnection_whenConnectionRequested_thenSessionVariableIsNotSetAgain() throws SQLException {
+
+        try (ClientAwareDataSource dataSource = dataSource(true)) {
+            connect(dataSource, 1);
+            connect(dataSource, 1);
+            verify(statement, times(1)).executeQuery();
+            assertEquals(1, dataSource.getSkippedBindings());
+        }
+    }
+
+    @Test
+    void givenOtherClientOnSamePhysicalConnection_whenConnectionRequested_thenSessionVariableIsSetAgain() throws SQLException {
+
+        try (ClientAwareDataSource dataSource = dataSource(true)) {
+            connect(dataSource, 1);
+            connect(dataSource, 2);
+            verify(statement, times(2)).executeQuery();
+            verify(statement).setString(2, "2");
+            assertEquals(0, dataSource.getSkippedBindings());
+        }
+    }
+
+    @Test
+    void givenAutoCommitDisabled_whenSameClientConnectsAgain_thenSessionVariableIsSetAgain() throws SQLException {
+
+        try (ClientAwareDataSource dataSource = dataSource(false)) {
+            connect(dataSource, 1);
+            connect(dataSource, 1);
+            verify(statement, times(2)).executeQuery();
+            assertEquals(0, dataSource.getSkippedBindings());
+        }
+    }
+
+    private ClientAwareDataSource dataSource(boolean autoCommit) throws SQLException {
+
+        DataSource driverDataSource = mock(DataSource.class);
+        when(driverDataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(autoCommit);
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        ClientAwareDataSource dataSource = new ClientAwareDataSource("app.current_client_id");
+        dataSource.setDataSource(driverDataSource);
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setAutoCommit(autoCommit);
+        return dataSource;
+    }
+
+    private static void connect(ClientAwareDataSource dataSource, Integer clientId) throws SQLException {
+
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(clientId, 1L, "user"))) {
+            dataSource.getConnection()
+                    .close();
+        }
+    }
+}
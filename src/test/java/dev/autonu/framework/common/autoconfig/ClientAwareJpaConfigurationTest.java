@@ -0,0 +1,80 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.cache.ClientPartitionedRegionFactory;
+import dev.autonu.framework.common.properties.ClientAwareJpaProperties;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareJpaConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(ClientAwareJpaConfiguration.class));
+
+    @Test
+    void givenNoProperties_whenCustomized_thenBatchingAndOrderingAreEnabled() {
+
+        contextRunner.run(context -> {
+            Map<String, Object> hibernateProperties = new HashMap<>();
+            context.getBean(HibernatePropertiesCustomizer.class)
+                    .customize(hibernateProperties);
+            assertEquals(ClientAwareJpaProperties.DEFAULT_BATCH_SIZE, hibernateProperties.get(AvailableSettings.STATEMENT_BATCH_SIZE));
+            assertEquals("true", hibernateProperties.get(AvailableSettings.ORDER_INSERTS));
+            assertEquals("true", hibernateProperties.get(AvailableSettings.ORDER_UPDATES));
+            assertFalse(hibernateProperties.containsKey(AvailableSettings.PREFERRED_POOLED_OPTIMIZER));
+            assertFalse(hibernateProperties.containsKey(AvailableSettings.CACHE_REGION_FACTORY));
+        });
+    }
+
+    @Test
+    void givenCacheEnabled_whenCustomized_thenClientPartitionedRegionFactoryIsUsed() {
+
+        contextRunner.withPropertyValues("common.starter.jpa.cache.enabled=true", "common.starter.jpa.cache.max-entries-per-client=10")
+                .run(context -> {
+                    Map<String, Object> hibernateProperties = new HashMap<>();
+                    context.getBean(HibernatePropertiesCustomizer.class)
+                            .customize(hibernateProperties);
+                    assertEquals("true", hibernateProperties.get(AvailableSettings.USE_SECOND_LEVEL_CACHE));
+                    assertEquals("false", hibernateProperties.get(AvailableSettings.USE_QUERY_CACHE));
+                    assertEquals(ClientPartitionedRegionFactory.class.getName(), hibernateProperties.get(AvailableSettings.CACHE_REGION_FACTORY));
+                    assertEquals("10", hibernateProperties.get(ClientPartitionedRegionFactory.MAX_ENTRIES_PER_CLIENT));
+                    assertEquals(ClientAwareJpaProperties.Cache.DEFAULT_MAX_CLIENTS, hibernateProperties.get(ClientPartitionedRegionFactory.MAX_CLIENTS));
+                });
+    }
+
+    @Test
+    void givenIdOptimizer_whenCustomized_thenItIsUsed() {
+
+        contextRunner.withPropertyValues("common.starter.jpa.id-optimizer=pooled-lo")
+                .run(context -> {
+                    Map<String, Object> hibernateProperties = new HashMap<>();
+                    context.getBean(HibernatePropertiesCustomizer.class)
+                            .customize(hibernateProperties);
+                    assertEquals("pooled-lo", hibernateProperties.get(AvailableSettings.PREFERRED_POOLED_OPTIMIZER));
+                });
+    }
+
+    @Test
+    void givenHibernatePropertySet_whenCustomized_thenItIsKept() {
+
+        contextRunner.withPropertyValues("common.starter.jpa.batch-size=0", "common.starter.jpa.order-writes=false")
+                .run(context -> {
+                    Map<String, Object> hibernateProperties = new HashMap<>();
+                    hibernateProperties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, "pooled");
+                    context.getBean(HibernatePropertiesCustomizer.class)
+                            .customize(hibernateProperties);
+                    assertFalse(hibernateProperties.containsKey(AvailableSettings.STATEMENT_BATCH_SIZE));
+                    assertFalse(hibernateProperties.containsKey(AvailableSettings.ORDER_INSERTS));
+                    assertEquals("pooled", hibernateProperties.get(AvailableSettings.PREFERRED_POOLED_OPTIMIZER));
+                });
+    }
+}
@@ -0,0 +1,62 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.context.ClientAwareMongoTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.mongo.MongoDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareMongoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(MongoAutoConfiguration.class, MongoDataAutoConfiguration.class, ClientAwareMongoConfiguration.class))
+            .withPropertyValues("common.starter.mongo.enabled=true");
+
+    @Test
+    void givenMongoNotEnabled_whenContextCreated_thenTemplateOfSpringBootIsPresent() {
+
+        new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(MongoAutoConfiguration.class, MongoDataAutoConfiguration.class, ClientAwareMongoConfiguration.class))
+                .run(context -> {
+                    assertThat(context).hasSingleBean(MongoOperations.class);
+                    assertFalse(context.getBean(MongoOperations.class) instanceof ClientAwareMongoTemplate);
+                });
+    }
+
+    @Test
+    void givenMongo_whenContextCreated_thenClientAwareTemplateIsPresent() {
+
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(MongoOperations.class);
+            assertInstanceOf(ClientAwareMongoTemplate.class, context.getBean(MongoOperations.class));
+            assertNull(context.getBean(ClientAwareMongoTemplate.class)
+                    .getMetrics());
+            assertEquals(ClientAwareMongoTemplate.DEFAULT_MAX_FIND_ALL_RESULTS, context.getBean(ClientAwareMongoTemplate.class)
+                    .getMaxFindAllResults());
+        });
+    }
+
+    @Test
+    void givenMaxFindAllResultsProperty_whenContextCreated_thenTemplateIsLimited() {
+
+        contextRunner.withPropertyValues("common.starter.mongo.max-find-all-results=500")
+                .run(context -> assertEquals(500, context.getBean(ClientAwareMongoTemplate.class)
+                        .getMaxFindAllResults()));
+    }
+
+    @Test
+    void givenMeterRegistry_whenContextCreated_thenTemplateRecordsMetrics() {
+
+        contextRunner.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+                .run(context -> assertNotNull(context.getBean(ClientAwareMongoTemplate.class)
+                        .getMetrics()));
+    }
+}
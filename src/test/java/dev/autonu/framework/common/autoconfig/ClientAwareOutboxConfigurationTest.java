@@ -0,0 +1,50 @@
+package dev.autonu.framework.common.autoconfig;
+
+import dev.autonu.framework.common.properties.ClientOutboxProperties;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareOutboxConfigurationTest {
+
+    private static final ClientOutboxProperties.Relay RELAY = new ClientOutboxProperties.Relay(true, 500, Duration.ofMillis(500), Duration.ofSeconds(30), "lz4", Duration.ofMillis(5));
+
+    @Test
+    void givenTransactionalProducerFactory_whenRelayProducerFactoryIsCopied_thenItIsNotTransactional() {
+
+        DefaultKafkaProducerFactory<Object, Object> producerFactory = new DefaultKafkaProducerFactory<>(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"));
+        producerFactory.setTransactionIdPrefix("tx-");
+        ProducerFactory<String, String> relayProducerFactory = ClientAwareOutboxConfiguration.relayProducerFactory(producerFactory, RELAY);
+        assertFalse(relayProducerFactory.transactionCapable());
+        assertFalse(new KafkaTemplate<>(relayProducerFactory).isTransactional());
+        Map<String, Object> configs = relayProducerFactory.getConfigurationProperties();
+        assertFalse(configs.containsKey(ProducerConfig.TRANSACTIONAL_ID_CONFIG));
+        assertEquals("localhost:9092", configs.get(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG));
+        assertEquals(StringSerializer.class, configs.get(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG));
+        assertEquals("lz4", configs.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        assertTrue(producerFactory.transactionCapable());
+    }
+
+    @Test
+    void givenProducerFactory_whenRelayProducerFactoryIsCopied_thenOverridesAreApplied() {
+
+        DefaultKafkaProducerFactory<Object, Object> producerFactory = new DefaultKafkaProducerFactory<>(Map.of(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, "localhost:9092"));
+        ProducerFactory<String, String> relayProducerFactory = ClientAwareOutboxConfiguration.relayProducerFactory(producerFactory, RELAY);
+        assertFalse(relayProducerFactory.transactionCapable());
+        Map<String, Object> configs = relayProducerFactory.getConfigurationProperties();
+        assertEquals(true, configs.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+        assertEquals("all", configs.get(ProducerConfig.ACKS_CONFIG));
+        assertEquals(5, configs.get(ProducerConfig.LINGER_MS_CONFIG));
+    }
+}
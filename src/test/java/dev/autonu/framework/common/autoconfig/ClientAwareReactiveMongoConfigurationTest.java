@@ -0,0 +1,189 @@
+package dev.autonu.framework.common.autoconfig;
+
+import com.mongodb.client.model.DeleteOptions;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.DeleteResult;
+import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.client.result.UpdateResult;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+import dev.autonu.framework.common.context.ClientAwareReactiveMongoTemplate;
+import dev.autonu.framework.common.context.ReactiveClientContext;
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.bson.BsonObjectId;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.reactivestreams.Subscriber;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareReactiveMongoConfigurationTest {
+
+    private static final String COLLECTION = "orders";
+    private static final ClientUserAssociation ASSOCIATION = new ClientUserAssociation(7, 1L, "writer");
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class, ClientAwareReactiveMongoConfiguration.class))
+            .withPropertyValues("common.starter.mongo.enabled=true");
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class, RETURNS_SELF);
+
+    @Test
+    void givenReactiveMongoNotEnabled_whenContextCreated_thenTemplateOfSpringBootIsPresent() {
+
+        new ApplicationContextRunner().withConfiguration(AutoConfigurations.of(MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class, ClientAwareReactiveMongoConfiguration.class))
+                .run(context -> {
+                    assertThat(context).hasSingleBean(ReactiveMongoOperations.class);
+                    assertFalse(context.getBean(ReactiveMongoOperations.class) instanceof ClientAwareReactiveMongoTemplate);
+                });
+    }
+
+    @Test
+    void givenReactiveMongo_whenContextCreated_thenClientAwareTemplateIsPresent() {
+
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(ReactiveMongoOperations.class);
+            assertInstanceOf(ClientAwareReactiveMongoTemplate.class, context.getBean(ReactiveMongoOperations.class));
+        });
+    }
+
+    @Test
+    void givenNoClientInReactorContext_whenQueried_thenQueryIsRejected() {
+
+        contextRunner.run(context -> {
+            ReactiveMongoOperations template = context.getBean(ReactiveMongoOperations.class);
+            assertThrows(InvalidClientUserAssociationException.class, () -> template.count(new Query(), "orders")
+                    .block());
+        });
+    }
+
+    @Test
+    void givenClientInReactorContext_whenFound_thenClientFilterIsSentToServer() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        FindPublisher<Document> findPublisher = emptyFindPublisher();
+        when(collection.find(any(Bson.class), eq(Document.class))).thenReturn(findPublisher);
+        template.find(Query.query(Criteria.where("status")
+                        .is("new")), Document.class, COLLECTION)
+                .contextWrite(ReactiveClientContext.withClient(ASSOCIATION))
+                .blockLast();
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).find(filter.capture(), eq(Document.class));
+        assertEquals(new Document("status", "new").append("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClientInReactorContext_whenFoundAll_thenOnlyClientFilterIsSentToServer() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        FindPublisher<Document> findPublisher = emptyFindPublisher();
+        when(collection.find(any(Bson.class), eq(Document.class))).thenReturn(findPublisher);
+        template.findAll(Document.class, COLLECTION)
+                .contextWrite(ReactiveClientContext.withClient(ASSOCIATION))
+                .blockLast();
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).find(filter.capture(), eq(Document.class));
+        assertEquals(new Document("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClientInReactorContext_whenUpdated_thenClientFilterIsSentToServer() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        when(collection.updateMany(any(Bson.class), any(Bson.class), any(UpdateOptions.class))).thenReturn(Mono.just(UpdateResult.acknowledged(1, 1L, null)));
+        template.updateMulti(Query.query(Criteria.where("status")
+                        .is("new")), Update.update("status", "done"), COLLECTION)
+                .contextWrite(ReactiveClientContext.withClient(ASSOCIATION))
+                .block();
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).updateMany(filter.capture(), any(Bson.class), any(UpdateOptions.class));
+        assertEquals(new Document("status", "new").append("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClientInReactorContext_whenRemoved_thenClientFilterIsSentToServer() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        when(collection.deleteMany(any(Bson.class), any(DeleteOptions.class))).thenReturn(Mono.just(DeleteResult.acknowledged(1)));
+        template.remove(Query.query(Criteria.where("status")
+                        .is("done")), COLLECTION)
+                .contextWrite(ReactiveClientContext.withClient(ASSOCIATION))
+                .block();
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).deleteMany(filter.capture(), any(DeleteOptions.class));
+        assertEquals(new Document("status", "done").append("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClientInReactorContext_whenInserted_thenModelIsStampedWithClient() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        when(collection.insertOne(any(Document.class))).thenReturn(Mono.just(InsertOneResult.acknowledged(new BsonObjectId())));
+        BaseClientAwareMongoModel model = template.insert(new BaseClientAwareMongoModel(), COLLECTION)
+                .contextWrite(ReactiveClientContext.withClient(ASSOCIATION))
+                .block();
+        assertNotNull(model);
+        assertEquals(7, model.getClientId());
+        assertEquals("writer", model.getCreatedBy());
+        assertNotNull(model.getCreatedAt());
+        ArgumentCaptor<Document> document = ArgumentCaptor.forClass(Document.class);
+        verify(collection).insertOne(document.capture());
+        assertEquals(7, document.getValue()
+                .get("client_id"));
+    }
+
+    @Test
+    void givenClientAwareTemplate_whenBulkOpsRequested_thenItIsRejected() {
+
+        ClientAwareReactiveMongoTemplate template = template();
+        assertThrows(UnsupportedOperationException.class, () -> template.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION));
+        assertThrows(UnsupportedOperationException.class, () -> template.bulkOps(BulkOperations.BulkMode.ORDERED, BaseClientAwareMongoModel.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FindPublisher<Document> emptyFindPublisher() {
+
+        FindPublisher<Document> findPublisher = mock(FindPublisher.class, RETURNS_SELF);
+        doAnswer(invocation -> {
+            Flux.<Document>empty()
+                    .subscribe(invocation.<Subscriber<Document>>getArgument(0));
+            return null;
+        }).when(findPublisher)
+                .subscribe(any());
+        return findPublisher;
+    }
+
+    private ClientAwareReactiveMongoTemplate template() {
+
+        ReactiveMongoDatabaseFactory mongoDatabaseFactory = mock(ReactiveMongoDatabaseFactory.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(mongoDatabaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        when(mongoDatabaseFactory.getMongoDatabase()).thenReturn(Mono.just(database));
+        when(database.getCollection(COLLECTION, Document.class)).thenReturn(collection);
+        return new ClientAwareReactiveMongoTemplate(mongoDatabaseFactory, new DateTimeFormatProperties(DateTimeFormatProperties.DEFAULT_ZONE, null));
+    }
+}
@@ -1,5 +1,6 @@
 package dev.autonu.framework.common.bootstrap;
 
+import dev.autonu.framework.common.logging.ClientAsyncLoggingListener;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.SpringApplication;
@@ -11,9 +12,11 @@ import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.MapPropertySource;
 import org.springframework.core.env.MutablePropertySources;
 import org.springframework.core.env.PropertiesPropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 import java.io.File;
 import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -59,6 +62,23 @@ class LogPatternAutoConfigPostProcessorTest {
         Assertions.assertEquals(LogPatternAutoConfigPostProcessor.LOGGING_PATTERN, mapPropertySource.getProperty(LogPatternAutoConfigPostProcessor.SPRING_LOGGING_PATTERN_CONSOLE_PROPERTY));
     }
 
+    @Test
+    void givenAsyncLoggingEnabled_whenProcessed_thenAsyncLoggingListenerIsAdded() {
+
+        SpringApplication application = new SpringApplication(LogPatternAutoConfigPostProcessor.class);
+        StandardEnvironment environment = new StandardEnvironment();
+        new LogPatternAutoConfigPostProcessor().postProcessEnvironment(environment, application);
+        assertTrue(application.getListeners()
+                .stream()
+                .noneMatch(ClientAsyncLoggingListener.class::isInstance));
+        environment.getPropertySources()
+                .addFirst(new MapPropertySource("testProperties", Map.of(LogPatternAutoConfigPostProcessor.LOGGING_ASYNC_PREFIX + ".enabled", "true")));
+        new LogPatternAutoConfigPostProcessor().postProcessEnvironment(environment, application);
+        assertTrue(application.getListeners()
+                .stream()
+                .anyMatch(ClientAsyncLoggingListener.class::isInstance));
+    }
+
     private PropertiesPropertySource propertiesPropertySource(String value) {
 
         Properties properties = new Properties();
@@ -0,0 +1,48 @@
+package dev.autonu.framework.common.bootstrap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class VirtualThreadAutoConfigPostProcessorTest {
+
+    @Test
+    void givenPropertyOnJava21_whenProcessed_thenVirtualThreadsAreEnabled() {
+
+        MockEnvironment environment = new MockEnvironment().withProperty(VirtualThreadAutoConfigPostProcessor.VIRTUAL_THREADS_PROPERTY, "true");
+        postProcessor(21).postProcessEnvironment(environment, new SpringApplication());
+        assertEquals("true", environment.getProperty(VirtualThreadAutoConfigPostProcessor.SPRING_VIRTUAL_THREADS_PROPERTY));
+    }
+
+    @Test
+    void givenPropertyOnJava17_whenProcessed_thenVirtualThreadsAreNotEnabled() {
+
+        MockEnvironment environment = new MockEnvironment().withProperty(VirtualThreadAutoConfigPostProcessor.VIRTUAL_THREADS_PROPERTY, "true");
+        postProcessor(17).postProcessEnvironment(environment, new SpringApplication());
+        assertFalse(environment.containsProperty(VirtualThreadAutoConfigPostProcessor.SPRING_VIRTUAL_THREADS_PROPERTY));
+    }
+
+    @Test
+    void givenNoProperty_whenProcessed_thenEnvironmentIsUnchanged() {
+
+        StandardEnvironment environment = new StandardEnvironment();
+        postProcessor(21).postProcessEnvironment(environment, new SpringApplication());
+        assertFalse(environment.getPropertySources()
+                .contains(VirtualThreadAutoConfigPostProcessor.PROPERTY_SOURCE_NAME));
+    }
+
+    private static VirtualThreadAutoConfigPostProcessor postProcessor(int javaVersion) {
+        return new VirtualThreadAutoConfigPostProcessor() {
+            @Override
+            protected int javaVersion() {
+                return javaVersion;
+            }
+        };
+    }
+}
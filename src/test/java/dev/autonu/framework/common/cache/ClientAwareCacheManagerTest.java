@@ -0,0 +1,132 @@
+package dev.autonu.framework.common.cache;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareCacheManagerTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ClientAwareCacheManager cacheManager = new ClientAwareCacheManager(new ClientCacheProperties(true, 2, Map.of(2, 1), true), new ClientOperationMetrics(registry, ClientOperationMetrics.CACHE_PREFIX, ClientOperationMetrics.CACHE_TARGET_TAG, 10));
+
+    @Test
+    void givenValueOfOneClient_whenReadByAnotherClient_thenItIsNotFound() {
+
+        Cache cache = cacheManager.getCache("orders");
+        asClient(1, () -> {
+            cache.put("key", "first");
+            return null;
+        });
+        assertEquals("first", asClient(1, () -> cache.get("key", String.class)));
+        assertNull(asClient(2, () -> cache.get("key")));
+        assertEquals("second", asClient(2, () -> cache.get("key", () -> "second")));
+        assertEquals(1, registry.get(ClientOperationMetrics.CACHE_PREFIX + "." + ClientAwareCache.GETS_METRIC)
+                .tags("cache", "orders", "client", "1", "result", "hit")
+                .functionCounter()
+                .count());
+        assertEquals(1.0, ((ClientAwareCache) cache).hitRate(1));
+        assertEquals(0.0, ((ClientAwareCache) cache).hitRate(2));
+    }
+
+    @Test
+    void givenQuotas_whenClientExceedsItsQuota_thenOnlyItsOwnEntriesAreEvicted() {
+
+        ClientAwareCache cache = (ClientAwareCache) cacheManager.getCache("orders");
+        asClient(1, () -> {
+            cache.put("a", "a");
+            cache.put("b", "b");
+            return null;
+        });
+        asClient(2, () -> {
+            cache.put("a", "a");
+            cache.put("b", "b");
+            cache.put("c", "c");
+            return null;
+        });
+        assertEquals(2, cache.size(1));
+        assertEquals(1, cache.size(2));
+        assertEquals(2, registry.get(ClientOperationMetrics.CACHE_PREFIX + "." + ClientAwareCache.EVICTIONS_METRIC)
+                .tags("client", "2")
+                .functionCounter()
+                .count());
+        cacheManager.evictClient(1);
+        assertEquals(0, cache.size(1));
+        assertEquals(1, cache.size(2));
+    }
+
+    @Test
+    void givenEntriesOfSeveralClients_whenClearedWithoutClient_thenAllClientsAreCleared() {
+
+        Cache cache = cacheManager.getCache("orders");
+        asClient(1, () -> {
+            cache.put("key", "first");
+            return null;
+        });
+        asClient(3, () -> {
+            cache.put("key", "third");
+            return null;
+        });
+        asClient(1, () -> {
+            cache.clear();
+            return null;
+        });
+        assertNull(asClient(1, () -> cache.get("key")));
+        assertEquals("third", asClient(3, () -> cache.get("key", String.class)));
+        cache.clear();
+        assertNull(asClient(3, () -> cache.get("key")));
+    }
+
+    @Test
+    void givenMaxClients_whenAnotherClientUsesTheCache_thenClientUsedLeastRecentlyIsDropped() {
+
+        ClientOperationMetrics metrics = new ClientOperationMetrics(registry, ClientOperationMetrics.CACHE_PREFIX, ClientOperationMetrics.CACHE_TARGET_TAG, 0);
+        ClientAwareCache cache = new ClientAwareCache("orders", clientId -> 0, 1, true, metrics);
+        asClient(1, () -> {
+            cache.put("key", "first");
+            return cache.get("key");
+        });
+        asClient(2, () -> cache.get("key"));
+        assertEquals(0, cache.size(1));
+        assertTrue(Double.isNaN(cache.hitRate(1)));
+        assertEquals(1, registry.get(ClientOperationMetrics.CACHE_PREFIX + "." + ClientAwareCache.GETS_METRIC)
+                .tags("client", "other", "result", "hit")
+                .functionCounter()
+                .count());
+        assertEquals(1, registry.get(ClientOperationMetrics.CACHE_PREFIX + "." + ClientAwareCache.GETS_METRIC)
+                .tags("client", "other", "result", "miss")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    void givenNoClient_whenCacheIsRead_thenItIsCountedWithoutClient() {
+
+        cacheManager.getCache("orders")
+                .get("key");
+        assertEquals(1, registry.get(ClientOperationMetrics.CACHE_PREFIX + "." + ClientAwareCache.GETS_METRIC)
+                .tags("client", "none", "result", "miss")
+                .functionCounter()
+                .count());
+    }
+
+    private static <T> T asClient(Integer clientId, Supplier<T> supplier) {
+
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(clientId, 1L, "user"))) {
+            return supplier.get();
+        }
+    }
+}
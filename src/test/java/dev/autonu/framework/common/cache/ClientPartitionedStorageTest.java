@@ -0,0 +1,152 @@
+package dev.autonu.framework.common.cache;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.hibernate.cache.cfg.spi.EntityDataCachingConfig;
+import org.hibernate.cache.spi.CacheTransactionSynchronization;
+import org.hibernate.cache.spi.DomainDataRegion;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.EntityReadWriteAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author autonu2X
+ */
+class ClientPartitionedStorageTest {
+
+    private final ClientPartitionedStorage storage = new ClientPartitionedStorage("orders", 2, 2);
+
+    @Test
+    void givenEntryOfOneClient_whenReadByAnotherClient_thenItIsNotFound() {
+
+        asClient(1, () -> {
+            storage.putIntoCache("key", "first", null);
+            return null;
+        });
+        assertEquals("first", asClient(1, () -> storage.getFromCache("key", null)));
+        assertNull(asClient(2, () -> storage.getFromCache("key", null)));
+        assertFalse(asClient(2, () -> storage.contains("key")));
+    }
+
+    @Test
+    void givenFullPartition_whenPut_thenLeastRecentlyUsedEntryOfThatClientIsDropped() {
+
+        asClient(1, () -> {
+            storage.putIntoCache("a", "a", null);
+            storage.putIntoCache("b", "b", null);
+            storage.getFromCache("a", null);
+            storage.putIntoCache("c", "c", null);
+            return null;
+        });
+        asClient(2, () -> {
+            storage.putIntoCache("d", "d", null);
+            return null;
+        });
+        assertEquals(2, storage.size(1));
+        assertNull(asClient(1, () -> storage.getFromCache("b", null)));
+        assertEquals("a", asClient(1, () -> storage.getFromCache("a", null)));
+        storage.evictClient(1);
+        assertEquals(0, storage.size(1));
+        assertEquals(1, storage.size(2));
+    }
+
+    @Test
+    void givenMaxClients_whenAnotherClientPuts_thenPartitionUsedLeastRecentlyIsDropped() {
+
+        asClient(1, () -> {
+            storage.putIntoCache("a", "a", null);
+            return null;
+        });
+        asClient(2, () -> {
+            storage.putIntoCache("b", "b", null);
+            return null;
+        });
+        assertEquals("a", asClient(1, () -> storage.getFromCache("a", null)));
+        asClient(3, () -> {
+            storage.putIntoCache("c", "c", null);
+            return null;
+        });
+        assertEquals(1, storage.size(1));
+        assertEquals(0, storage.size(2));
+        assertEquals(1, storage.size(3));
+    }
+
+    @Test
+    void givenEntryOfSeveralClients_whenRemoved_thenItIsRemovedForAllClients() {
+
+        asClient(1, () -> {
+            storage.putIntoCache("key", "first", null);
+            return null;
+        });
+        asClient(2, () -> {
+            storage.putIntoCache("key", "second", null);
+            storage.removeFromCache("key", null);
+            return null;
+        });
+        assertNull(asClient(1, () -> storage.getFromCache("key", null)));
+    }
+
+    @Test
+    void givenEntryOfSeveralClients_whenPutByOneClient_thenItIsRemovedForOtherClients() {
+
+        asClient(1, () -> {
+            storage.putIntoCache("key", "first", null);
+            return null;
+        });
+        asClient(2, () -> {
+            storage.putIntoCache("key", "second", null);
+            return null;
+        });
+        assertNull(asClient(1, () -> storage.getFromCache("key", null)));
+        assertEquals("second", asClient(2, () -> storage.getFromCache("key", null)));
+    }
+
+    @Test
+    void givenEntryLoadedBySeveralClients_whenUpdatedWithReadWriteAccess_thenNoClientReadsTheStaleValue() {
+
+        DomainDataRegion region = mock(DomainDataRegion.class);
+        RegionFactory regionFactory = mock(RegionFactory.class);
+        when(region.getName()).thenReturn("orders");
+        when(region.getRegionFactory()).thenReturn(regionFactory);
+        when(regionFactory.nextTimestamp()).thenReturn(10L);
+        when(regionFactory.getTimeout()).thenReturn(60_000L);
+        EntityReadWriteAccess access = new EntityReadWriteAccess(region, null, storage, mock(EntityDataCachingConfig.class));
+        SharedSessionContractImplementor loadSession = session(1L);
+        SharedSessionContractImplementor readSession = session(20L);
+        asClient(1, () -> access.putFromLoad(loadSession, "key", "old", null));
+        asClient(2, () -> access.putFromLoad(loadSession, "key", "old", null));
+        assertEquals("old", asClient(2, () -> access.get(readSession, "key")));
+        SoftLock lock = asClient(1, () -> access.lockItem(readSession, "key", null));
+        assertNull(asClient(2, () -> access.get(readSession, "key")));
+        assertEquals(0, storage.size(2));
+        asClient(1, () -> access.afterUpdate(readSession, "key", "new", null, null, lock));
+        assertNull(asClient(2, () -> access.get(readSession, "key")));
+        assertFalse(asClient(2, () -> access.putFromLoad(loadSession, "key", "old", null)));
+        assertEquals("new", asClient(1, () -> access.get(session(30L), "key")));
+    }
+
+    private static SharedSessionContractImplementor session(long timestamp) {
+
+        SharedSessionContractImplementor session = mock(SharedSessionContractImplementor.class);
+        CacheTransactionSynchronization synchronization = mock(CacheTransactionSynchronization.class);
+        when(session.getCacheTransactionSynchronization()).thenReturn(synchronization);
+        when(synchronization.getCachingTimestamp()).thenReturn(timestamp);
+        return session;
+    }
+
+    private static <T> T asClient(Integer clientId, Supplier<T> supplier) {
+
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(clientId, 1L, "user"))) {
+            return supplier.get();
+        }
+    }
+}
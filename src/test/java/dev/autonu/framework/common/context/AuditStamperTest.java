@@ -0,0 +1,46 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class AuditStamperTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Kolkata");
+
+    @Test
+    void givenAssociationWithoutUsername_whenStamped_thenClientIdIsUsernameAndTimestampsAreEqual() {
+
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZONE);
+        AuditStamper auditStamper = new AuditStamper(clock, Duration.ZERO);
+        BaseClientAwareMongoModel model = new BaseClientAwareMongoModel();
+        ClientUserAssociation association = new ClientUserAssociation(7, 1L, null);
+        auditStamper.stampCreated(model, association, auditStamper.now());
+        assertEquals(7, model.getClientId());
+        assertEquals("7", model.getCreatedBy());
+        assertEquals("7", model.getUpdatedBy());
+        assertSame(model.getCreatedAt(), model.getUpdatedAt());
+        assertEquals(ZonedDateTime.ofInstant(clock.instant(), ZONE), model.getCreatedAt());
+        assertSame(auditStamper.username(association), auditStamper.username(association));
+    }
+
+    @Test
+    void givenPrecision_whenReadTwice_thenTimestampIsReused() {
+
+        AuditStamper coarse = new AuditStamper(Clock.system(ZONE), Duration.ofHours(1));
+        assertSame(coarse.now(), coarse.now());
+        AuditStamper exact = new AuditStamper(Clock.system(ZONE), Duration.ZERO);
+        assertNotSame(exact.now(), exact.now());
+    }
+}
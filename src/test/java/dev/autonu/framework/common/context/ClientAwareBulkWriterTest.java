@@ -0,0 +1,125 @@
+package dev.autonu.framework.common.context;
+
+import com.mongodb.bulk.BulkWriteResult;
+import dev.autonu.framework.common.model.BaseClientAwareMongoModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareBulkWriterTest {
+
+    private final BulkOperations bulkOperations = mock(BulkOperations.class);
+    private ClientAwareMongoTemplate template;
+
+    @BeforeEach
+    void setUp() {
+
+        MongoDatabaseFactory mongoDatabaseFactory = mock(MongoDatabaseFactory.class);
+        when(mongoDatabaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        template = spy(new ClientAwareMongoTemplate(mongoDatabaseFactory, new DateTimeFormatProperties(DateTimeFormatProperties.DEFAULT_ZONE, null)));
+        doReturn(bulkOperations).when(template)
+                .unrestrictedBulkOps(any(BulkOperations.BulkMode.class), any(Class.class), anyString());
+        when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(2, 0, 0, 0, List.of(), List.of()));
+        ClientContext.set(new ClientUserAssociation(7, 1L, "writer"));
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ClientContext.clear();
+    }
+
+    @Test
+    void givenBatchSizeReached_whenOperationsAdded_thenStampedBatchIsWritten() {
+
+        List<ClientAwareBulkWriter.BatchResult> batchResults = new ArrayList<>();
+        ClientAwareBulkWriter<BaseClientAwareMongoModel> writer = new ClientAwareBulkWriter<>(template, BaseClientAwareMongoModel.class, "models", 2, Duration.ofHours(1));
+        writer.setBatchListener(batchResults::add);
+        BaseClientAwareMongoModel model = new BaseClientAwareMongoModel();
+        writer.insert(model);
+        assertEquals(1, writer.getPendingOperations());
+        verify(bulkOperations, never()).execute();
+        Query query = Query.query(Criteria.where("status")
+                .is("new"));
+        Update update = Update.update("status", "done");
+        writer.updateMulti(query, update);
+        ArgumentCaptor<Query> sentQuery = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> sentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).updateMulti(sentQuery.capture(), sentUpdate.capture());
+        verify(bulkOperations).execute();
+        assertEquals(0, writer.getPendingOperations());
+        assertEquals(7, model.getClientId());
+        assertEquals("writer", model.getCreatedBy());
+        assertEquals(new Document("status", "new").append("client_id", 7), sentQuery.getValue()
+                .getQueryObject());
+        assertEquals(new Document("status", "new"), query.getQueryObject());
+        Document set = sentUpdate.getValue()
+                .getUpdateObject()
+                .get("$set", Document.class);
+        assertEquals("done", set.get("status"));
+        assertEquals("writer", set.get("updated_by"));
+        assertNotNull(set.get("updated_at"));
+        assertFalse(sentUpdate.getValue()
+                .getUpdateObject()
+                .containsKey("$setOnInsert"));
+        assertEquals(new Document("$set", new Document("status", "done")), update.getUpdateObject());
+        assertEquals(1, batchResults.size());
+        assertEquals(2, batchResults.get(0)
+                .operations());
+        assertEquals(2, batchResults.get(0)
+                .inserted());
+    }
+
+    @Test
+    void givenPendingOperations_whenClosed_thenRemainingBatchIsWritten() {
+
+        ClientAwareBulkWriter<BaseClientAwareMongoModel> writer = new ClientAwareBulkWriter<>(template, BaseClientAwareMongoModel.class, "models", 100, Duration.ofHours(1));
+        assertNull(writer.flush());
+        writer.remove(new Query());
+        writer.close();
+        verify(bulkOperations).remove(any(Query.class));
+        verify(bulkOperations).execute();
+        assertNull(writer.flush());
+    }
+
+    @Test
+    void givenUpsert_whenAdded_thenClientIdAndCreatedFieldsAreSetOnInsert() {
+
+        ClientAwareBulkWriter<BaseClientAwareMongoModel> writer = new ClientAwareBulkWriter<>(template, BaseClientAwareMongoModel.class, "models", 100, Duration.ofHours(1));
+        writer.upsert(Query.query(Criteria.where("code")
+                .is("A")), new Update().inc("count", 1));
+        ArgumentCaptor<Update> sentUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(bulkOperations).upsert(any(Query.class), sentUpdate.capture());
+        Document updateObject = sentUpdate.getValue()
+                .getUpdateObject();
+        assertEquals(new Document("count", 1), updateObject.get("$inc"));
+        assertEquals("writer", updateObject.get("$set", Document.class)
+                .get("updated_by"));
+        Document setOnInsert = updateObject.get("$setOnInsert", Document.class);
+        assertEquals(7, setOnInsert.get("client_id"));
+        assertEquals("writer", setOnInsert.get("created_by"));
+        assertNotNull(setOnInsert.get("created_at"));
+    }
+}
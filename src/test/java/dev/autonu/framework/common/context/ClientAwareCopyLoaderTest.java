@@ -0,0 +1,141 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.error.InvalidClientUserAssociationException;
+import dev.autonu.framework.common.model.BaseSequenceClientAwareModel;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareCopyLoaderTest {
+
+    private final DataSource dataSource = mock(DataSource.class);
+    private final AuditStamper auditStamper = new AuditStamper(Clock.fixed(Instant.parse("2000-01-01T00:00:01Z"), ZoneOffset.UTC), Duration.ZERO);
+    private final ClientAwareCopyLoader<Order> loader = new ClientAwareCopyLoader<>(dataSource, auditStamper, "sales.orders", List.of(new ClientAwareCopyLoader.CopyColumn<>("name", CopyType.TEXT, Order::getName)));
+
+    static class Order extends BaseSequenceClientAwareModel {
+
+        private final String name;
+
+        Order(String name) {
+
+            this.name = name;
+        }
+
+        String getName() {
+
+            return name;
+        }
+    }
+
+    @Test
+    void givenColumns_whenCreated_thenAuditColumnsArePartOfCopyStatement() {
+
+        assertEquals("COPY sales.orders (client_id, created_by, updated_by, created_at, updated_at, version, name) FROM STDIN (FORMAT BINARY)", loader.getCopyStatement());
+        assertThrows(IllegalArgumentException.class, () -> new ClientAwareCopyLoader<Order>(dataSource, auditStamper, "orders; drop table orders", List.of()));
+    }
+
+    @Test
+    void givenEntities_whenWritten_thenRowsAreStampedAndEncodedInBinaryFormat() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Order order = new Order(null);
+        loader.write(out, List.of(new Order("first"), order)
+                .iterator(), new ClientUserAssociation(7, 1L, null));
+        assertEquals(7, order.getClientId());
+        assertEquals("7", order.getCreatedBy());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals("PGCOPY\n", new String(in.readNBytes(7), StandardCharsets.US_ASCII));
+        in.skipNBytes(4 + 8);
+        assertEquals(7, in.readShort());
+        assertEquals(4, in.readInt());
+        assertEquals(7, in.readInt());
+        assertEquals(1, in.readInt());
+        assertEquals('7', in.readByte());
+        in.skipNBytes(4 + 1);
+        assertEquals(8, in.readInt());
+        assertEquals(1_000_000, in.readLong());
+        in.skipNBytes(4 + 8 + 4 + 4);
+        assertEquals(5, in.readInt());
+        assertEquals("first", new String(in.readNBytes(5), StandardCharsets.UTF_8));
+        assertEquals(7, in.readShort());
+        in.skipNBytes(8 + 5 + 5 + 12 + 12 + 8);
+        assertEquals(-1, in.readInt());
+        assertEquals(-1, in.readShort());
+        assertEquals(0, in.available());
+    }
+
+    @Test
+    void givenNoClient_whenCopied_thenCopyIsRejected() {
+
+        assertThrows(InvalidClientUserAssociationException.class, () -> loader.copy(Stream.of(new Order("first"))));
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void givenAllRowsWritten_whenCopied_thenCopyIsEnded() throws SQLException {
+
+        CopyIn copyIn = copyIn();
+        when(copyIn.getHandledRowCount()).thenReturn(2L);
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(7, 1L, null))) {
+            assertEquals(2, loader.copy(Stream.of(new Order("first"), new Order("second"))));
+        }
+        verify(copyIn).endCopy();
+        verify(copyIn, never()).cancelCopy();
+    }
+
+    @Test
+    void givenSourceFailingBetweenRows_whenCopied_thenCopyIsCancelledAndNotEnded() throws SQLException {
+
+        CopyIn copyIn = copyIn();
+        Stream<Order> failing = Stream.of(new Order("first"), new Order("second"))
+                .map(order -> {
+                    if ("second".equals(order.getName())) {
+                        throw new IllegalStateException("source failed");
+                    }
+                    return order;
+                });
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(7, 1L, null))) {
+            assertThrows(IllegalStateException.class, () -> loader.copy(failing));
+        }
+        verify(copyIn).cancelCopy();
+        verify(copyIn, never()).endCopy();
+    }
+
+    private CopyIn copyIn() throws SQLException {
+
+        Connection connection = mock(Connection.class);
+        PGConnection pgConnection = mock(PGConnection.class);
+        CopyManager copyManager = mock(CopyManager.class);
+        CopyIn copyIn = mock(CopyIn.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+        when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+        when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+        when(copyIn.isActive()).thenReturn(true);
+        return copyIn;
+    }
+}
@@ -0,0 +1,67 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareDataSourceAutotunerTest {
+
+    private static final ClientAwareDataSourceProperties.Autotune AUTOTUNE = new ClientAwareDataSourceProperties.Autotune(true, 2, 20, Duration.ofSeconds(10), Duration.ofMillis(5), 0.5, 2);
+
+    @Test
+    void givenSaturatedPool_whenSampledStableSamplesTimes_thenPoolGrows() {
+
+        ClientAwareDataSource dataSource = dataSource(8);
+        ClientAwareDataSourceAutotuner autotuner = new ClientAwareDataSourceAutotuner(dataSource, AUTOTUNE);
+        ClientAwareDataSourceAutotuner.Sample sample = new ClientAwareDataSourceAutotuner.Sample(Duration.ofMillis(20)
+                .toNanos(), 8, 3);
+        assertNull(autotuner.tune(sample));
+        ClientAwareDataSourceAutotuner.Decision decision = autotuner.tune(sample);
+        assertNotNull(decision);
+        assertEquals(8, decision.previousMaximumPoolSize());
+        assertEquals(10, dataSource.getMaximumPoolSize());
+        assertEquals(8, dataSource.getMinimumIdle());
+        assertEquals(1, autotuner.getDecisions()
+                .size());
+    }
+
+    @Test
+    void givenUnderutilizedPool_whenSampledTwiceStableSamplesTimes_thenPoolShrinks() {
+
+        ClientAwareDataSource dataSource = dataSource(8);
+        ClientAwareDataSourceAutotuner autotuner = new ClientAwareDataSourceAutotuner(dataSource, AUTOTUNE);
+        ClientAwareDataSourceAutotuner.Sample sample = new ClientAwareDataSourceAutotuner.Sample(0, 1, 0);
+        for (int i = 0; i < 3; i++) {
+            assertNull(autotuner.tune(sample));
+        }
+        assertNotNull(autotuner.tune(sample));
+        assertEquals(7, dataSource.getMaximumPoolSize());
+        assertEquals(2, dataSource.getMinimumIdle());
+    }
+
+    @Test
+    void givenPoolAtBounds_whenSampled_thenPoolIsNotResized() {
+
+        ClientAwareDataSource dataSource = dataSource(20);
+        ClientAwareDataSourceAutotuner autotuner = new ClientAwareDataSourceAutotuner(dataSource, AUTOTUNE);
+        ClientAwareDataSourceAutotuner.Sample sample = new ClientAwareDataSourceAutotuner.Sample(Duration.ofMillis(20)
+                .toNanos(), 20, 5);
+        for (int i = 0; i < 5; i++) {
+            assertNull(autotuner.tune(sample));
+        }
+        assertEquals(20, dataSource.getMaximumPoolSize());
+    }
+
+    private ClientAwareDataSource dataSource(int maximumPoolSize) {
+
+        ClientAwareDataSource dataSource = new ClientAwareDataSource("app.current_client_id");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        return dataSource;
+    }
+}
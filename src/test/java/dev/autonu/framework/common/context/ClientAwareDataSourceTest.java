@@ -0,0 +1,113 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareDataSourceTest {
+
+    private final ClientAwareDataSource dataSource = new ClientAwareDataSource("app.current_client_id");
+
+    @AfterEach
+    void tearDown() {
+
+        dataSource.close();
+    }
+
+    @Test
+    void givenAdmissionWaitedForTheConnectionTimeout_whenConnectionRequested_thenItFailsAtTheDeadline() throws Exception {
+
+        dataSource.setDataSource(driverDataSource());
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(500);
+        dataSource.setAdmissionPermits(1);
+        Connection held = dataSource.getConnection();
+        CompletableFuture<Void> waitingInPool = CompletableFuture.runAsync(() -> assertThrows(SQLTransientConnectionException.class, dataSource::getConnection));
+        Thread.sleep(50);
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(800));
+        waitingInPool.get(5, TimeUnit.SECONDS);
+        held.close();
+    }
+
+    @Test
+    void givenAdmissionFollowingPoolSize_whenPoolIsResized_thenPermitsAreResized() throws SQLException {
+
+        dataSource.setDataSource(driverDataSource());
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setAdmissionPermitsToPoolSize();
+        dataSource.getConnection()
+                .close();
+        assertEquals(2, dataSource.getAdmissionPermits());
+        dataSource.setMaximumPoolSize(4);
+        dataSource.getConnection()
+                .close();
+        assertEquals(4, dataSource.getAdmissionPermits());
+        dataSource.setMaximumPoolSize(3);
+        dataSource.getConnection()
+                .close();
+        assertEquals(3, dataSource.getAdmissionPermits());
+        dataSource.setAdmissionPermits(1);
+        dataSource.setMaximumPoolSize(4);
+        dataSource.getConnection()
+                .close();
+        assertEquals(1, dataSource.getAdmissionPermits());
+    }
+
+    @Test
+    void givenNoClient_whenConnectionRequested_thenItIsRecordedWithoutClient() throws SQLException {
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.setDataSource(driverDataSource());
+        dataSource.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.DATASOURCE_PREFIX, ClientOperationMetrics.DATASOURCE_TARGET_TAG, 10));
+        dataSource.getConnection()
+                .close();
+        assertEquals(1, registry.get(ClientOperationMetrics.DATASOURCE_PREFIX + ".operations")
+                .tag("client", "none")
+                .timer()
+                .count());
+        assertTrue(registry.find(ClientOperationMetrics.DATASOURCE_PREFIX + ".operations")
+                .tag("client", "-1")
+                .timers()
+                .isEmpty());
+    }
+
+    private static DataSource driverDataSource() throws SQLException {
+
+        DataSource driverDataSource = mock(DataSource.class);
+        when(driverDataSource.getConnection()).thenAnswer(invocation -> connection());
+        return driverDataSource;
+    }
+
+    private static Connection connection() throws SQLException {
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(connection.unwrap(Connection.class)).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(mock(ResultSet.class));
+        return connection;
+    }
+}
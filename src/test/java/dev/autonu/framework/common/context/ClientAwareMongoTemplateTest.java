@@ -0,0 +1,172 @@
+package dev.autonu.framework.common.context;
+
+import com.mongodb.MongoNamespace;
+import com.mongodb.client.DistinctIterable;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.CountOptions;
+import com.mongodb.client.model.EstimatedDocumentCountOptions;
+import dev.autonu.framework.common.error.UnboundedResultSetException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.DateTimeFormatProperties;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareMongoTemplateTest {
+
+    private static final String COLLECTION = "orders";
+    private static final Document CLIENT_FILTER = new Document("client_id", 7);
+    @SuppressWarnings("unchecked")
+    private final MongoCollection<Document> collection = mock(MongoCollection.class, RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final FindIterable<Document> findIterable = mock(FindIterable.class, RETURNS_SELF);
+    @SuppressWarnings("unchecked")
+    private final MongoCursor<Document> cursor = mock(MongoCursor.class);
+    private ClientAwareMongoTemplate template;
+
+    @BeforeEach
+    void setUp() {
+
+        MongoDatabaseFactory mongoDatabaseFactory = mock(MongoDatabaseFactory.class);
+        MongoDatabase database = mock(MongoDatabase.class);
+        when(mongoDatabaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        when(mongoDatabaseFactory.getMongoDatabase()).thenReturn(database);
+        when(database.getCollection(COLLECTION, Document.class)).thenReturn(collection);
+        when(collection.find(any(Bson.class), eq(Document.class))).thenReturn(findIterable);
+        when(findIterable.iterator()).thenReturn(cursor);
+        when(findIterable.cursor()).thenReturn(cursor);
+        template = new ClientAwareMongoTemplate(mongoDatabaseFactory, new DateTimeFormatProperties(DateTimeFormatProperties.DEFAULT_ZONE, null));
+        ClientContext.set(new ClientUserAssociation(7, 1L, "reader"));
+    }
+
+    @AfterEach
+    void tearDown() {
+
+        ClientContext.clear();
+    }
+
+    @Test
+    void givenClient_whenFindAll_thenClientFilterAndLimitAreSentToServer() {
+
+        template.findAll(Document.class, COLLECTION);
+        assertEquals(CLIENT_FILTER, sentFilter());
+        verify(findIterable).limit(ClientAwareMongoTemplate.DEFAULT_MAX_FIND_ALL_RESULTS + 1);
+    }
+
+    @Test
+    void givenMoreDocumentsThanMaxFindAllResults_whenFindAll_thenItIsRejected() {
+
+        template.setMaxFindAllResults(2);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn(new Document("_id", 1), new Document("_id", 2), new Document("_id", 3));
+        assertThrows(UnboundedResultSetException.class, () -> template.findAll(Document.class, COLLECTION));
+        verify(findIterable).limit(3);
+    }
+
+    @Test
+    void givenAsManyDocumentsAsMaxFindAllResults_whenFindAll_thenTheyAreReturned() {
+
+        template.setMaxFindAllResults(2);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(new Document("_id", 1), new Document("_id", 2));
+        assertEquals(2, template.findAll(Document.class, COLLECTION)
+                .size());
+    }
+
+    @Test
+    void givenClient_whenStreamAll_thenClientFilterIsSentToServer() {
+
+        try (Stream<Document> documents = template.streamAll(Document.class, COLLECTION)) {
+            assertEquals(0, documents.count());
+        }
+        assertEquals(CLIENT_FILTER, sentFilter());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenClient_whenFindDistinct_thenClientFilterIsSentToServer() {
+
+        DistinctIterable<Object> distinctIterable = mock(DistinctIterable.class, RETURNS_SELF);
+        when(collection.distinct(anyString(), any(Bson.class), any(Class.class))).thenReturn(distinctIterable);
+        template.findDistinct(Query.query(Criteria.where("status")
+                .is("new")), "region", COLLECTION, Document.class, String.class);
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).distinct(eq("region"), filter.capture(), any(Class.class));
+        assertEquals(new Document("status", "new").append("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClient_whenScroll_thenClientFilterIsSentToServer() {
+
+        template.scroll(new Query().limit(10), Document.class, COLLECTION);
+        assertEquals(CLIENT_FILTER, sentFilter());
+    }
+
+    @Test
+    void givenClient_whenEstimatedCount_thenExactCountOfClientIsPerformed() {
+
+        when(collection.countDocuments(any(Bson.class), any(CountOptions.class))).thenReturn(3L);
+        assertEquals(3, template.estimatedCount(COLLECTION));
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).countDocuments(filter.capture(), any(CountOptions.class));
+        assertEquals(CLIENT_FILTER, filter.getValue());
+        verify(collection, never()).estimatedDocumentCount(any(EstimatedDocumentCountOptions.class));
+    }
+
+    @Test
+    void givenDocumentOfOtherClient_whenExists_thenItIsNotReported() {
+
+        Document otherClientDocument = new Document("status", "new").append("client_id", 8);
+        when(collection.getNamespace()).thenReturn(new MongoNamespace("app", COLLECTION));
+        when(collection.countDocuments(any(Bson.class), any(CountOptions.class))).thenAnswer(invocation -> {
+            Document filter = invocation.getArgument(0);
+            return filter.entrySet()
+                    .stream()
+                    .allMatch(entry -> entry.getValue()
+                            .equals(otherClientDocument.get(entry.getKey()))) ? 1L : 0L;
+        });
+        assertFalse(template.exists(Query.query(Criteria.where("status")
+                .is("new")), COLLECTION));
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).countDocuments(filter.capture(), any(CountOptions.class));
+        assertEquals(new Document("status", "new").append("client_id", 7), filter.getValue());
+    }
+
+    @Test
+    void givenClientAwareTemplate_whenBulkOpsRequested_thenItIsRejected() {
+
+        assertThrows(UnsupportedOperationException.class, () -> template.bulkOps(BulkOperations.BulkMode.UNORDERED, COLLECTION));
+        assertThrows(UnsupportedOperationException.class, () -> template.bulkOps(BulkOperations.BulkMode.ORDERED, Document.class));
+        assertThrows(UnsupportedOperationException.class, () -> template.bulkOps(BulkOperations.BulkMode.ORDERED, Document.class, COLLECTION));
+    }
+
+    private Bson sentFilter() {
+
+        ArgumentCaptor<Bson> filter = ArgumentCaptor.forClass(Bson.class);
+        verify(collection).find(filter.capture(), eq(Document.class));
+        return filter.getValue();
+    }
+}
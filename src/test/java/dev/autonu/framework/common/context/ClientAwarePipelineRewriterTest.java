@@ -0,0 +1,116 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.error.UnsafeAggregationPipelineException;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.aggregation.UnionWithOperation;
+import org.springframework.data.mongodb.core.query.Collation;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwarePipelineRewriterTest {
+
+    private static final Document CLIENT_MATCH = new Document("$match", new Document("client_id", 7));
+
+    @Test
+    void givenAggregation_whenRendered_thenClientMatchIsFirstStage() {
+
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.group("status")
+                        .count()
+                        .as("total"), Aggregation.sort(org.springframework.data.domain.Sort.Direction.DESC, "total"))
+                .withOptions(AggregationOptions.builder()
+                        .allowDiskUse(true)
+                        .comment("report")
+                        .build());
+        Aggregation rewritten = ClientAwarePipelineRewriter.rewrite(aggregation, Aggregation.DEFAULT_CONTEXT, 7);
+        List<Document> pipeline = rewritten.toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertTrue(rewritten.getOptions()
+                .isAllowDiskUse());
+        assertEquals("report", rewritten.getOptions()
+                .getComment()
+                .orElse(null));
+        assertEquals(3, pipeline.size());
+        assertEquals(CLIENT_MATCH, pipeline.get(0));
+        assertEquals(1, aggregation.getPipeline()
+                .getOperations()
+                .get(0)
+                .toPipelineStages(Aggregation.DEFAULT_CONTEXT)
+                .size(), "provided aggregation is modified");
+    }
+
+    @Test
+    void givenTypedAggregation_whenRewritten_thenInputTypeAndCollationAreKept() {
+
+        TypedAggregation<Document> aggregation = Aggregation.newAggregation(Document.class, Aggregation.match(Criteria.where("status")
+                        .is("open")))
+                .withOptions(AggregationOptions.builder()
+                        .collation(Collation.of("fr"))
+                        .build());
+        Aggregation rewritten = ClientAwarePipelineRewriter.rewrite(aggregation, Aggregation.DEFAULT_CONTEXT, 7);
+        TypedAggregation<?> typedAggregation = assertInstanceOf(TypedAggregation.class, rewritten);
+        assertEquals(Document.class, typedAggregation.getInputType());
+        assertEquals(Collation.of("fr"), rewritten.getOptions()
+                .getCollation()
+                .orElse(null));
+        assertEquals(CLIENT_MATCH, rewritten.toPipeline(Aggregation.DEFAULT_CONTEXT)
+                .get(0));
+    }
+
+    @Test
+    void givenLookupAndUnionWith_whenRewritten_thenSubPipelinesAreRestricted() {
+
+        Aggregation aggregation = Aggregation.newAggregation(Aggregation.lookup("orders", "_id", "customer_id", "orders"), UnionWithOperation.unionWith("archived_customers"));
+        List<Document> pipeline = ClientAwarePipelineRewriter.rewrite(aggregation, Aggregation.DEFAULT_CONTEXT, 7)
+                .toPipeline(Aggregation.DEFAULT_CONTEXT);
+        assertEquals(CLIENT_MATCH, pipeline.get(0));
+        Document lookup = pipeline.get(1)
+                .get("$lookup", Document.class);
+        assertEquals(List.of(CLIENT_MATCH), lookup.get("pipeline"));
+        assertEquals("orders", lookup.get("from"));
+        Document unionWith = pipeline.get(2)
+                .get("$unionWith", Document.class);
+        assertEquals("archived_customers", unionWith.get("coll"));
+        assertEquals(List.of(CLIENT_MATCH), unionWith.get("pipeline"));
+    }
+
+    @Test
+    void givenGeoNearGraphLookupAndFacet_whenRewritten_thenClientFilterIsMerged() {
+
+        List<Document> pipeline = List.of(new Document("$geoNear", new Document("near", List.of(0, 0)).append("query", new Document("type", "shop"))), new Document("$graphLookup", new Document("from", "employees").append("startWith", "$manager")), new Document("$facet", new Document("nested", List.of(new Document("$lookup", new Document("from", "orders").append("pipeline", List.of()))))));
+        List<Document> rewritten = ClientAwarePipelineRewriter.rewrite(pipeline, 7);
+        assertEquals(3, rewritten.size());
+        Document geoNear = rewritten.get(0)
+                .get("$geoNear", Document.class);
+        assertEquals(new Document("$and", List.of(new Document("type", "shop"), new Document("client_id", 7))), geoNear.get("query"));
+        Document graphLookup = rewritten.get(1)
+                .get("$graphLookup", Document.class);
+        assertEquals(new Document("client_id", 7), graphLookup.get("restrictSearchWithMatch"));
+        Document facetLookup = rewritten.get(2)
+                .get("$facet", Document.class)
+                .getList("nested", Document.class)
+                .get(0)
+                .get("$lookup", Document.class);
+        assertEquals(List.of(CLIENT_MATCH), facetLookup.get("pipeline"));
+    }
+
+    @Test
+    void givenUnknownStage_whenRewritten_thenPipelineIsRejected() {
+
+        assertThrows(UnsafeAggregationPipelineException.class, () -> ClientAwarePipelineRewriter.rewrite(List.of(new Document("$collStats", new Document())), 7));
+        assertThrows(UnsafeAggregationPipelineException.class, () -> ClientAwarePipelineRewriter.rewrite(List.of(new Document("$out", "reports")), 7));
+        assertThrows(UnsafeAggregationPipelineException.class, () -> ClientAwarePipelineRewriter.rewrite(List.of(new Document("$merge", new Document("into", "reports").append("on", "_id"))), 7));
+        assertThrows(UnsafeAggregationPipelineException.class, () -> ClientAwarePipelineRewriter.rewrite(List.of(new Document("$facet", new Document("nested", List.of(new Document("$out", "reports"))))), 7));
+        assertThrows(UnsafeAggregationPipelineException.class, () -> ClientAwarePipelineRewriter.rewrite(List.of(Aggregation.match(Criteria.where("a")
+                .is(1))
+                .toDocument(Aggregation.DEFAULT_CONTEXT), new Document("$geoNear", new Document())), 7));
+    }
+}
@@ -0,0 +1,103 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareReplicaDataSourceTest {
+
+    @Test
+    void givenRoundRobinSelection_whenSelectingReplicas_thenReplicasAreUsedInTurn() {
+
+        ClientAwareDataSource first = replica("first");
+        ClientAwareDataSource second = replica("second");
+        TestReplicaDataSource dataSource = new TestReplicaDataSource(mock(DataSource.class), List.of(first, second), ClientAwareDataSourceProperties.Replicas.Selection.ROUND_ROBIN);
+        assertSame(first, dataSource.selectReplica());
+        assertSame(second, dataSource.selectReplica());
+        assertSame(first, dataSource.selectReplica());
+    }
+
+    @Test
+    void givenLaggingReplica_whenLagIsChecked_thenReplicaIsEjectedUntilItCatchesUp() {
+
+        ClientAwareDataSource first = replica("first");
+        ClientAwareDataSource second = replica("second");
+        TestReplicaDataSource dataSource = new TestReplicaDataSource(mock(DataSource.class), List.of(first, second), ClientAwareDataSourceProperties.Replicas.Selection.ROUND_ROBIN);
+        dataSource.lags.put(first, 30.0);
+        dataSource.checkLag();
+        assertEquals(1, dataSource.getAvailableReplicas());
+        assertSame(second, dataSource.selectReplica());
+        assertSame(second, dataSource.selectReplica());
+
+        dataSource.lags.put(first, 0.5);
+        dataSource.checkLag();
+        assertEquals(2, dataSource.getAvailableReplicas());
+    }
+
+    @Test
+    void givenFailingLagCheck_whenLagIsChecked_thenReplicaIsEjected() {
+
+        ClientAwareDataSource first = replica("first");
+        TestReplicaDataSource dataSource = new TestReplicaDataSource(mock(DataSource.class), List.of(first), ClientAwareDataSourceProperties.Replicas.Selection.LEAST_LOADED);
+        dataSource.failing = true;
+        dataSource.checkLag();
+        assertEquals(0, dataSource.getAvailableReplicas());
+        assertNull(dataSource.selectReplica());
+    }
+
+    @Test
+    void givenAllReplicasEjected_whenReadOnlyConnectionIsUsed_thenPrimaryIsUsed() throws SQLException {
+
+        DataSource primary = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(connection);
+        TestReplicaDataSource dataSource = new TestReplicaDataSource(primary, List.of(replica("first")), ClientAwareDataSourceProperties.Replicas.Selection.ROUND_ROBIN);
+        dataSource.failing = true;
+        dataSource.checkLag();
+        try (Connection readOnlyConnection = dataSource.getConnection()) {
+            readOnlyConnection.setReadOnly(true);
+            readOnlyConnection.createStatement();
+        }
+        verify(connection).createStatement();
+    }
+
+    private static ClientAwareDataSource replica(String name) {
+
+        ClientAwareDataSource replica = new ClientAwareDataSource("app.current_client_id");
+        replica.setPoolName(name);
+        return replica;
+    }
+
+    private static final class TestReplicaDataSource extends ClientAwareReplicaDataSource {
+
+        private final Map<ClientAwareDataSource, Double> lags = new HashMap<>();
+        private boolean failing;
+
+        private TestReplicaDataSource(DataSource primary, List<ClientAwareDataSource> replicas, ClientAwareDataSourceProperties.Replicas.Selection selection) {
+
+            super(primary, replicas, new ClientAwareDataSourceProperties.Replicas(true, List.of(), 10, selection, Duration.ofSeconds(10), Duration.ofSeconds(5)));
+        }
+
+        @Override
+        protected double replicationLag(ClientAwareDataSource replica) throws SQLException {
+
+            if (failing) {
+                throw new SQLException("Connection refused");
+            }
+            return lags.getOrDefault(replica, 0.0);
+        }
+    }
+}
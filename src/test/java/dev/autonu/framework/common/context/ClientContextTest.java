@@ -0,0 +1,92 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientContextTest {
+
+    private final ClientUserAssociation first = new ClientUserAssociation(1, 1L, "first");
+    private final ClientUserAssociation second = new ClientUserAssociation(2, 2L, "second");
+
+    @AfterEach
+    void tearDown() {
+
+        ClientContext.clear();
+    }
+
+    @Test
+    void givenNestedScopes_whenClosed_thenPreviousClientIsRestored() {
+
+        try (ClientScope ignored = ClientContext.bind(first)) {
+            try (ClientScope nested = ClientContext.bind(second)) {
+                assertEquals(second, ClientContext.get());
+            }
+            assertEquals(first, ClientContext.get());
+        }
+        assertNull(ClientContext.get());
+    }
+
+    @Test
+    void givenNestedScopes_whenBoundAndClosed_thenMdcFollowsBoundClient() {
+
+        try (ClientScope ignored = ClientContext.bind(first)) {
+            assertEquals("1", MDC.get(ClientContext.MDC_CLIENT_ID));
+            try (ClientScope nested = ClientContext.bind(second)) {
+                assertEquals("2", MDC.get(ClientContext.MDC_CLIENT_ID));
+            }
+            assertEquals("1", MDC.get(ClientContext.MDC_CLIENT_ID));
+        }
+        assertNull(MDC.get(ClientContext.MDC_CLIENT_ID));
+    }
+
+    @Test
+    void givenWrappedExecutor_whenTaskSubmitted_thenClientOfSubmitterIsBound() throws Exception {
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            executorService.submit(() -> ClientContext.set(second))
+                    .get();
+            try (ClientScope ignored = ClientContext.bind(first)) {
+                assertEquals(first, CompletableFuture.supplyAsync(ClientContext::get, ClientContext.wrap(executorService))
+                        .get());
+            }
+            assertEquals(second, executorService.submit(ClientContext::get)
+                    .get(), "client of the worker thread is not restored");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void givenContextSnapshot_whenRestoredOnOtherThread_thenClientIsPropagated() throws Exception {
+
+        ContextSnapshot snapshot;
+        try (ClientScope ignored = ClientContext.bind(first)) {
+            snapshot = ContextSnapshotFactory.builder()
+                    .build()
+                    .captureAll();
+        }
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            assertEquals(first, executorService.submit(snapshot.wrap(ClientContext::get))
+                    .get());
+            assertNull(executorService.submit(ClientContext::get)
+                    .get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package dev.autonu.framework.common.context;
+
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientCriteriaCacheTest {
+
+    @Test
+    void givenSameClient_whenCriteriaRequested_thenCachedCriteriaIsReturned() {
+
+        ClientCriteriaCache criteriaCache = new ClientCriteriaCache("client_id", 2);
+        Criteria criteria = criteriaCache.get(7);
+        assertSame(criteria, criteriaCache.get(7));
+        assertEquals(new Document("client_id", 7), criteria.getCriteriaObject());
+    }
+
+    @Test
+    void givenFullCache_whenNewClientRequested_thenSizeStaysBounded() {
+
+        ClientCriteriaCache criteriaCache = new ClientCriteriaCache("client_id", 2);
+        for (int clientId = 0; clientId < 10; clientId++) {
+            assertEquals(new Document("client_id", clientId), criteriaCache.get(clientId)
+                    .getCriteriaObject());
+        }
+        assertEquals(2, criteriaCache.size());
+    }
+}
@@ -0,0 +1,106 @@
+package dev.autonu.framework.common.context;
+
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientFairExecutorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientFairExecutorTest {
+
+    private ClientFairExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+
+        ClientContext.clear();
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    @Test
+    void givenWeightedClients_whenTasksQueued_thenClientsAreServedByWeight() throws InterruptedException {
+
+        executor = new ClientFairExecutor("test", new ClientFairExecutorProperties(true, 1, 1, Map.of(1, 2), 100));
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(9);
+        List<Integer> clients = new CopyOnWriteArrayList<>();
+        submit(3, () -> await(blocked));
+        for (int i = 0; i < 6; i++) {
+            submit(1, () -> record(clients, done));
+        }
+        for (int i = 0; i < 3; i++) {
+            submit(2, () -> record(clients, done));
+        }
+        assertEquals(6, executor.getQueuedTasks(1));
+        executor.start();
+        blocked.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1, 1, 2, 1, 1, 2, 1, 1, 2), clients);
+        assertEquals(0, executor.getQueuedTasks());
+    }
+
+    @Test
+    void givenFullClientQueue_whenTaskSubmitted_thenOnlyThatClientIsRejected() {
+
+        executor = new ClientFairExecutor("test", new ClientFairExecutorProperties(true, 1, 1, Map.of(), 2));
+        submit(1, () -> {
+        });
+        submit(1, () -> {
+        });
+        assertThrows(RejectedExecutionException.class, () -> submit(1, () -> {
+        }));
+        submit(2, () -> {
+        });
+        assertEquals(3, executor.getQueuedTasks());
+    }
+
+    @Test
+    void givenTaskThrowingError_whenRun_thenWorkerRunsNextTask() throws InterruptedException {
+
+        executor = new ClientFairExecutor("test", new ClientFairExecutorProperties(true, 1, 1, Map.of(), 10));
+        CountDownLatch done = new CountDownLatch(1);
+        submit(1, () -> {
+            throw new AssertionError("Failed");
+        });
+        submit(2, done::countDown);
+        executor.start();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    private void submit(Integer clientId, Runnable task) {
+
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(clientId, 1L, "user"))) {
+            executor.execute(task);
+        }
+    }
+
+    private static void record(List<Integer> clients, CountDownLatch done) {
+
+        clients.add(ClientContext.get()
+                .clientId());
+        done.countDown();
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+}
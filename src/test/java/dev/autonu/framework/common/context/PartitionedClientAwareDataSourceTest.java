@@ -0,0 +1,137 @@
+package dev.autonu.framework.common.context;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientAwareDataSourceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class PartitionedClientAwareDataSourceTest {
+
+    private final Map<String, ClientAwareDataSource> pools = new HashMap<>();
+    private final Map<String, HikariPoolMXBean> poolBeans = new HashMap<>();
+    private final PartitionedClientAwareDataSource dataSource = new PartitionedClientAwareDataSource(properties()) {
+        @Override
+        protected ClientAwareDataSource createDataSource(String poolName, int maximumPoolSize) {
+
+            return pool(poolName);
+        }
+    };
+
+    @Test
+    void givenExhaustedBudget_whenAnotherClientConnects_thenIdlePoolIsClosedAndItsSkippedBindingsAreKept() throws SQLException {
+
+        connect(1);
+        connect(2);
+        when(pools.get("1").getSkippedBindings()).thenReturn(3L);
+        when(pools.get("shared").getSkippedBindings()).thenReturn(1L);
+        when(poolBeans.get("2").getActiveConnections()).thenReturn(1);
+        assertEquals(4, dataSource.getSkippedBindings());
+        connect(3);
+        verify(pools.get("1")).close();
+        verify(pools.get("2"), never()).close();
+        verify(pools.get("3")).getConnection();
+        assertEquals(2, dataSource.getDedicatedPools());
+        assertEquals(4, dataSource.getSkippedBindings());
+    }
+
+    @Test
+    void givenAllDedicatedPoolsActive_whenAnotherClientConnects_thenSharedPoolIsUsed() throws SQLException {
+
+        connect(1);
+        connect(2);
+        when(poolBeans.get("1").getActiveConnections()).thenReturn(1);
+        when(poolBeans.get("2").getActiveConnections()).thenReturn(1);
+        connect(3);
+        verify(pools.get("1"), never()).close();
+        verify(pools.get("2"), never()).close();
+        assertFalse(pools.containsKey("3"));
+        verify(pools.get("shared")).getConnection();
+    }
+
+    @Test
+    void givenConnectionBeingBorrowed_whenBudgetIsExhausted_thenItsPoolIsNotClosed() throws SQLException {
+
+        connect(1);
+        connect(2);
+        when(poolBeans.get("2").getActiveConnections()).thenReturn(1);
+        ClientAwareDataSource first = pools.get("1");
+        when(first.getConnection()).thenAnswer(invocation -> {
+            connect(3);
+            return mock(Connection.class);
+        });
+        connect(1);
+        verify(first, never()).close();
+        assertFalse(pools.containsKey("3"));
+        verify(pools.get("shared")).getConnection();
+    }
+
+    @Test
+    void givenIdleDedicatedPool_whenAnyClientConnectsAfterIdleTimeout_thenItIsClosed() throws SQLException, InterruptedException {
+
+        ClientAwareDataSourceProperties.Partition partition = new ClientAwareDataSourceProperties.Partition(true, Set.of(1), 5, 10, 20, Duration.ofMillis(1));
+        PartitionedClientAwareDataSource dataSource = new PartitionedClientAwareDataSource(new ClientAwareDataSourceProperties("jdbc:postgresql://localhost/app", "app", "secret", "app.current_client_id", partition, null, null, null)) {
+            @Override
+            protected ClientAwareDataSource createDataSource(String poolName, int maximumPoolSize) {
+
+                return pool(poolName);
+            }
+        };
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(1, 1L, "user"))) {
+            dataSource.getConnection();
+        }
+        assertEquals(1, dataSource.getDedicatedPools());
+        Thread.sleep(10);
+        dataSource.getConnection();
+        verify(pools.get("1")).close();
+        assertEquals(0, dataSource.getDedicatedPools());
+    }
+
+    @Test
+    void givenPropertiesWithoutPartition_whenDefaulted_thenDefaultIdleTimeoutIsUsed() {
+
+        ClientAwareDataSourceProperties properties = new ClientAwareDataSourceProperties("jdbc:postgresql://localhost/app", "app", "secret", "app.current_client_id");
+        assertEquals(Duration.ofMinutes(10), properties.partition()
+                .idleTimeout());
+    }
+
+    private void connect(Integer clientId) throws SQLException {
+
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(clientId, 1L, "user"))) {
+            dataSource.getConnection();
+        }
+    }
+
+    private ClientAwareDataSource pool(String poolName) {
+
+        ClientAwareDataSource pool = mock(ClientAwareDataSource.class);
+        HikariPoolMXBean poolBean = mock(HikariPoolMXBean.class);
+        try {
+            when(pool.getConnection()).thenReturn(mock(Connection.class));
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        when(pool.getHikariPoolMXBean()).thenReturn(poolBean);
+        pools.put(poolName, pool);
+        poolBeans.put(poolName, poolBean);
+        return pool;
+    }
+
+    private static ClientAwareDataSourceProperties properties() {
+
+        ClientAwareDataSourceProperties.Partition partition = new ClientAwareDataSourceProperties.Partition(true, Set.of(1, 2, 3), 5, 10, 20, Duration.ofMinutes(10));
+        return new ClientAwareDataSourceProperties("jdbc:postgresql://localhost/app", "app", "secret", "app.current_client_id", partition, null, null, null);
+    }
+}
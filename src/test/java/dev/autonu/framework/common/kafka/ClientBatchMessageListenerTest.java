@@ -0,0 +1,77 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientBatchMessageListenerTest {
+
+    private static final ClientUserAssociation CLIENT_1 = new ClientUserAssociation(1, 10L, "user-10");
+    private static final ClientUserAssociation CLIENT_2 = new ClientUserAssociation(2, 20L, "user-20");
+
+    @Test
+    void givenRecordsOfSeveralClients_whenDispatched_thenEachClientGroupIsHandedOverOnceWithClientBound() {
+
+        List<ConsumerRecord<String, String>> records = List.of(record(0, CLIENT_1), record(1, CLIENT_2), record(2, null), record(3, CLIENT_1));
+        List<String> calls = new ArrayList<>();
+        new ClientBatchMessageListener<String, String>((association, group) -> {
+            assertEquals(association, ClientContext.get());
+            calls.add((association != null ? association.clientId() : null) + ":" + group.stream()
+                    .map(ConsumerRecord::offset)
+                    .toList());
+        }).onMessage(records);
+        assertEquals(List.of("1:[0, 3]", "2:[1]", "null:[2]"), calls);
+        assertNull(ClientContext.get());
+    }
+
+    @Test
+    void givenFailingGroup_whenDispatched_thenFailureIndexIsFirstRecordOfGroup() {
+
+        List<ConsumerRecord<String, String>> records = List.of(record(0, CLIENT_1), record(1, CLIENT_2), record(2, CLIENT_1));
+        BatchListenerFailedException exception = assertThrows(BatchListenerFailedException.class, () -> ClientBatchMessageListener.dispatch(records, (association, group) -> {
+            if (association.equals(CLIENT_2)) {
+                throw new IllegalStateException("Failed");
+            }
+        }));
+        assertEquals(1, exception.getIndex());
+    }
+
+    @Test
+    void givenClientBound_whenRecordIsSent_thenInterceptorAddsClientHeaders() {
+
+        ProducerRecord<String, String> record = new ProducerRecord<>("orders", "value");
+        ClientContextProducerInterceptor<String, String> interceptor = new ClientContextProducerInterceptor<>();
+        try (ClientScope ignored = ClientContext.bind(CLIENT_1)) {
+            interceptor.onSend(record);
+        }
+        assertEquals(CLIENT_1, ClientHeaders.read(record.headers()));
+        try (ClientScope ignored = ClientContext.bind(CLIENT_2)) {
+            interceptor.onSend(record);
+        }
+        assertEquals(CLIENT_1, ClientHeaders.read(record.headers()));
+    }
+
+    private static ConsumerRecord<String, String> record(long offset, ClientUserAssociation association) {
+
+        RecordHeaders headers = new RecordHeaders();
+        if (association != null) {
+            ClientHeaders.write(headers, association);
+        }
+        return new ConsumerRecord<>("orders", 0, offset, 0L, TimestampType.CREATE_TIME, 0, 0, null, "value", headers, Optional.empty());
+    }
+}
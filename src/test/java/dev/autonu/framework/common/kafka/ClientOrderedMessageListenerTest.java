@@ -0,0 +1,184 @@
+package dev.autonu.framework.common.kafka;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientKafkaProperties;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientOrderedMessageListenerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    void givenSlowKey_whenRecordsAreProcessed_thenOtherKeysProceedAndEachKeyKeepsOffsetOrder() throws InterruptedException {
+
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherKeyDone = new CountDownLatch(2);
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger acknowledged = new AtomicInteger();
+        ClientOrderedMessageListener<String, String> listener = new ClientOrderedMessageListener<>("orders", record -> {
+            if (record.offset() == 0) {
+                await(release);
+            }
+            processed.add(record.key() + record.offset());
+            if (record.key()
+                    .equals("b")) {
+                otherKeyDone.countDown();
+            }
+        }, executor, parallel(ClientKafkaProperties.Parallel.Ordering.KEY, 10));
+        listener.onMessage(record("a", 0, null), acknowledged::incrementAndGet);
+        listener.onMessage(record("b", 1, null), acknowledged::incrementAndGet);
+        listener.onMessage(record("a", 2, null), acknowledged::incrementAndGet);
+        listener.onMessage(record("b", 3, null), acknowledged::incrementAndGet);
+        assertTrue(otherKeyDone.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("b1", "b3"), List.copyOf(processed));
+        release.countDown();
+        awaitInFlight(listener);
+        assertEquals(List.of("b1", "b3", "a0", "a2"), List.copyOf(processed));
+        assertEquals(4, acknowledged.get());
+    }
+
+    @Test
+    void givenClientOrdering_whenRecordFails_thenClientIsBoundAndRecordIsHandedToErrorHandlerAndAcknowledged() throws InterruptedException {
+
+        ClientUserAssociation association = new ClientUserAssociation(7, 1L, "user");
+        List<ClientUserAssociation> bound = Collections.synchronizedList(new ArrayList<>());
+        List<Long> failed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger acknowledged = new AtomicInteger();
+        ClientOrderedMessageListener<String, String> listener = new ClientOrderedMessageListener<>("orders", record -> {
+            bound.add(ClientContext.get());
+            throw new IllegalStateException("Failed");
+        }, executor, parallel(ClientKafkaProperties.Parallel.Ordering.CLIENT, 10));
+        listener.setErrorHandler((record, e) -> failed.add(record.offset()));
+        listener.onMessage(record("a", 0, association), acknowledged::incrementAndGet);
+        listener.onMessage(record("b", 1, association), acknowledged::incrementAndGet);
+        awaitInFlight(listener);
+        assertEquals(List.of(association, association), List.copyOf(bound));
+        assertEquals(List.of(0L, 1L), List.copyOf(failed));
+        assertEquals(2, acknowledged.get());
+    }
+
+    @Test
+    void givenNoErrorHandler_whenRecordFails_thenRecordIsSkippedAndAcknowledged() throws InterruptedException {
+
+        List<Long> processed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger acknowledged = new AtomicInteger();
+        ClientOrderedMessageListener<String, String> listener = new ClientOrderedMessageListener<>("orders", record -> {
+            if (record.offset() == 0) {
+                throw new IllegalStateException("Failed");
+            }
+            processed.add(record.offset());
+        }, executor, parallel(ClientKafkaProperties.Parallel.Ordering.KEY, 10));
+        listener.onMessage(record("a", 0, null), acknowledged::incrementAndGet);
+        listener.onMessage(record("a", 1, null), acknowledged::incrementAndGet);
+        awaitInFlight(listener);
+        assertEquals(List.of(1L), List.copyOf(processed));
+        assertEquals(2, acknowledged.get());
+    }
+
+    @Test
+    void givenFailingErrorHandler_whenRecordFails_thenRecordIsStillAcknowledged() throws InterruptedException {
+
+        AtomicInteger acknowledged = new AtomicInteger();
+        ClientOrderedMessageListener<String, String> listener = new ClientOrderedMessageListener<>("orders", record -> {
+            throw new IllegalStateException("Failed");
+        }, executor, parallel(ClientKafkaProperties.Parallel.Ordering.KEY, 10));
+        listener.setErrorHandler((record, e) -> {
+            throw new IllegalStateException("Dead letter topic unavailable");
+        });
+        listener.onMessage(record("a", 0, null), acknowledged::incrementAndGet);
+        awaitInFlight(listener);
+        assertEquals(1, acknowledged.get());
+    }
+
+    @Test
+    void givenRecordOfClient_whenHandedToExecutor_thenClientIsBound() throws InterruptedException {
+
+        ClientUserAssociation association = new ClientUserAssociation(7, 1L, "user");
+        List<ClientUserAssociation> bound = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger acknowledged = new AtomicInteger();
+        Executor capturing = task -> {
+            bound.add(ClientContext.get());
+            executor.execute(task);
+        };
+        ClientOrderedMessageListener<String, String> listener = new ClientOrderedMessageListener<>("orders", record -> {
+        }, capturing, parallel(ClientKafkaProperties.Parallel.Ordering.CLIENT, 10));
+        listener.onMessage(record("a", 0, association), acknowledged::incrementAndGet);
+        awaitInFlight(listener);
+        assertEquals(List.of(association), List.copyOf(bound));
+        assertNull(ClientContext.get());
+        assertEquals(1, acknowledged.get());
+    }
+
+    @Test
+    void givenParallelProperties_whenContainerConfigured_thenAsyncAcksAreUsedAndPollIsBoundedByMaxInFlight() {
+
+        ContainerProperties containerProperties = new ContainerProperties("orders");
+        ClientOrderedMessageListener.configure(containerProperties, parallel(ClientKafkaProperties.Parallel.Ordering.KEY, 200));
+        assertEquals(ContainerProperties.AckMode.MANUAL, containerProperties.getAckMode());
+        assertTrue(containerProperties.isAsyncAcks());
+        assertEquals("200", containerProperties.getKafkaConsumerProperties()
+                .getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG));
+    }
+
+    private static ClientKafkaProperties.Parallel parallel(ClientKafkaProperties.Parallel.Ordering ordering, int maxInFlight) {
+
+        return new ClientKafkaProperties.Parallel(true, ordering, maxInFlight);
+    }
+
+    private static ConsumerRecord<String, String> record(String key, long offset, ClientUserAssociation association) {
+
+        RecordHeaders headers = new RecordHeaders();
+        if (association != null) {
+            ClientHeaders.write(headers, association);
+        }
+        return new ConsumerRecord<>("orders", 0, offset, 0L, TimestampType.CREATE_TIME, 0, 0, key, "value", headers, Optional.empty());
+    }
+
+    private static void awaitInFlight(ClientOrderedMessageListener<?, ?> listener) throws InterruptedException {
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (listener.getInFlight() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, listener.getInFlight());
+    }
+
+    private static void await(CountDownLatch latch) {
+
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                    .interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dev.autonu.framework.common.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import dev.autonu.framework.common.properties.ClientAsyncLoggingProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAsyncAppenderTest {
+
+    @Test
+    void givenFullQueue_whenDebugLogged_thenDroppedAndOthersKept() throws Exception {
+
+        LoggerContext loggerContext = loggerContext();
+        BlockingAppender blocking = new BlockingAppender();
+        blocking.setContext(loggerContext);
+        blocking.start();
+        ClientAsyncAppender appender = new ClientAsyncAppender(ClientAsyncLoggingProperties.FullPolicy.DROP_DEBUG);
+        appender.setContext(loggerContext);
+        appender.setQueueSize(1);
+        appender.addAppender(blocking);
+        appender.start();
+        Logger logger = loggerContext.getLogger(ClientAsyncAppenderTest.class);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        logger.info("taken by the worker");
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+        logger.info("queued");
+        logger.debug("dropped");
+        assertEquals(1, appender.getQueueDepth());
+        assertEquals(1, appender.getDropped());
+        blocking.release.countDown();
+        appender.stop();
+        assertEquals(List.of("taken by the worker", "queued"), blocking.messages);
+    }
+
+    @Test
+    void givenRootAppender_whenInstalled_thenWrappedOnce() {
+
+        LoggerContext loggerContext = loggerContext();
+        ListAppender<ILoggingEvent> listAppender = new ListAppender<>();
+        listAppender.setName("LIST");
+        listAppender.setContext(loggerContext);
+        listAppender.start();
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(listAppender);
+        ClientAsyncLoggingProperties properties = new ClientAsyncLoggingProperties(true, 16, ClientAsyncLoggingProperties.FullPolicy.BLOCK, false, Duration.ofSeconds(1));
+        List<ClientAsyncAppender> installed = ClientAsyncLoggingListener.install(loggerContext, properties);
+        assertEquals(1, installed.size());
+        assertEquals(ClientAsyncLoggingListener.APPENDER_NAME_PREFIX + "LIST", installed.get(0)
+                .getName());
+        assertNull(root.getAppender("LIST"));
+        assertTrue(ClientAsyncLoggingListener.install(loggerContext, properties)
+                .isEmpty());
+        assertEquals(installed, ClientAsyncLoggingListener.installed(loggerContext));
+        root.info("written asynchronously");
+        loggerContext.stop();
+        assertEquals(1, listAppender.list.size());
+    }
+
+    private static LoggerContext loggerContext() {
+
+        LoggerContext loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        return loggerContext;
+    }
+
+    private static final class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+
+            messages.add(event.getFormattedMessage());
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                        .interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package dev.autonu.framework.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientOperationMetricsTest {
+
+    @Test
+    void givenOperations_whenRecorded_thenMetersAreTaggedByClient() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ClientOperationMetrics metrics = new ClientOperationMetrics(registry, ClientOperationMetrics.MONGO_PREFIX, ClientOperationMetrics.MONGO_TARGET_TAG, 10);
+        metrics.record("find", "orders", 1, 1_000_000, 5);
+        metrics.record("find", "orders", 1, 1_000_000, 3);
+        metrics.recordError("find", "orders", 1);
+        Timer timer = registry.find(ClientOperationMetrics.MONGO_PREFIX + ".operations")
+                .tags("operation", "find", "collection", "orders", "client", "1")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+        assertEquals(8, registry.get(ClientOperationMetrics.MONGO_PREFIX + ".documents")
+                .tags("client", "1")
+                .summary()
+                .totalAmount());
+        assertEquals(1, registry.get(ClientOperationMetrics.MONGO_PREFIX + ".errors")
+                .tags("client", "1")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void givenMoreClientsThanMaxClientTags_whenRecorded_thenLaterClientsAreRecordedAsOther() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ClientOperationMetrics metrics = new ClientOperationMetrics(registry, ClientOperationMetrics.DATASOURCE_PREFIX, ClientOperationMetrics.DATASOURCE_TARGET_TAG, 2);
+        for (int clientId = 1; clientId <= 5; clientId++) {
+            metrics.record("getConnection", "pool", clientId, 1_000, -1);
+        }
+        metrics.record("getConnection", "pool", null, 1_000, -1);
+        assertEquals(4, registry.find(ClientOperationMetrics.DATASOURCE_PREFIX + ".operations")
+                .timers()
+                .size());
+        assertEquals(3, registry.get(ClientOperationMetrics.DATASOURCE_PREFIX + ".operations")
+                .tags("client", ClientOperationMetrics.OTHER_CLIENT)
+                .timer()
+                .count());
+        assertEquals(0, registry.get(ClientOperationMetrics.DATASOURCE_PREFIX + ".documents")
+                .tags("client", "1")
+                .summary()
+                .count());
+    }
+
+    @Test
+    void givenMoreClientsThanMaxClientTags_whenCountersAreRegistered_thenLaterClientsAreSummedUpAsOther() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ClientOperationMetrics metrics = new ClientOperationMetrics(registry, ClientOperationMetrics.CACHE_PREFIX, ClientOperationMetrics.CACHE_TARGET_TAG, 1);
+        AtomicLong first = new AtomicLong(1);
+        AtomicLong second = new AtomicLong(2);
+        AtomicLong third = new AtomicLong(3);
+        assertTrue(metrics.counter("gets", "orders", 1, first, AtomicLong::get, "result", "hit"));
+        assertFalse(metrics.counter("gets", "orders", 2, second, AtomicLong::get, "result", "hit"));
+        assertFalse(metrics.counter("gets", "orders", 3, third, AtomicLong::get, "result", "hit"));
+        third.incrementAndGet();
+        assertEquals(1, registry.get(ClientOperationMetrics.CACHE_PREFIX + ".gets")
+                .tags("client", "1", "result", "hit")
+                .functionCounter()
+                .count());
+        assertEquals(6, registry.get(ClientOperationMetrics.CACHE_PREFIX + ".gets")
+                .tags("client", ClientOperationMetrics.OTHER_CLIENT, "result", "hit")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    void givenReleasedStateOfOtherClient_whenCounted_thenItsLastCountIsKept() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ClientOperationMetrics metrics = new ClientOperationMetrics(registry, ClientOperationMetrics.CACHE_PREFIX, ClientOperationMetrics.CACHE_TARGET_TAG, 0);
+        AtomicLong first = new AtomicLong(1);
+        AtomicLong second = new AtomicLong(2);
+        metrics.counter("gets", "orders", 1, first, AtomicLong::get);
+        metrics.counter("gets", "orders", 2, second, AtomicLong::get);
+        metrics.release(first);
+        first.incrementAndGet();
+        second.incrementAndGet();
+        assertEquals(4, registry.get(ClientOperationMetrics.CACHE_PREFIX + ".gets")
+                .tags("client", ClientOperationMetrics.OTHER_CLIENT)
+                .functionCounter()
+                .count());
+    }
+}
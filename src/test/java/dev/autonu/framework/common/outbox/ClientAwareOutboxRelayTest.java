@@ -0,0 +1,102 @@
+package dev.autonu.framework.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.context.AuditStamper;
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.context.ClientScope;
+import dev.autonu.framework.common.kafka.ClientHeaders;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientOutboxProperties;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientAwareOutboxRelayTest {
+
+    private static final ClientOutboxProperties PROPERTIES = new ClientOutboxProperties(true, "client_outbox", "events", Map.of("Order", "orders"), null);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final ClientAwareOutboxRelay relay = new ClientAwareOutboxRelay(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)), kafkaTemplate, PROPERTIES);
+
+    @AfterEach
+    void tearDown() {
+
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void givenClientAndTransaction_whenEventIsPublished_thenRowIsInsertedWithTopicOfAggregateType() {
+
+        AuditStamper auditStamper = new AuditStamper(Clock.fixed(Instant.parse("2000-01-01T00:00:01Z"), ZoneOffset.UTC), Duration.ZERO);
+        ClientAwareOutbox outbox = new ClientAwareOutbox(jdbcTemplate, new ObjectMapper(), auditStamper, PROPERTIES);
+        assertThrows(IllegalStateException.class, () -> outbox.publish("Order", 1L, "created", Map.of()));
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try (ClientScope ignored = ClientContext.bind(new ClientUserAssociation(7, 3L, "user"))) {
+            outbox.publish("Order", 1L, "created", Map.of("name", "first"));
+        }
+        verify(jdbcTemplate).update(startsWith("INSERT INTO client_outbox"), eq(7), eq(3L), eq("user"), eq(OffsetDateTime.parse("2000-01-01T00:00:01Z")), eq("orders"), eq("1"), eq("Order"), eq("created"), eq("{\"name\":\"first\"}"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenClaimedEvents_whenBatchIsRelayed_thenEventsAreSentInIdOrderWithClientHeaders() {
+
+        OffsetDateTime createdAt = OffsetDateTime.now();
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(500))).thenReturn(List.of(event(2, createdAt), event(1, createdAt)));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        assertEquals(2, relay.relayBatch());
+        ArgumentCaptor<ProducerRecord<String, String>> records = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(records.capture());
+        assertEquals(List.of("payload-1", "payload-2"), records.getAllValues()
+                .stream()
+                .map(ProducerRecord::value)
+                .toList());
+        ProducerRecord<String, String> record = records.getAllValues()
+                .get(0);
+        assertEquals(new ClientUserAssociation(7, 3L, "user"), ClientHeaders.read(record.headers()));
+        assertEquals("created", new String(record.headers()
+                .lastHeader(ClientAwareOutboxRelay.EVENT_TYPE_HEADER)
+                .value(), StandardCharsets.UTF_8));
+        assertEquals(2, relay.getPublished());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenFailingSend_whenBatchIsRelayed_thenBatchFailsAndNothingIsCountedAsPublished() {
+
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(500))).thenReturn(List.of(event(1, OffsetDateTime.now())));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker down")));
+        assertThrows(IllegalStateException.class, relay::relayBatch);
+        assertEquals(0, relay.getPublished());
+    }
+
+    private static ClientAwareOutboxRelay.OutboxEvent event(long id, OffsetDateTime createdAt) {
+
+        return new ClientAwareOutboxRelay.OutboxEvent(id, 7, 3L, "user", createdAt, "orders", "1", "Order", "created", "payload-" + id);
+    }
+}
@@ -0,0 +1,114 @@
+package dev.autonu.framework.common.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.autonu.framework.common.error.InvalidClientTokenException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class BearerTokenClientResolverTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+    private static final ClientResolutionProperties.Token PROPERTIES = new ClientResolutionProperties.Token(SECRET, null, "client_id", "user_id", "sub", Duration.ofSeconds(30), 100, Duration.ofMinutes(5));
+
+    @Test
+    void givenValidToken_whenResolvedTwice_thenSecondIsServedFromCache() throws Exception {
+
+        BearerTokenClientResolver resolver = new BearerTokenClientResolver(PROPERTIES, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token("HS256", "{\"client_id\":7,\"user_id\":\"42\",\"sub\":\"jane\",\"exp\":" + (NOW.getEpochSecond() + 60) + "}", SECRET));
+        assertEquals(new ClientUserAssociation(7, 42L, "jane"), resolver.resolve(request));
+        assertEquals(new ClientUserAssociation(7, 42L, "jane"), resolver.resolve(request));
+        assertEquals(1, resolver.getCacheMisses());
+        assertEquals(1, resolver.getCacheHits());
+    }
+
+    @Test
+    void givenTokenSignedWithOtherSecret_whenResolved_thenRejectedAndNotCached() throws Exception {
+
+        BearerTokenClientResolver resolver = new BearerTokenClientResolver(PROPERTIES, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+        String token = token("HS256", "{\"client_id\":7}", "other-secret-other-secret-other!");
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve(token));
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve(token));
+        assertEquals(0, resolver.getCacheHits());
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve(token("none", "{\"client_id\":7}", SECRET)));
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve("not-a-token"));
+    }
+
+    @Test
+    void givenExpiredToken_whenResolved_thenRejectedAfterClockSkew() throws Exception {
+
+        BearerTokenClientResolver resolver = new BearerTokenClientResolver(PROPERTIES, new ObjectMapper(), Clock.fixed(NOW, ZoneOffset.UTC));
+        assertEquals(7, resolver.resolve(token("HS256", "{\"client_id\":7,\"exp\":" + (NOW.getEpochSecond() - 10) + "}", SECRET))
+                .clientId());
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve(token("HS256", "{\"client_id\":7,\"exp\":" + (NOW.getEpochSecond() - 60) + "}", SECRET)));
+        assertThrows(InvalidClientTokenException.class, () -> resolver.resolve(token("HS256", "{\"client_id\":7,\"nbf\":" + (NOW.getEpochSecond() + 60) + "}", SECRET)));
+    }
+
+    @Test
+    void givenCachedToken_whenExpired_thenVerifiedAgain() throws Exception {
+
+        MutableClock clock = new MutableClock(NOW);
+        BearerTokenClientResolver resolver = new BearerTokenClientResolver(PROPERTIES, new ObjectMapper(), clock);
+        String token = token("HS256", "{\"client_id\":7,\"exp\":" + (NOW.getEpochSecond() + 10) + "}", SECRET);
+        resolver.resolve(token);
+        clock.instant = NOW.plusSeconds(20);
+        resolver.resolve(token);
+        assertEquals(2, resolver.getCacheMisses());
+        assertEquals(0, resolver.getCacheHits());
+    }
+
+    private static String token(String algorithm, String claims, String secret) throws Exception {
+
+        Base64.Encoder encoder = Base64.getUrlEncoder()
+                .withoutPadding();
+        String content = encoder.encodeToString(("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\"}").getBytes(StandardCharsets.UTF_8)) + "." + encoder.encodeToString(claims.getBytes(StandardCharsets.UTF_8));
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return content + "." + encoder.encodeToString(mac.doFinal(content.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+
+            return instant;
+        }
+    }
+}
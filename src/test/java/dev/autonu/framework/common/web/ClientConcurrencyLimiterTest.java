@@ -0,0 +1,80 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.metrics.ClientOperationMetrics;
+import dev.autonu.framework.common.properties.ClientConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientConcurrencyLimiterTest {
+
+    private static final ClientConcurrencyLimitProperties PROPERTIES = new ClientConcurrencyLimitProperties(true, 4, 1, 8, Duration.ofHours(1), 0.5);
+
+    @Test
+    void givenClientAtLimit_whenAcquired_thenOnlyThatClientIsRejected() {
+
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ClientConcurrencyLimiter limiter = new ClientConcurrencyLimiter("http", PROPERTIES);
+        limiter.setMetrics(new ClientOperationMetrics(registry, ClientOperationMetrics.WEB_PREFIX, ClientOperationMetrics.WEB_TARGET_TAG, 10));
+        acquire(limiter, 1, 4);
+        assertNull(limiter.tryAcquire(1));
+        assertNotNull(limiter.tryAcquire(2));
+        assertEquals(4, limiter.getInFlight(1));
+        assertEquals(1, registry.get(ClientOperationMetrics.WEB_PREFIX + ".errors")
+                .tags("operation", ClientConcurrencyLimiter.OPERATION_ADMIT, "client", "1")
+                .counter()
+                .count());
+        assertEquals(4, registry.get(ClientOperationMetrics.WEB_PREFIX + "." + ClientConcurrencyLimiter.LIMIT_METRIC)
+                .tags("client", "1")
+                .gauge()
+                .value());
+    }
+
+    @Test
+    void givenOverloadedRequests_whenReleased_thenLimitIsDecreasedOncePerWindow() {
+
+        ClientConcurrencyLimiter limiter = new ClientConcurrencyLimiter("http", PROPERTIES);
+        List<ClientConcurrencyLimiter.Permit> permits = acquire(limiter, 1, 4);
+        permits.forEach(permit -> permit.release(true));
+        assertEquals(2, limiter.getLimit(1));
+        assertEquals(0, limiter.getInFlight(1));
+        acquire(limiter, 1, 2).forEach(permit -> permit.release(true));
+        assertEquals(1, limiter.getLimit(1));
+    }
+
+    @Test
+    void givenSaturatedFastRequests_whenReleased_thenLimitIsIncreasedOnlyWhileSaturated() {
+
+        ClientConcurrencyLimiter limiter = new ClientConcurrencyLimiter("http", PROPERTIES);
+        for (int i = 0; i < 2; i++) {
+            acquire(limiter, 1, limiter.getLimit(1)).forEach(permit -> permit.release(false));
+        }
+        assertEquals(5, limiter.getLimit(1));
+        ClientConcurrencyLimiter.Permit permit = limiter.tryAcquire(1);
+        assertNotNull(permit);
+        permit.release(false);
+        permit.release(true);
+        assertEquals(5, limiter.getLimit(1));
+        assertEquals(0, limiter.getInFlight(1));
+    }
+
+    private static List<ClientConcurrencyLimiter.Permit> acquire(ClientConcurrencyLimiter limiter, Integer clientId, int requests) {
+
+        List<ClientConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            ClientConcurrencyLimiter.Permit permit = limiter.tryAcquire(clientId);
+            assertNotNull(permit);
+            permits.add(permit);
+        }
+        return permits;
+    }
+}
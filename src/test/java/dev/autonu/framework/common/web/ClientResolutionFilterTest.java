@@ -0,0 +1,89 @@
+package dev.autonu.framework.common.web;
+
+import dev.autonu.framework.common.context.ClientContext;
+import dev.autonu.framework.common.error.InvalidClientTokenException;
+import dev.autonu.framework.common.model.ClientUserAssociation;
+import dev.autonu.framework.common.properties.ClientResolutionProperties;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author autonu2X
+ */
+class ClientResolutionFilterTest {
+
+    private static final ClientResolutionProperties PROPERTIES = new ClientResolutionProperties(true, ClientResolutionProperties.Source.HEADER, true, List.of("/actuator/**"), null, null);
+
+    @Test
+    void givenClientHeader_whenFiltered_thenClientIsBoundForChainOnly() throws Exception {
+
+        ClientResolutionFilter filter = new ClientResolutionFilter(new HeaderClientResolver(PROPERTIES.header()), PROPERTIES);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.addHeader("X-Client-Id", "7");
+        request.addHeader("X-User-Id", "42");
+        AtomicReference<ClientUserAssociation> bound = new AtomicReference<>();
+        AtomicReference<String> mdc = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            bound.set(ClientContext.get());
+            mdc.set(MDC.get(ClientContext.MDC_CLIENT_ID));
+        });
+        assertEquals(new ClientUserAssociation(7, 42L, null), bound.get());
+        assertEquals("7", mdc.get());
+        assertNull(ClientContext.get());
+        assertNull(MDC.get(ClientContext.MDC_CLIENT_ID));
+    }
+
+    @Test
+    void givenAsyncDispatch_whenFiltered_thenClientIsBoundAgain() throws Exception {
+
+        ClientResolutionFilter filter = new ClientResolutionFilter(new HeaderClientResolver(PROPERTIES.header()), PROPERTIES);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/orders");
+        request.setDispatcherType(DispatcherType.ASYNC);
+        request.addHeader("X-Client-Id", "7");
+        request.addHeader("X-User-Id", "42");
+        AtomicReference<ClientUserAssociation> bound = new AtomicReference<>();
+        AtomicReference<String> mdc = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            bound.set(ClientContext.get());
+            mdc.set(MDC.get(ClientContext.MDC_CLIENT_ID));
+        });
+        assertEquals(new ClientUserAssociation(7, 42L, null), bound.get());
+        assertEquals("7", mdc.get());
+        assertNull(ClientContext.get());
+    }
+
+    @Test
+    void givenMissingOrInvalidClient_whenFiltered_thenRejectedUnlessExcluded() throws Exception {
+
+        ClientResolutionFilter filter = new ClientResolutionFilter(request -> {
+            if (request.getHeader("Authorization") != null) {
+                throw new InvalidClientTokenException("Invalid token signature");
+            }
+            return null;
+        }, PROPERTIES);
+        MockHttpServletResponse missing = new MockHttpServletResponse();
+        MockFilterChain missingChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/orders"), missing, missingChain);
+        assertEquals(401, missing.getStatus());
+        assertNull(missingChain.getRequest());
+        MockHttpServletRequest invalidRequest = new MockHttpServletRequest("GET", "/orders");
+        invalidRequest.addHeader("Authorization", "Bearer x.y.z");
+        MockHttpServletResponse invalid = new MockHttpServletResponse();
+        filter.doFilter(invalidRequest, invalid, new MockFilterChain());
+        assertEquals(401, invalid.getStatus());
+        MockHttpServletResponse excluded = new MockHttpServletResponse();
+        MockFilterChain excludedChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), excluded, excludedChain);
+        assertEquals(200, excluded.getStatus());
+        assertNotNull(excludedChain.getRequest());
+    }
+}